@@ -1,31 +1,47 @@
 package org.allureIQ.AI;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import org.allureIQ.models.MongoConnector;
 import org.bson.Document;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class AiAutoContext {
 
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "/(\\d+|[0-9a-fA-F]{24}|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})(?=/|$)");
+    private static final Gson GSON = new Gson();
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([A-Za-z0-9_.\\-]+)}");
+    // method + normalized endpoint → payload schema (registered, or learned from an LLM payload)
+    private static final Map<String, JsonObject> PAYLOAD_SCHEMAS = new ConcurrentHashMap<>();
+
     // ======================
     // TOKEN MANAGEMENT
     // ======================
+    // 🔑 Served from the in-process AiTokenStore (Mongo is only read once per run)
     public static String getToken() {
-        MongoDatabase db = MongoConnector.connect();
-        MongoCollection<Document> col = db.getCollection("ai_context");
-        Document doc = col.find().first();
-        return doc != null ? doc.getString("token") : "no-token";
+        String token = AiTokenStore.get();
+        return token != null ? token : "no-token";
     }
 
     public static void setToken(String token) {
-        MongoDatabase db = MongoConnector.connect();
-        MongoCollection<Document> col = db.getCollection("ai_context");
-        col.drop(); // Always keep latest token
-        col.insertOne(new Document("token", token));
+        AiTokenStore.set(token);
+    }
+
+    // 🔁 Called (single-flight) when the token is missing or about to expire
+    public static void setLoginHandler(Supplier<String> loginHandler) {
+        AiTokenStore.setLoginHandler(loginHandler);
     }
 
     // ======================
@@ -49,20 +65,101 @@ public class AiAutoContext {
         return endpoint;
     }
 
+    // 🔹 Fills {column} placeholders from a data row first; anything left falls back to inference above
+    public static String inferEndpoint(String endpoint, Map<String, String> values) {
+        return inferEndpoint(fillPlaceholders(endpoint, values, true));
+    }
+
+    // {name} → value; URL-encoded for endpoints, JSON-escaped for payload templates
+    public static String fillPlaceholders(String template, Map<String, String> values, boolean urlEncode) {
+        if (template == null || values == null || values.isEmpty() || template.indexOf('{') < 0) return template;
+
+        Matcher m = PLACEHOLDER.matcher(template);
+        StringBuilder sb = new StringBuilder(template.length() + 16);
+        while (m.find()) {
+            String value = values.get(m.group(1));
+            String replacement = value == null ? m.group()
+                    : urlEncode ? URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20")
+                    : jsonEscape(value);
+            m.appendReplacement(sb, Matcher.quoteReplacement(replacement));
+        }
+        m.appendTail(sb);
+        return sb.toString();
+    }
+
+    private static String jsonEscape(String value) {
+        String quoted = GSON.toJson(value);
+        return quoted.substring(1, quoted.length() - 1);
+    }
+
+    // ======================
+    // ENDPOINT NORMALIZATION (inverse of inferEndpoint)
+    // ======================
+    // /jobs/42?page=2 → /jobs/{id}?page   (numbers, UUIDs and Mongo ObjectIds become {id})
+    public static String normalizeEndpoint(String endpoint) {
+        if (endpoint == null) return "";
+
+        String path = endpoint;
+        String query = "";
+        int q = endpoint.indexOf('?');
+        if (q >= 0) {
+            path = endpoint.substring(0, q);
+            query = endpoint.substring(q + 1);
+        }
+
+        String normalized = ID_SEGMENT.matcher(path).replaceAll("/{id}");
+        if (query.isEmpty()) return normalized;
+
+        StringBuilder keys = new StringBuilder();
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            keys.append(keys.length() == 0 ? "?" : "&").append(eq >= 0 ? pair.substring(0, eq) : pair);
+        }
+        return normalized + keys;
+    }
+
     // ======================
     // SMART PAYLOAD GENERATION (AI)
     // ======================
+    // 🎲 JSON Schema, example object or field list; payloads for this endpoint are then generated locally
+    public static void registerSchema(String method, String endpoint, String schema) {
+        JsonObject parsed = FakerPayloadGenerator.parseSchema(schema);
+        if (parsed == null) {
+            throw new IllegalArgumentException("❌ No fields found in payload schema for " + method + " " + endpoint);
+        }
+        PAYLOAD_SCHEMAS.put(payloadKey(method, endpoint), parsed);
+    }
+
     public static String smartPayload(String method, String endpoint) {
+        String key = payloadKey(method, endpoint);
+        JsonObject schema = "llm".equals(FakerPayloadGenerator.MODE) ? null : PAYLOAD_SCHEMAS.get(key);
+        if (schema != null) return FakerPayloadGenerator.generate(schema, key);
+        if ("local".equals(FakerPayloadGenerator.MODE)) {
+            System.err.println("⚠️ No payload schema registered for " + key + " (allureiq.payload.mode=local), sending {}");
+            return "{}";
+        }
+
         String prompt = "Generate a valid JSON payload for an HTTP " + method +
                 " request to endpoint: " + endpoint +
                 ". Include realistic test data and structure it properly.";
 
         // Call Gemini and auto-store the result
-        String aiResponse = GeminiAI.generate(prompt);
+        String aiResponse = GeminiAI.generate(CallSite.PAYLOAD, prompt, true);
         storeContext("payload_prompt", prompt, aiResponse);
+
+        // hybrid: the answer's shape becomes this endpoint's schema, later payloads are local
+        if ("hybrid".equals(FakerPayloadGenerator.MODE)) {
+            JsonObject learned = FakerPayloadGenerator.schemaOfExample(aiResponse);
+            if (learned != null) PAYLOAD_SCHEMAS.putIfAbsent(key, learned);
+        }
         return aiResponse;
     }
 
+    // placeholders ({id}, {userId}) and concrete ids share one key
+    private static String payloadKey(String method, String endpoint) {
+        return method.toUpperCase() + " " + PLACEHOLDER.matcher(normalizeEndpoint(endpoint)).replaceAll("{id}");
+    }
+
     // ======================
     // SMART QUERY PARAMETER GENERATION
     // ======================
@@ -124,7 +221,7 @@ public class AiAutoContext {
     public static String decideAction(String context) {
         String prompt = "Given this context: " + context +
                 ", decide which HTTP method (GET, POST, PUT, DELETE) is most appropriate.";
-        String aiResponse = GeminiAI.generate(prompt);
+        String aiResponse = GeminiAI.generate(CallSite.DECISION, prompt, true);
         storeContext("decision", context, aiResponse);
         return aiResponse;
     }
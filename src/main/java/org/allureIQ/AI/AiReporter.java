@@ -1,10 +1,14 @@
 package org.allureIQ.AI;
 
 import io.qameta.allure.Allure;
+import org.allureIQ.API.LatencyHistogram;
+import org.allureIQ.API.PhaseTimer;
+import org.allureIQ.models.AiMongoLogger;
 import org.allureIQ.models.MongoConnector;
 import org.allureIQ.models.ReportComparator;
 
 import java.io.FileWriter;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -16,16 +20,41 @@ import java.util.*;
  * - Summarizes all test results via GeminiAI
  * - Generates styled HTML + MongoDB + Allure integration
  * - Now includes run-to-run comparison summary (success %, failures, repeated errors)
+ * - Latency p50/p95/p99 per endpoint: total, target API (TTFB) and framework overhead
+ * - AI answer is streamed; each report section is printed and written to the report file as it completes
+ * - LLM telemetry per call site (latency, tokens, cost) as a report card
+ * - Prompt logs are compacted per endpoint and kept within -Dallureiq.summary.tokenBudget (default 6000)
  */
 public class AiReporter {
     private static final List<String> records = new ArrayList<>();
     private static final List<String> errorRecords = new ArrayList<>();
     private static final Map<String, Integer> endpointStatusMap = new LinkedHashMap<>();
+    private static final Map<String, String> extraSections = new LinkedHashMap<>();
+    private static final Map<String, LatencyHistogram[]> endpointTimings = new LinkedHashMap<>();
+    private static final LogCompactor compactor = new LogCompactor();
+    private static final int TOKEN_BUDGET = Integer.getInteger("allureiq.summary.tokenBudget", 6000);
+
+    // Histogram slots per endpoint
+    private static final int TOTAL = 0, TTFB = 1, OVERHEAD = 2;
+
+    // Section headers the summary prompt asks for (in order)
+    private static final List<String> SUMMARY_SECTIONS = List.of("Overall Summary", "Key Issues",
+            "Technical Root Cause Insights", "Suggestions", "Endpoints Tested", "Error Breakdown");
 
     // ✅ Log generic record
     public static synchronized void addRecord(String rec) {
-        String entry = "[" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss")) + "] " + rec;
-        records.add(entry);
+        stamp(rec);
+        compactor.line(rec);
+    }
+
+    // ✅ Log one API call (aggregated per endpoint for the AI prompt; errorBody only for failures)
+    public static synchronized void recordExecution(String method, String endpoint, int status, String errorBody) {
+        stamp(method + " " + endpoint + " → " + status);
+        compactor.execution(method, endpoint, status, errorBody);
+    }
+
+    private static void stamp(String rec) {
+        records.add("[" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss")) + "] " + rec);
     }
 
     public static synchronized void log(String msg) {
@@ -45,13 +74,47 @@ public class AiReporter {
         errorRecords.add(formatted);
     }
 
+    // ✅ Per-phase timing of one call (key: method + normalized endpoint)
+    public static synchronized void recordTiming(String endpointKey, PhaseTimer timer) {
+        LatencyHistogram[] h = endpointTimings.computeIfAbsent(endpointKey,
+                k -> new LatencyHistogram[]{new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram()});
+        h[TOTAL].recordNanos(timer.totalNanos());
+        h[TTFB].recordNanos(timer.ttfbNanos());
+        h[OVERHEAD].recordNanos(timer.overheadNanos());
+    }
+
+    // ✅ Extra report card (load results, latency tables, ...); same title replaces the previous one
+    public static synchronized void addSection(String title, String html) {
+        extraSections.put(title, html);
+    }
+
     // ✅ Generate full summary (AI + HTML + Mongo + Allure)
-    public static synchronized String generateAndSaveSummary() {
+    public static String generateAndSaveSummary() {
+        // ⏳ Late failure hints still belong in this report (awaited outside the lock: they call addRecord)
+        FailureHintPipeline.awaitPending();
+        FailureHintPipeline.report();
+        PromptCache.report();
+        SimilarPromptCache.report();
+        return buildAndSaveSummary();
+    }
+
+    private static synchronized String buildAndSaveSummary() {
         if (records.isEmpty()) return "⚠️ No records found for this run.";
 
+        // 📨 Push buffered executions so comparisons read this run's data
+        AiMongoLogger.flush();
+
         // Build combined logs
         StringBuilder sb = new StringBuilder();
         for (String r : records) sb.append(r).append("\n");
+        appendLatencyLines(sb);
+        if (!endpointTimings.isEmpty()) extraSections.put("⏱️ Latency per Endpoint", latencyTable());
+
+        // 🗜️ The prompt gets the compacted logs (the raw ones are still saved to Mongo)
+        String promptLogs = compactor.compact(TOKEN_BUDGET, AiReporter::latencySummary);
+        System.out.printf("🗜️ Summary logs: %d records (~%d tokens) → ~%d tokens in the prompt%n",
+                records.size(), LogCompactor.estimateTokens(sb.toString()),
+                LogCompactor.estimateTokens(promptLogs));
 // ✅ Count unique (method + endpoint) pairs to prevent AI overcount
         Set<String> uniqueEndpoints = new LinkedHashSet<>(endpointStatusMap.keySet());
         int totalEndpoints = uniqueEndpoints.size();
@@ -106,23 +169,34 @@ Use readable icons and Markdown-style bullets for clarity.
 
 🧪 Logs:
 %s
-""".formatted(sb);
-
-        // Send prompt to GeminiAI
-        String aiResponse = org.allureIQ.AI.GeminiAI.generate(prompt);
-
-        // Extract AI sections
-        String summaryBox = extract(aiResponse, "Overall Summary");
-        String issuesBox = extract(aiResponse, "Key Issues");
-        String rootCauseBox = extract(aiResponse, "Technical Root Cause Insights");
-        String suggestionsBox = extract(aiResponse, "Suggestions");
-        String endpointsBox = extract(aiResponse, "Endpoints Tested");
-        String errorsBox = extract(aiResponse, "Error Breakdown");
+""".formatted(promptLogs);
 
         // Build timestamped filename
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
         String fileName = "ai_summary_" + timestamp + ".html";
 
+        // Stream the answer from GeminiAI; each section is printed and added to the report file as soon as
+        // the next header starts, and the complete report replaces that file at the end
+        long started = System.nanoTime();
+        startLiveReport(fileName);
+        SectionAssembler sections = new SectionAssembler(SUMMARY_SECTIONS, (name, text) -> {
+            System.out.printf("🧩 %s (after %d ms)%n%s%n%n", name, (System.nanoTime() - started) / 1_000_000, text);
+            appendLiveSection(fileName, name, text);
+        });
+        String aiResponse = org.allureIQ.AI.GeminiAI.generateStreaming(CallSite.SUMMARY, prompt, sections::accept).join();
+        sections.finish();
+
+        // 📈 LLM cost / latency table, now including the summary call itself
+        LlmTelemetry.publish();
+
+        // AI sections (an error answer has none: show it as the summary)
+        String summaryBox = sections.isEmpty() ? aiResponse : sections.section("Overall Summary");
+        String issuesBox = sections.section("Key Issues");
+        String rootCauseBox = sections.section("Technical Root Cause Insights");
+        String suggestionsBox = sections.section("Suggestions");
+        String endpointsBox = sections.section("Endpoints Tested");
+        String errorsBox = sections.section("Error Breakdown");
+
         // --- NEW: Comparison summary (current vs previous run only) ---
         String comparisonSummary = buildComparisonSummary(sb.toString());
 
@@ -156,6 +230,9 @@ Use readable icons and Markdown-style bullets for clarity.
             details { margin-bottom:15px; }
             summary { cursor:pointer; font-weight:600; }
             .comparison { color:#222; font-size:15px; margin-bottom:12px; line-height:1.5; }
+            .extra { border-left:6px solid #17A2B8; }
+            table { border-collapse:collapse; width:100%%; }
+            th, td { text-align:left; padding:6px 10px; border-bottom:1px solid #e5e5e5; }
         </style>
         </head>
         <body>
@@ -195,6 +272,8 @@ Use readable icons and Markdown-style bullets for clarity.
                 </details>
             </div>
 
+            %s
+
             <hr style='margin-top:30px;'>
             <p style='color:#555;'>✅ AI summary generated and stored successfully.</p>
         </body>
@@ -206,7 +285,8 @@ Use readable icons and Markdown-style bullets for clarity.
                 toBulletList(issuesBox),  // 4 → Issues
                 toBulletList(rootCauseBox), // 5 → Root Causes
                 toBulletList(suggestionsBox), // 6 → Suggestions
-                toBulletList(endpointsBox)  // 7 → Endpoints
+                toBulletList(endpointsBox),  // 7 → Endpoints
+                renderExtraSections()        // 8 → Extra sections (load test, ...)
         );
 
         // Save locally
@@ -232,6 +312,9 @@ Use readable icons and Markdown-style bullets for clarity.
         records.clear();
         errorRecords.clear();
         endpointStatusMap.clear();
+        extraSections.clear();
+        endpointTimings.clear();
+        compactor.clear();
 
         System.out.println("🧹 AI Reporter cleared after summary generation.");
         return aiResponse;
@@ -422,15 +505,69 @@ Use readable icons and Markdown-style bullets for clarity.
     // ----------------------------- Existing helpers --------------------------------
 
     // 🧩 Extract section text
-    private static String extract(String response, String header) {
-        try {
-            String[] parts = response.split("(?i)" + header + "[:：]");
-            if (parts.length < 2) return "";
-            String next = parts[1];
-            String[] nextSplit = next.split("\\n\\s*\\n");
-            return nextSplit[0].replace("*", "").replace("•", "").trim();
-        } catch (Exception e) {
-            return "";
+    // 🧩 Latency lines for the AI prompt: target API vs framework time
+    private static void appendLatencyLines(StringBuilder sb) {
+        endpointTimings.forEach((ep, h) -> sb.append(String.format(
+                "LATENCY: %s | calls %d | total p50 %.1f ms p95 %.1f ms | api p95 %.1f ms | framework p95 %.1f ms%n",
+                ep, h[TOTAL].count(), h[TOTAL].percentileMillis(50), h[TOTAL].percentileMillis(95),
+                h[TTFB].percentileMillis(95), h[OVERHEAD].percentileMillis(95))));
+    }
+
+    // 🧩 Latency part of a compacted endpoint line (null when the endpoint was not timed)
+    private static String latencySummary(String endpointKey) {
+        LatencyHistogram[] h = endpointTimings.get(endpointKey);
+        if (h == null) return null;
+        return String.format("total p50 %.1f ms p95 %.1f ms | api p95 %.1f ms | framework p95 %.1f ms",
+                h[TOTAL].percentileMillis(50), h[TOTAL].percentileMillis(95),
+                h[TTFB].percentileMillis(95), h[OVERHEAD].percentileMillis(95));
+    }
+
+    // 🧩 p50 / p95 / p99 table
+    private static String latencyTable() {
+        StringBuilder sb = new StringBuilder("<table><tr><th>Endpoint</th><th>Calls</th>"
+                + "<th>Total p50 / p95 / p99 ms</th><th>API (TTFB) p50 / p95 / p99 ms</th>"
+                + "<th>Framework p50 / p95 / p99 ms</th></tr>");
+        endpointTimings.forEach((ep, h) -> sb.append("<tr><td>").append(ep)
+                .append("</td><td>").append(h[TOTAL].count())
+                .append("</td><td>").append(percentiles(h[TOTAL]))
+                .append("</td><td>").append(percentiles(h[TTFB]))
+                .append("</td><td>").append(percentiles(h[OVERHEAD]))
+                .append("</td></tr>"));
+        return sb.append("</table>").toString();
+    }
+
+    private static String percentiles(LatencyHistogram h) {
+        return String.format("%.1f / %.1f / %.1f",
+                h.percentileMillis(50), h.percentileMillis(95), h.percentileMillis(99));
+    }
+
+    // 🧩 Extra sections as report cards
+    private static String renderExtraSections() {
+        StringBuilder sb = new StringBuilder();
+        extraSections.forEach((title, html) -> sb.append("<div class='card extra'><h3>")
+                .append(title).append("</h3>").append(html).append("</div>\n"));
+        return sb.toString();
+    }
+
+    // 📡 Partial report while the answer streams: the page reloads itself until the full report replaces it
+    private static void startLiveReport(String fileName) {
+        writeLive(fileName, """
+                <html><head><meta charset='UTF-8'><meta http-equiv='refresh' content='2'></head>
+                <body style="font-family:'Segoe UI', sans-serif; background:#f5f7fa; padding:25px;">
+                <h2>🤖 AI Test Intelligence Report — generating…</h2>
+                """, false);
+    }
+
+    private static void appendLiveSection(String fileName, String name, String text) {
+        writeLive(fileName, "<div style='background:#fff; border-radius:12px; padding:20px; margin-bottom:20px;'><h3>"
+                + name + "</h3><ul>" + toBulletList(text) + "</ul></div>\n", true);
+    }
+
+    private static void writeLive(String fileName, String html, boolean append) {
+        try (PrintWriter out = new PrintWriter(new FileWriter(fileName, append))) {
+            out.print(html);
+        } catch (IOException e) {
+            System.err.println("⚠️ Live report update failed: " + e.getMessage());
         }
     }
 
@@ -459,6 +596,9 @@ Use readable icons and Markdown-style bullets for clarity.
         records.clear();
         errorRecords.clear();
         endpointStatusMap.clear();
+        extraSections.clear();
+        endpointTimings.clear();
+        compactor.clear();
     }
 
 }
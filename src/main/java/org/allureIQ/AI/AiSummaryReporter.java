@@ -1,14 +1,27 @@
 package org.allureIQ.AI;
 import org.bson.types.ObjectId;
 
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
 import io.qameta.allure.Allure;
+import org.allureIQ.API.RunLifecycle;
+import org.allureIQ.models.AiMongoLogger;
 import org.allureIQ.models.MongoConnector;
+import org.allureIQ.models.ResponseDrift;
 import org.bson.Document;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 /**
@@ -16,7 +29,12 @@ import java.util.stream.Collectors;
  * -------------------------------------------------
  * ✅ Shows only data of the active project (ignores old/other projects)
  * ✅ Compares latest 2 sessions per subproject
- * ✅ Unified HTML report attached to Allure
+ * ✅ Flags same-status shape changes from response fingerprints
+ * ✅ Unified HTML report in ai_unified_summary.html, attached to Allure when built inside a test
+ * ✅ Built once per run by a run-end hook that AllureIQSuiteListener registers (never on the per-request path)
+ * ✅ Subproject cards are cached by session ids; only subprojects with new sessions are re-read
+ * ✅ Offline search data is scoped the same way: active project only, latest sessions,
+ *    most recent reports (-Dallureiq.summary.offlineSessions=2, -Dallureiq.summary.offlineDocs=50)
  */
 public class AiSummaryReporter {
     // 🔥 ADD HERE (right under the class declaration)
@@ -26,6 +44,8 @@ public class AiSummaryReporter {
             "ai_sessions"
     );
     private static final MongoConnector mongo = new MongoConnector();
+    private static final int OFFLINE_SESSIONS = Math.max(1, Integer.getInteger("allureiq.summary.offlineSessions", 2));
+    private static final int OFFLINE_DOCS = Math.max(1, Integer.getInteger("allureiq.summary.offlineDocs", 50));
 
     // =======================================================
 //  🔍 PURE JAVA OFFLINE SEARCH (NO MONGO, NO API)
@@ -65,7 +85,26 @@ public class AiSummaryReporter {
     private static final String projectName = System.getProperty("project.name",
             System.getenv("PROJECT_NAME") != null ? System.getenv("PROJECT_NAME") : null);
 
+    // ---------- Run lifecycle ----------
+    private static final AtomicBoolean HOOK_REGISTERED = new AtomicBoolean();
+    private static final AtomicBoolean BUILT_THIS_RUN = new AtomicBoolean();
+
+    // 🏁 Schedules the unified summary once for the end of the run (after logs are flushed)
+    public static void buildAtRunEnd() {
+        if (HOOK_REGISTERED.compareAndSet(false, true)) {
+            RunLifecycle.onRunEnd("build unified AI summary", RunLifecycle.BUILD_REPORTS, () -> {
+                if (BUILT_THIS_RUN.compareAndSet(false, true)) summarize(true);
+            });
+        }
+    }
+
     public static void logSummary() {
+        summarize(false);
+    }
+
+    // runEnd: this run's session is complete, so its card may be cached for the next run
+    private static void summarize(boolean runEnd) {
+        AiMongoLogger.flush();
         StringBuilder finalSummary = new StringBuilder();
 
         String activeProject = null;
@@ -108,15 +147,9 @@ public class AiSummaryReporter {
             }
 
 // 4️⃣ Get all records for this project or its subprojects
-            projectDocs = collection.find(
-                    new Document("$or", List.of(
-                            new Document("project", activeProject),
-                            new Document("projectName", activeProject),
-                            new Document("subProject", activeProject),
-                            new Document("project", new Document("$regex", activeProject)),
-                            new Document("subProject", new Document("$regex", activeProject))
-                    ))
-            ).into(new ArrayList<>());
+            // 🪶 Session ids and dates only; endpoint arrays are loaded just for subprojects that changed
+            projectDocs = collection.find(activeProjectFilter(activeProject)).projection(Projections.include("project", "subproject", "sessions.sessionId", "sessions.createdAt"))
+                    .into(new ArrayList<>());
 
 // 5️⃣ Logging
             if (projectDocs.isEmpty()) {
@@ -147,6 +180,9 @@ public class AiSummaryReporter {
                 double totalWeightedSuccess = 0.0;
                 long totalEndpoints = 0;
                 int subprojectCount = 0;
+                int rebuilt = 0;
+                Map<String, SubprojectCard> cards = loadCards();
+                Map<String, SubprojectCard> usedCards = new LinkedHashMap<>();
 
                 for (String proj : groupedByProject.keySet()) {
                     finalSummary.append("<div class='project-card'><h2>🚀 Project: ").append(proj).append("</h2>");
@@ -155,7 +191,7 @@ public class AiSummaryReporter {
                     for (String subproject : subGroups.keySet()) {
                         List<Document> docs = subGroups.get(subproject);
 
-                        // Flatten sessions
+                        // Flatten session headers
                         List<Document> allSessions = new ArrayList<>();
                         for (Document doc : docs) {
                             List<Document> sessions = (List<Document>) doc.getOrDefault("sessions", List.of());
@@ -172,26 +208,29 @@ public class AiSummaryReporter {
                             continue;
                         }
 
-                        List<Document> latestSessions = List.of(allSessions.get(0));
-                        List<Document> prevSessions = List.of(allSessions.get(1));
-
-                        String latestTime = allSessions.get(0).getString("createdAt");
-                        String prevTime = allSessions.get(1).getString("createdAt");
-
-                        String subReport = compareSessions(subproject, prevTime, latestTime, prevSessions, latestSessions);
-                        finalSummary.append(subReport).append("</div>");
+                        // ♻️ Finished sessions never change: same two session ids → reuse last run's card
+                        String cardKey = proj + "|" + subproject + "|" + allSessions.get(0).getString("sessionId")
+                                + "|" + allSessions.get(1).getString("sessionId");
+                        SubprojectCard card = cards.get(cardKey);
+                        if (card == null) {
+                            card = buildCard(collection, subproject, docs, allSessions.get(0), allSessions.get(1));
+                            rebuilt++;
+                        }
+                        usedCards.put(cardKey, card);
 
-                        long latestTotal = countEndpoints(latestSessions);
-                        long latestSuccess = countSuccessEndpoints(latestSessions);
-                        double latestRate = latestTotal == 0 ? 0 : (latestSuccess * 100.0 / latestTotal);
+                        finalSummary.append(card.html).append("</div>");
 
-                        totalWeightedSuccess += latestRate * latestTotal;
-                        totalEndpoints += latestTotal;
+                        totalWeightedSuccess += card.latestRate * card.latestTotal;
+                        totalEndpoints += card.latestTotal;
                         subprojectCount++;
                     }
                     finalSummary.append("</div>");
                 }
 
+                if (runEnd) saveCards(usedCards);
+                System.out.println("♻️ Subproject cards: " + rebuilt + " rebuilt, "
+                        + (subprojectCount - rebuilt) + " reused from the previous summary.");
+
                 double globalRate = totalEndpoints > 0 ? totalWeightedSuccess / totalEndpoints : 0.0;
                 finalSummary.insert(0, String.format("""
                         <div class='global-summary'>
@@ -210,25 +249,9 @@ public class AiSummaryReporter {
         }
 
 
-        // STEP 0: Build offline MongoDB JSON dump for offline search
+        // STEP 0: Build offline MongoDB JSON dump for offline search (active project, latest data only)
         Document offlineData = new Document();
-        Map<String, List<Document>> offlineMap = new LinkedHashMap<>();
-
-        for (String col : COLLECTIONS) {
-            try {
-                List<Document> docs = mongo.findAll(Document.class, col);
-
-                for (Document d : docs) {
-                    Object id = d.get("_id");
-                    if (id instanceof ObjectId)
-                        d.put("_id", ((ObjectId) id).toHexString());
-                }
-
-                offlineMap.put(col, docs);
-            } catch (Exception ignored) {}
-        }
-
-        offlineData.put("results", offlineMap);
+        offlineData.put("results", activeProject == null ? new LinkedHashMap<>() : offlineResults(activeProject));
 
         String offlineJson = offlineData.toJson();
 
@@ -450,13 +473,111 @@ public class AiSummaryReporter {
     </html>
 """.formatted(projectName, finalSummary.toString(), offlineJson);
 
-        // ✅ Step 3: Attach to Allure
-        Allure.addAttachment("AI Unified Report (" + projectName + ")", "text/html",
-                new ByteArrayInputStream(htmlReport.getBytes(StandardCharsets.UTF_8)), "html");
+        // ✅ Step 3: Save locally (run end has no Allure test context) and attach when a test is running
+        try {
+            Files.writeString(Paths.get(REPORT_FILE), htmlReport, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("⚠️ Failed to save " + REPORT_FILE + ": " + e.getMessage());
+        }
+        if (Allure.getLifecycle().getCurrentTestCaseOrStep().isPresent()) {
+            Allure.addAttachment("AI Unified Report (" + projectName + ")", "text/html",
+                    new ByteArrayInputStream(htmlReport.getBytes(StandardCharsets.UTF_8)), "html");
+        }
 
         System.out.println("✅ AI Unified HTML Summary generated for project: " + projectName);
     }
 
+    // 🔹 Same project scope as the summary query, for every collection
+    private static Document activeProjectFilter(String activeProject) {
+        return new Document("$or", List.of(
+                new Document("project", activeProject),
+                new Document("projectName", activeProject),
+                new Document("subProject", activeProject),
+                new Document("project", new Document("$regex", activeProject)),
+                new Document("subProject", new Document("$regex", activeProject))
+        ));
+    }
+
+    // 🔍 Offline search data: the latest sessions per subproject, the most recent reports / session trees
+    private static Map<String, List<Document>> offlineResults(String activeProject) {
+        Map<String, List<Document>> offlineMap = new LinkedHashMap<>();
+        Document filter = activeProjectFilter(activeProject);
+        for (String col : COLLECTIONS) {
+            try {
+                var find = MongoConnector.connect().getCollection(col).find(filter).limit(OFFLINE_DOCS);
+                if (col.equals("ai_executions")) find = find.projection(Projections.slice("sessions", -OFFLINE_SESSIONS));
+                if (col.equals("ai_reports")) find = find.sort(new Document("timestamp", -1));
+
+                List<Document> docs = new ArrayList<>();
+                for (Document d : find) {
+                    Object id = d.get("_id");
+                    if (id instanceof ObjectId)
+                        d.put("_id", ((ObjectId) id).toHexString());
+                    docs.add(d);
+                }
+                offlineMap.put(col, docs);
+            } catch (Exception ignored) {}
+        }
+        return offlineMap;
+    }
+
+    // === Subproject card cache ===
+
+    private static final String REPORT_FILE = "ai_unified_summary.html";
+    private static final Path CARD_CACHE = Paths.get(
+            System.getProperty("allureiq.summary.cache", "target/allureiq-summary-cards.json"));
+    private static final Gson GSON = new Gson();
+
+    private static final class SubprojectCard {
+        String html;
+        long latestTotal;
+        double latestRate;
+    }
+
+    // 🔹 Loads the full endpoint arrays for one subproject and renders its comparison
+    private static SubprojectCard buildCard(MongoCollection<Document> collection, String subproject,
+                                            List<Document> headerDocs, Document latestHeader, Document prevHeader) {
+        List<Object> ids = headerDocs.stream().map(d -> d.get("_id")).collect(Collectors.toList());
+        Map<String, Document> byId = new HashMap<>();
+        for (Document doc : collection.find(Filters.in("_id", ids))) {
+            for (Document session : doc.getList("sessions", Document.class, List.of())) {
+                byId.put(session.getString("sessionId"), session);
+            }
+        }
+        List<Document> latestSessions = List.of(byId.getOrDefault(latestHeader.getString("sessionId"), latestHeader));
+        List<Document> prevSessions = List.of(byId.getOrDefault(prevHeader.getString("sessionId"), prevHeader));
+
+        SubprojectCard card = new SubprojectCard();
+        card.html = compareSessions(subproject, prevHeader.getString("createdAt"), latestHeader.getString("createdAt"),
+                prevSessions, latestSessions);
+        card.latestTotal = countEndpoints(latestSessions);
+        long latestSuccess = countSuccessEndpoints(latestSessions);
+        card.latestRate = card.latestTotal == 0 ? 0 : (latestSuccess * 100.0 / card.latestTotal);
+        return card;
+    }
+
+    private static Map<String, SubprojectCard> loadCards() {
+        if (!Files.exists(CARD_CACHE)) return new HashMap<>();
+        try {
+            Map<String, SubprojectCard> cards = GSON.fromJson(Files.readString(CARD_CACHE, StandardCharsets.UTF_8),
+                    new TypeToken<Map<String, SubprojectCard>>() { }.getType());
+            return cards == null ? new HashMap<>() : cards;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("⚠️ Summary card cache unreadable, rebuilding: " + e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    // only cards used by this summary are kept, so the file never grows past one per subproject
+    private static void saveCards(Map<String, SubprojectCard> cards) {
+        try {
+            if (CARD_CACHE.getParent() != null) Files.createDirectories(CARD_CACHE.getParent());
+            Files.writeString(CARD_CACHE, GSON.toJson(cards), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("⚠️ Failed to save summary card cache: " + e.getMessage());
+        }
+    }
+
     // === Helper Methods ===
 
     private static String compareSessions(String subproject, String prevTime, String latestTime,
@@ -478,6 +599,7 @@ public class AiSummaryReporter {
         Set<String> removed = new HashSet<>(prevEndpoints);
         removed.removeAll(latestEndpoints);
         Set<String> newFails = findNewFailures(prevSessions, latestSessions);
+        ResponseDrift drift = ResponseDrift.compare(flattenEndpoints(prevSessions), flattenEndpoints(latestSessions));
 
         StringBuilder html = new StringBuilder();
         html.append(String.format("""
@@ -490,8 +612,9 @@ public class AiSummaryReporter {
         if (!added.isEmpty()) html.append("➕ Added: ").append(added).append("<br>");
         if (!removed.isEmpty()) html.append("➖ Removed: ").append(removed).append("<br>");
         if (!newFails.isEmpty()) html.append("❌ New Failures: ").append(newFails).append("<br>");
-        if (added.isEmpty() && removed.isEmpty() && newFails.isEmpty())
+        if (added.isEmpty() && removed.isEmpty() && newFails.isEmpty() && !drift.hasShapeChanges())
             html.append("✅ Stable endpoints.<br>");
+        html.append(drift.toHtml());
 
         html.append(generateParagraphSummary(subproject, prevRate, latestRate, delta, prevFail, latestFail, prevTime, latestTime));
         return html.toString();
@@ -504,6 +627,12 @@ public class AiSummaryReporter {
         return currFails;
     }
 
+    private static List<Document> flattenEndpoints(List<Document> sessions) {
+        return sessions.stream()
+                .flatMap(s -> s.getList("endpoints", Document.class, List.of()).stream())
+                .collect(Collectors.toList());
+    }
+
     private static long countEndpoints(List<Document> sessions) {
         return sessions.stream().mapToLong(s -> ((List<?>) s.getOrDefault("endpoints", List.of())).size()).sum();
     }
@@ -2,15 +2,19 @@ package org.allureIQ.AI;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Advanced AI Test Data Generator.
- * Generates realistic JSON payloads using GeminiAI with error handling and validation.
+ * Generates realistic JSON payloads locally (FakerPayloadGenerator) when the schema or the
+ * requirement names the fields, and with GeminiAI otherwise (see allureiq.payload.mode).
  *
  * Example:
  *   String json = AiTestDataGenerator.generatePayload("job payload with company, role, appliedDate, status");
@@ -19,6 +23,8 @@ public class AiTestDataGenerator {
 
     private static final Logger LOGGER = Logger.getLogger(AiTestDataGenerator.class.getName());
     private static final Gson GSON = new Gson();
+    // hybrid mode: shape of the LLM answer per requirement, later payloads are local
+    private static final Map<String, JsonObject> LEARNED = new ConcurrentHashMap<>();
 
     public static String generatePayload(String requirement) {
         return generatePayload(requirement, null);
@@ -30,10 +36,25 @@ public class AiTestDataGenerator {
      * @return A validated JSON payload string.
      */
     public static String generatePayload(String requirement, String schema) {
+        String key = requirement + "|" + schema;
+        if (!"llm".equals(FakerPayloadGenerator.MODE)) {
+            JsonObject local = FakerPayloadGenerator.schemaFor(requirement, schema);
+            if (local == null) local = LEARNED.get(key);
+            if (local != null) return FakerPayloadGenerator.generate(local, key);
+            if ("local".equals(FakerPayloadGenerator.MODE)) {
+                LOGGER.warning("No fields found in requirement or schema (allureiq.payload.mode=local). Returning fallback object.");
+                return "{}";
+            }
+        }
+
         String enhancedPrompt = buildPrompt(requirement, schema);
-        String result = tryGenerate(enhancedPrompt, 2); // retry up to 2 times if Gemini fails
+        String result = tryGenerate(enhancedPrompt, 2); // ask again (up to 2 times) if the answer is not JSON
 
         if (isValidJson(result)) {
+            if ("hybrid".equals(FakerPayloadGenerator.MODE)) {
+                JsonObject learned = FakerPayloadGenerator.schemaOfExample(result);
+                if (learned != null) LEARNED.putIfAbsent(key, learned);
+            }
             return prettyPrintJson(result);
         } else {
             LOGGER.warning("Invalid JSON from Gemini. Returning fallback object.");
@@ -63,16 +84,12 @@ public class AiTestDataGenerator {
 
         for (int attempt = 1; attempt <= retries; attempt++) {
             try {
-                result = GeminiAI.generate(prompt);
+                result = GeminiAI.generate(CallSite.TEST_DATA, prompt, true);
                 if (isValidJson(result)) return result;
             } catch (Exception e) {
                 LOGGER.log(Level.WARNING, "Attempt " + attempt + " failed: " + e.getMessage());
             }
-
-            // wait briefly before retrying
-            try {
-                Thread.sleep(1000L * attempt);
-            } catch (InterruptedException ignored) {}
+            // no sleep here: rate limits and transient errors are retried with backoff by LlmScheduler
         }
 
         return result == null ? "{}" : result;
@@ -36,7 +36,7 @@ public class AiTestSuggester {
                 .append("Focus on unique and practical scenarios not already covered in previous runs.");
 
         // 💬 Generate AI suggestions via Gemini
-        String result = GeminiAI.generate(sb.toString());
+        String result = GeminiAI.generate(CallSite.TEST_SUGGESTION, sb.toString(), true);
 
         // 💾 Save learning context for this specific project
         org.AI.AiMemorySaver.saveLearning(projectName, sb.toString(), result);
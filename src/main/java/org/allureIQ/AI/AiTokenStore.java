@@ -0,0 +1,186 @@
+package org.allureIQ.AI;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.ReplaceOptions;
+import org.allureIQ.models.MongoConnector;
+import org.bson.Document;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 🔑 In-process token store
+ * -------------------------------------------------
+ * Features:
+ *  - Token kept in memory; MongoDB (ai_context) is read once and written on change
+ *  - Decodes the JWT "exp" claim and refreshes shortly before expiry
+ *  - Single-flight login: concurrent callers wait for one login instead of racing
+ *  - Calls made by the login itself (any login path, e.g. /auth/token) get the current token
+ *    instead of waiting for their own login
+ *
+ * Tuning (system properties):
+ *  - allureiq.token.refreshSkewSec (default 30)
+ *  - allureiq.token.persist        (default true)
+ * -------------------------------------------------
+ */
+public final class AiTokenStore {
+
+    private static final long REFRESH_SKEW_SEC = Long.getLong("allureiq.token.refreshSkewSec", 30L);
+
+    private static volatile String token;
+    private static volatile long expiresAtEpochSec;   // 0 = no exp claim, never refreshed proactively
+    private static volatile boolean loaded;
+    private static volatile Supplier<String> loginHandler;
+
+    private static final AtomicReference<CompletableFuture<String>> LOGIN_IN_FLIGHT = new AtomicReference<>();
+    // set on the thread running the login handler: re-entrant get() must not join its own login
+    private static final ThreadLocal<Boolean> IN_LOGIN = ThreadLocal.withInitial(() -> false);
+
+    private AiTokenStore() {
+    }
+
+    // ======================
+    // READ
+    // ======================
+    public static String get() {
+        String current = token;
+        if (current == null && !loaded) {
+            current = loadOnce();
+        }
+        if (current != null && !isExpiring()) {
+            return current;
+        }
+        if (loginHandler != null) {
+            return refresh();
+        }
+        return current;
+    }
+
+    // ======================
+    // WRITE
+    // ======================
+    public static void set(String newToken) {
+        token = newToken;
+        expiresAtEpochSec = decodeExpiry(newToken);
+        loaded = true;
+
+        if (persist()) {
+            try {
+                MongoCollection<Document> col = MongoConnector.connect().getCollection("ai_context");
+                col.replaceOne(new Document(), new Document("token", newToken),
+                        new ReplaceOptions().upsert(true)); // Always keep latest token
+            } catch (Exception e) {
+                System.out.println("⚠️ Failed to persist token to MongoDB: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Registers how to obtain a fresh token. The handler may return the token,
+     * or return null when the login call already stored it via {@link #set(String)}.
+     */
+    public static void setLoginHandler(Supplier<String> handler) {
+        loginHandler = handler;
+    }
+
+    public static void clear() {
+        token = null;
+        expiresAtEpochSec = 0;
+        loaded = true;
+    }
+
+    // read on every write / load: a test may turn it off after this class was loaded
+    private static boolean persist() {
+        return Boolean.parseBoolean(System.getProperty("allureiq.token.persist", "true"));
+    }
+
+    // ======================
+    // SINGLE-FLIGHT LOGIN
+    // ======================
+    private static String refresh() {
+        if (IN_LOGIN.get()) return token;
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> running = LOGIN_IN_FLIGHT.compareAndExchange(null, mine);
+        if (running != null) {
+            return running.join();
+        }
+
+        try {
+            // Another thread may have finished a login just before we got here
+            if (token != null && !isExpiring()) {
+                mine.complete(token);
+                return token;
+            }
+
+            System.out.println("🔑 Token missing or about to expire — logging in...");
+            String fresh;
+            IN_LOGIN.set(true);
+            try {
+                fresh = loginHandler.get();
+            } finally {
+                IN_LOGIN.set(false);
+            }
+            if (fresh != null && !fresh.isBlank()) {
+                set(fresh);
+            }
+            mine.complete(token);
+            return token;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            LOGIN_IN_FLIGHT.set(null);
+        }
+    }
+
+    private static boolean isExpiring() {
+        long exp = expiresAtEpochSec;
+        return exp > 0 && Instant.now().getEpochSecond() + REFRESH_SKEW_SEC >= exp;
+    }
+
+    // ======================
+    // MONGO (read once per run)
+    // ======================
+    private static synchronized String loadOnce() {
+        if (loaded) return token;
+        loaded = true;
+
+        if (!persist()) return null;
+        try {
+            Document doc = MongoConnector.connect().getCollection("ai_context").find().first();
+            if (doc != null && doc.getString("token") != null) {
+                token = doc.getString("token");
+                expiresAtEpochSec = decodeExpiry(token);
+            }
+        } catch (Exception e) {
+            System.out.println("⚠️ Failed to load token from MongoDB: " + e.getMessage());
+        }
+        return token;
+    }
+
+    // ======================
+    // JWT "exp" CLAIM
+    // ======================
+    static long decodeExpiry(String jwt) {
+        if (jwt == null) return 0;
+        String[] parts = jwt.split("\\.");
+        if (parts.length != 3) return 0;
+
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+            JsonObject claims = JsonParser.parseString(json).getAsJsonObject();
+            JsonElement exp = claims.get("exp");
+            return exp != null && exp.isJsonPrimitive() ? exp.getAsLong() : 0;
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+}
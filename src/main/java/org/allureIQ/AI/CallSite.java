@@ -0,0 +1,56 @@
+package org.allureIQ.AI;
+
+import java.time.Duration;
+
+/**
+ * 🏷️ LLM call sites
+ * -------------------------------------------------
+ * Every GeminiAI call names where it comes from, so caching, scheduling and telemetry can
+ * treat a payload request differently from a run summary.
+ *
+ * Cache TTL per site, override with -Dallureiq.llm.cache.ttl.<site>=<seconds>
+ * (e.g. -Dallureiq.llm.cache.ttl.payload=0 to always ask the model); 0 = never cached.
+ *
+ * Priority (LlmScheduler): HIGH blocks a test thread, LOW is background work that may wait for
+ * the end of the run when the provider is rate limiting.
+ * -------------------------------------------------
+ */
+public enum CallSite {
+
+    PAYLOAD(Duration.ofDays(7), Priority.HIGH),
+    FAILURE_HINT(Duration.ofDays(7), Priority.LOW),
+    DECISION(Duration.ofDays(30), Priority.HIGH),
+    SUMMARY(Duration.ofHours(12), Priority.NORMAL),
+    TEST_SUGGESTION(Duration.ofDays(1), Priority.NORMAL),
+    TEST_DATA(Duration.ZERO, Priority.HIGH),          // callers want fresh random data every time
+    SEARCH_SUMMARY(Duration.ofHours(1), Priority.NORMAL),
+    GENERIC(Duration.ofHours(1), Priority.NORMAL);
+
+    public enum Priority { HIGH, NORMAL, LOW }
+
+    private final Duration ttl;
+    private final Priority priority;
+
+    CallSite(Duration defaultTtl, Priority priority) {
+        Long seconds = Long.getLong("allureiq.llm.cache.ttl." + key());
+        this.ttl = seconds == null ? defaultTtl : Duration.ofSeconds(Math.max(0, seconds));
+        this.priority = priority;
+    }
+
+    public Priority priority() {
+        return priority;
+    }
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    public boolean cacheable() {
+        return !ttl.isZero();
+    }
+
+    /** Lower-case name used in system properties and reports, e.g. "failure_hint". */
+    public String key() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,131 @@
+package org.allureIQ.AI;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 🧠 Base for providers speaking the OpenAI chat-completions wire format
+ * -------------------------------------------------
+ *  - complete : one JSON answer, choices[0].message.content
+ *  - stream   : SSE, "data: {choices[0].delta.content}" lines until "data: [DONE]"
+ *  - usage    : prompt / completion tokens (and cost, when reported) from the "usage" field
+ * Subclasses only supply the endpoint, the model and the auth headers.
+ * -------------------------------------------------
+ */
+public abstract class ChatCompletionsProvider implements LlmProvider {
+
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    protected abstract URI endpoint();
+
+    /** Auth and provider-specific headers. */
+    protected abstract void decorate(HttpRequest.Builder request, CallSite site);
+
+    // ---------- Complete ----------
+    @Override
+    public LlmReply complete(CallSite site, String systemPrompt, String prompt) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        HttpResponse<String> response = CLIENT.send(request(site, systemPrompt, prompt, false),
+                HttpResponse.BodyHandlers.ofString());
+        long latencyMs = (System.nanoTime() - started) / 1_000_000;
+
+        if (response.statusCode() / 100 != 2) {
+            return new LlmReply(response.statusCode(), null, response.body(), response.headers().map(), latencyMs, -1);
+        }
+        JsonNode root = MAPPER.readTree(response.body());
+        String content = root.path("choices").path(0).path("message").path("content").asText("");
+        return withUsage(new LlmReply(response.statusCode(), content, null, response.headers().map(), latencyMs, -1),
+                root.path("usage"));
+    }
+
+    // ---------- Stream (SSE) ----------
+    @Override
+    public LlmReply stream(CallSite site, String systemPrompt, String prompt, Consumer<String> onDelta)
+            throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        HttpResponse<Stream<String>> response = CLIENT.send(request(site, systemPrompt, prompt, true),
+                HttpResponse.BodyHandlers.ofLines());
+
+        if (response.statusCode() / 100 != 2) {
+            String error;
+            try (Stream<String> lines = response.body()) {
+                error = lines.collect(Collectors.joining("\n"));
+            }
+            return new LlmReply(response.statusCode(), null, error, response.headers().map(),
+                    (System.nanoTime() - started) / 1_000_000, -1);
+        }
+
+        // data: {"choices":[{"delta":{"content":"..."}}]}   …   data: [DONE]; ":" lines are keep-alive comments
+        StringBuilder full = new StringBuilder();
+        long firstDeltaMs = -1;
+        JsonNode usage = null;
+        try (Stream<String> lines = response.body()) {
+            Iterator<String> it = lines.iterator();
+            while (it.hasNext()) {
+                String line = it.next();
+                if (!line.startsWith("data:")) continue;
+                String data = line.substring(5).trim();
+                if (data.equals("[DONE]")) break;
+
+                JsonNode event = MAPPER.readTree(data);
+                if (event.has("error")) {
+                    return new LlmReply(response.statusCode(), full.toString(),
+                            "(stream) " + event.path("error").path("message").asText(), response.headers().map(),
+                            (System.nanoTime() - started) / 1_000_000, firstDeltaMs);
+                }
+                if (event.hasNonNull("usage")) usage = event.get("usage");   // final chunk
+                String delta = event.path("choices").path(0).path("delta").path("content").asText("");
+                if (delta.isEmpty()) continue;
+                if (firstDeltaMs < 0) firstDeltaMs = (System.nanoTime() - started) / 1_000_000;
+                full.append(delta);
+                onDelta.accept(delta);
+            }
+        }
+        return withUsage(new LlmReply(response.statusCode(), full.toString(), null, response.headers().map(),
+                (System.nanoTime() - started) / 1_000_000, firstDeltaMs), usage);
+    }
+
+    // usage: {"prompt_tokens": n, "completion_tokens": n, "cost": usd}
+    private static LlmReply withUsage(LlmReply reply, JsonNode usage) {
+        if (usage == null || !usage.isObject()) return reply;
+        return reply.withUsage(usage.path("prompt_tokens").asLong(-1), usage.path("completion_tokens").asLong(-1),
+                usage.path("cost").asDouble(-1));
+    }
+
+    /** Provider-specific request fields. */
+    protected void customize(ObjectNode body) {
+    }
+
+    // ✅ Chat completion request; Jackson escapes the prompt (quotes, newlines, control chars)
+    private HttpRequest request(CallSite site, String systemPrompt, String prompt, boolean stream) throws IOException {
+        ObjectNode body = MAPPER.createObjectNode()
+                .put("model", model())
+                .put("stream", stream);
+        body.putArray("messages")
+                .add(MAPPER.createObjectNode().put("role", "system").put("content", systemPrompt))
+                .add(MAPPER.createObjectNode().put("role", "user").put("content", prompt));
+        // token usage in the last SSE chunk
+        if (stream) body.putObject("stream_options").put("include_usage", true);
+        customize(body);
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(endpoint())
+                .header("Content-Type", "application/json")
+                .header("Accept", stream ? "text/event-stream" : "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body)));
+        decorate(builder, site);
+        return builder.build();
+    }
+}
@@ -0,0 +1,199 @@
+package org.allureIQ.AI;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import org.allureIQ.API.ApiExecutors;
+import org.allureIQ.models.AiMongoLogger;
+import org.allureIQ.models.MongoConnector;
+import org.bson.Document;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 🏷️ Local failure classifier (fast path before the LLM)
+ * -------------------------------------------------
+ * Answers predictable failures without a model call, in memory only:
+ *  - mined patterns: method + normalized endpoint + status whose past LLM hints in ai_hints
+ *    (this project) mostly agree on the cause; loaded once in the background
+ *  - built-in rules by status: 401 / 403 auth, 404 on {id} routes (random ids from
+ *    AiAutoContext.inferEndpoint), 404 route, 405, 408 / 504, 409, 413, 415, 429, 502 / 503,
+ *    400 / 422 with a recognizable validation or JSON error in the body
+ * Anything else returns null and goes to the LLM.
+ *
+ * Tuning (system properties):
+ *  - allureiq.hints.local               on (default) | off
+ *  - allureiq.hints.mined.minSupport    past hints needed for a pattern (default 3)
+ *  - allureiq.hints.mined.minConfidence share of them agreeing on the cause (default 0.6)
+ *  - allureiq.hints.mined.maxHints      latest hints read per ai_hints document (default 5000)
+ * -------------------------------------------------
+ */
+public final class FailureClassifier {
+
+    private static final boolean ENABLED = !"off".equalsIgnoreCase(System.getProperty("allureiq.hints.local", "on").trim());
+    private static final int MIN_SUPPORT = Integer.getInteger("allureiq.hints.mined.minSupport", 3);
+    private static final double MIN_CONFIDENCE = Double.parseDouble(System.getProperty("allureiq.hints.mined.minConfidence", "0.6"));
+    private static final int MAX_HINTS = Integer.getInteger("allureiq.hints.mined.maxHints", 5000);
+
+    private static final Pattern MESSAGE = Pattern.compile("\"(?:message|error|detail|title|errorMessage)\"\\s*:\\s*\"([^\"]{1,200})\"");
+    private static final Pattern JSON_ERROR = Pattern.compile(
+            "(?i)json parse|unexpected (token|character|end)|malformed|cannot deserialize|unrecognized token|not valid json");
+    private static final Pattern VALIDATION = Pattern.compile(
+            "(?i)required|must (be|not|have)|invalid|validation|missing|expected|cannot be|not allowed|too (long|short)|out of range");
+    private static final Pattern NOISE = Pattern.compile("[^a-z]+");
+
+    private static volatile Map<String, Hint> mined = Map.of();
+
+    static {
+        if (ENABLED) ApiExecutors.daemon("allureiq-hint-mining", FailureClassifier::mine).start();
+    }
+
+    private FailureClassifier() {
+    }
+
+    /** A locally produced hint; source is "mined" or "rules:<rule>". */
+    public static final class Hint {
+        private final String cause;
+        private final String fix;
+        private final String source;
+
+        private Hint(String cause, String fix, String source) {
+            this.cause = cause;
+            this.fix = fix;
+            this.source = source;
+        }
+
+        public String cause() {
+            return cause;
+        }
+
+        public String fix() {
+            return fix;
+        }
+
+        public String source() {
+            return source;
+        }
+    }
+
+    // ---------- Classify ----------
+    /** Local hint for this failure, or null when it needs the LLM. */
+    public static Hint classify(String method, String endpoint, int status, String response) {
+        if (!ENABLED) return null;
+        String route = AiAutoContext.normalizeEndpoint(endpoint);
+
+        Hint known = mined.get(key(method, route, status));
+        if (known != null) return known;
+
+        String body = response == null ? "" : response;
+        switch (status) {
+            case 401:
+                return rule("auth", "Missing or expired auth token",
+                        "Log in first (the /login token is stored by AiAutoContext) or refresh the token before this call");
+            case 403:
+                return rule("forbidden", "Token is valid but the user lacks permission for this resource",
+                        "Call with a user that has the required role, or check who owns the resource");
+            case 404:
+                if (route.contains("{id}")) {
+                    return rule("unknown-id", "The id in the path does not exist (ids generated by AiAutoContext.inferEndpoint are random)",
+                            "Create the resource first and pass its id (ApiFlow extract / consumes) instead of a generated one");
+                }
+                return rule("unknown-route", "Route not found: wrong path, base URL or API version",
+                        "Check the endpoint path against the API docs and the configured base URL");
+            case 405:
+                return rule("method", "HTTP method " + method + " is not supported on this route",
+                        "Use the method the API documents for this endpoint");
+            case 408:
+            case 504:
+                return rule("timeout", "The request timed out before the service answered",
+                        "Check the service health and timeouts; retry once the backend responds");
+            case 409:
+                return rule("conflict", "Resource already exists or is in a conflicting state",
+                        "Use unique values (e.g. timestamped names) or clean up before creating");
+            case 413:
+                return rule("too-large", "Request payload is larger than the server accepts",
+                        "Send a smaller payload or split it into several requests");
+            case 415:
+                return rule("content-type", "Unsupported Content-Type for this endpoint",
+                        "Send Content-Type: application/json (or the type the API expects)");
+            case 429:
+                return rule("rate-limit", "Target API rate limit reached",
+                        "Throttle the test (lower load rate / concurrency) or retry after Retry-After");
+            case 502:
+            case 503:
+                return rule("unavailable", "Service unavailable or gateway could not reach it",
+                        "Check that the service is up and healthy, then rerun");
+            case 400:
+            case 422:
+                if (JSON_ERROR.matcher(body).find()) {
+                    return rule("bad-json", "Request body is not valid JSON or has wrong field types",
+                            "Send a well-formed JSON body matching the API schema");
+                }
+                if (VALIDATION.matcher(body).find()) {
+                    return rule("validation", "Payload failed validation: " + message(body),
+                            "Fix the field named in the error (required, type, format) against the API schema");
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    private static Hint rule(String name, String cause, String fix) {
+        return new Hint(cause, fix, "rules:" + name);
+    }
+
+    private static String message(String body) {
+        Matcher m = MESSAGE.matcher(body);
+        String text = m.find() ? m.group(1) : body.replaceAll("\\s+", " ").trim();
+        return text.length() <= 120 ? text : text.substring(0, 120) + "…";
+    }
+
+    private static String key(String method, String route, int status) {
+        return method + " " + route + " " + status;
+    }
+
+    // ---------- Mining ----------
+    // 🔍 Past LLM hints of this project (all test classes); a pattern needs support and agreement on the cause
+    private static void mine() {
+        try {
+            // key → normalized cause → [count, latest cause/fix]
+            Map<String, Map<String, Object[]>> votes = new HashMap<>();
+            Map<String, Integer> totals = new HashMap<>();
+            for (Document doc : MongoConnector.connect().getCollection("ai_hints")
+                    .find(Filters.eq("project", AiMongoLogger.projectName()))
+                    .projection(Projections.slice("hints", -MAX_HINTS))) {
+                for (Document h : doc.getList("hints", Document.class, List.of())) {
+                    String source = h.getString("source");
+                    if (source != null && !source.equals("llm")) continue;   // never learn from our own answers
+                    if (!(h.get("status") instanceof Number) || h.getString("cause") == null || h.getString("fix") == null) continue;
+                    if (h.getString("cause").isBlank()) continue;
+
+                    String key = key(h.getString("method"), AiAutoContext.normalizeEndpoint(h.getString("endpoint")),
+                            ((Number) h.get("status")).intValue());
+                    String cause = NOISE.matcher(h.getString("cause").toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+                    Object[] vote = votes.computeIfAbsent(key, k -> new HashMap<>())
+                            .computeIfAbsent(cause, c -> new Object[]{0, null});
+                    vote[0] = (Integer) vote[0] + 1;
+                    vote[1] = new Hint(h.getString("cause"), h.getString("fix"), "mined");
+                    totals.merge(key, 1, Integer::sum);
+                }
+            }
+
+            Map<String, Hint> patterns = new HashMap<>();
+            votes.forEach((key, causes) -> causes.values().stream()
+                    .max((a, b) -> Integer.compare((Integer) a[0], (Integer) b[0]))
+                    .filter(best -> (Integer) best[0] >= MIN_SUPPORT
+                            && (Integer) best[0] >= MIN_CONFIDENCE * totals.get(key))
+                    .ifPresent(best -> patterns.put(key, (Hint) best[1])));
+            mined = patterns;
+            if (!patterns.isEmpty()) System.out.println("🏷️ Failure classifier: " + patterns.size() + " patterns mined from ai_hints");
+        } catch (Exception e) {
+            System.err.println("⚠️ Failure classifier: ai_hints not mined, built-in rules only (" + e.getMessage() + ")");
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package org.allureIQ.AI;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.allureIQ.API.ApiExecutors;
+import org.allureIQ.API.JsonShape;
+import org.allureIQ.API.RunLifecycle;
+import org.allureIQ.models.AiMongoLogger;
+import org.bson.Document;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ⚠️ Background AI failure-hint pipeline
+ * -------------------------------------------------
+ * Features:
+ *  - Failed calls return immediately; hints are generated off the test thread
+ *  - De-duplicated by failure signature:
+ *      method + normalized endpoint + status + hashed JSON body shape
+ *  - Each distinct signature is sent to GeminiAI once per run
+ *  - Failures are batched: collected for a short window (or until the batch is full) and sent
+ *    as ONE prompt that answers with a JSON array of {id, cause, fix}
+ *  - The array is parsed with a streaming JSON reader; each answer goes to AiReporter, to the
+ *    matching execution records (hintId, via the write-behind queue) and to ai_hints
+ *  - Known failure classes (401, 404 on a random id, validation errors, patterns mined from
+ *    past hints, ...) are answered locally by FailureClassifier, without the LLM
+ *  - Before batching, a near-duplicate of an earlier failure (same method / endpoint / status,
+ *    request and response equal up to ids, dates and numbers) reuses that hint (SimilarPromptCache)
+ *  - The share of hints served without the LLM is printed and added to the AI report
+ *  - Missing hints are awaited before the summary is built
+ *
+ * Tuning (system properties):
+ *  - allureiq.hints.concurrency   (default 4)   batch requests in flight
+ *  - allureiq.hints.batchSize     (default 20)
+ *  - allureiq.hints.batchWindowMs (default 750)
+ *  - allureiq.hints.awaitSec      (default 60)
+ * -------------------------------------------------
+ */
+public final class FailureHintPipeline {
+
+    private static final Executor EXECUTOR =
+            ApiExecutors.bounded("allureiq-hints", Integer.getInteger("allureiq.hints.concurrency", 4));
+    private static final int BATCH_SIZE = Math.max(1, Integer.getInteger("allureiq.hints.batchSize", 20));
+    private static final long BATCH_WINDOW_MS = Long.getLong("allureiq.hints.batchWindowMs", 750L);
+    private static final long AWAIT_SEC = Long.getLong("allureiq.hints.awaitSec", 60L);
+    private static final int MAX_BODY_CHARS = 500;
+
+    private static final Map<String, CompletableFuture<String>> HINTS = new ConcurrentHashMap<>();
+    private static final BlockingQueue<Failure> BATCH_QUEUE = new LinkedBlockingQueue<>();
+    private static final Gson GSON = new Gson();
+
+    // distinct failures by where their hint came from
+    private static final AtomicLong RULES = new AtomicLong();
+    private static final AtomicLong MINED = new AtomicLong();
+    private static final AtomicLong SIMILAR = new AtomicLong();
+    private static final AtomicLong ESCALATED = new AtomicLong();
+    private static long lastReported = -1;
+
+    static {
+        RunLifecycle.onRunEnd("await AI failure hints", RunLifecycle.AWAIT_BACKGROUND_WORK,
+                FailureHintPipeline::awaitPending);
+        RunLifecycle.onRunEnd("report AI failure hint sources", RunLifecycle.FLUSH_LOGS, FailureHintPipeline::report);
+        ApiExecutors.daemon("allureiq-hint-batcher", FailureHintPipeline::runBatcher).start();
+    }
+
+    private FailureHintPipeline() {
+    }
+
+    // 🔹 One queued failure; id is the hintId stored on its execution records
+    private static final class Failure {
+        private final String id;
+        private final String method;
+        private final String endpoint;
+        private final String request;
+        private final int status;
+        private final String response;
+        private final String subProject;   // captured on the test thread; hints are stored later, off-thread
+        private final CompletableFuture<String> hint;
+
+        private Failure(String id, String method, String endpoint, String request, int status, String response,
+                        String subProject, CompletableFuture<String> hint) {
+            this.id = id;
+            this.method = method;
+            this.endpoint = endpoint;
+            this.request = request;
+            this.status = status;
+            this.response = response;
+            this.subProject = subProject;
+            this.hint = hint;
+        }
+
+        // exact part of the similarity lookup: a 404 never answers a 500
+        private String scope() {
+            return method + " " + AiAutoContext.normalizeEndpoint(endpoint) + " " + status;
+        }
+
+        // fuzzy part: what the model sees besides the scope
+        private String text() {
+            return clip(request) + "\n" + clip(response);
+        }
+    }
+
+    // ---------- SUBMIT ----------
+    public static CompletableFuture<String> submit(String method, String endpoint, String request,
+                                                   int status, String response) {
+        String signature = signature(method, endpoint, status, response);
+
+        // 🔒 Claim the signature with an empty future; the first caller does the work outside the map
+        CompletableFuture<String> hint = new CompletableFuture<>();
+        CompletableFuture<String> existing = HINTS.putIfAbsent(signature, hint);
+        if (existing != null) return existing;
+
+        Failure failure = new Failure(hintId(signature), method, endpoint, request, status, response,
+                AiMongoLogger.subProjectName(), hint);
+        try {
+            route(failure);
+        } catch (RuntimeException e) {
+            hint.complete("❌ AI failure hint error: " + e.getMessage());
+        }
+        return hint;
+    }
+
+    private static void route(Failure failure) {
+        // 🏷️ Known failure class → answered locally, no model call
+        FailureClassifier.Hint local = FailureClassifier.classify(failure.method, failure.endpoint, failure.status,
+                failure.response);
+        if (local != null) {
+            (local.source().equals("mined") ? MINED : RULES).incrementAndGet();
+            String[] causeFix = {local.cause(), local.fix()};
+            EXECUTOR.execute(() -> deliver(List.of(failure), Map.of(failure.id, causeFix), null, local.source()));
+            return;
+        }
+
+        // 🧬 Same failure seen before with other ids / timestamps → reuse that hint
+        String[] similar = fromJson(SimilarPromptCache.get(CallSite.FAILURE_HINT, failure.scope(), failure.text()));
+        if (similar != null) {
+            SIMILAR.incrementAndGet();
+            EXECUTOR.execute(() -> deliver(List.of(failure), Map.of(failure.id, similar), null, "similar-cache"));
+        } else {
+            ESCALATED.incrementAndGet();
+            BATCH_QUEUE.add(failure);
+        }
+    }
+
+    // 🔹 method + normalized endpoint + status + body shape
+    static String signature(String method, String endpoint, int status, String response) {
+        return method + " " + AiAutoContext.normalizeEndpoint(endpoint) + " " + status + " " + JsonShape.hash(response);
+    }
+
+    /** Short id of a failure signature; stored on execution records so a late hint finds them. */
+    public static String hintId(String method, String endpoint, int status, String response) {
+        return hintId(signature(method, endpoint, status, response));
+    }
+
+    private static String hintId(String signature) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(signature.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // ---------- BATCHING ----------
+    private static void runBatcher() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<Failure> batch = new ArrayList<>(BATCH_SIZE);
+                batch.add(BATCH_QUEUE.take());
+
+                // ⏱️ Collect whatever else fails within the window
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BATCH_WINDOW_MS);
+                while (batch.size() < BATCH_SIZE) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    Failure next = BATCH_QUEUE.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+
+                EXECUTOR.execute(() -> sendBatch(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void sendBatch(List<Failure> batch) {
+        StringBuilder prompt = new StringBuilder("""
+                For each failed API request below, give the most likely cause and a fix, one line each.
+                Answer ONLY with a JSON array, one object per request, keeping the ids:
+                [{"id": "<id>", "cause": "<cause>", "fix": "<fix>"}]
+
+                """);
+        for (Failure f : batch) {
+            prompt.append("id: ").append(f.id).append('\n')
+                    .append("Method: ").append(f.method).append('\n')
+                    .append("Endpoint: ").append(f.endpoint).append('\n')
+                    .append("Request: ").append(clip(f.request)).append('\n')
+                    .append("Status: ").append(f.status).append('\n')
+                    .append("Response: ").append(clip(f.response)).append("\n\n");
+        }
+
+        if (batch.size() > 1) System.out.println("🧺 Sending " + batch.size() + " failure hints in one AI request");
+        Map<String, String[]> answers = new HashMap<>();
+        String raw;
+        try {
+            raw = GeminiAI.generate(CallSite.FAILURE_HINT, prompt.toString(), true);
+            answers = parseHints(raw);
+        } catch (RuntimeException e) {
+            raw = "❌ AI failure hint error: " + e.getMessage();
+        }
+
+        for (Failure f : batch) {
+            String[] causeFix = answers.get(f.id);
+            if (causeFix != null) SimilarPromptCache.put(CallSite.FAILURE_HINT, f.scope(), f.text(), toJson(causeFix));
+        }
+        deliver(batch, answers, raw, "llm");
+    }
+
+    // 🔹 Hints → AiReporter, matching execution records (hintId) and ai_hints; then completes the futures
+    private static void deliver(List<Failure> batch, Map<String, String[]> answers, String raw, String source) {
+        List<Document> hintDocs = new ArrayList<>();
+        List<String> hints = new ArrayList<>();
+        for (Failure f : batch) {
+            String[] causeFix = answers.get(f.id);
+            Document aiHint;
+            if (causeFix != null) {
+                aiHint = new Document("hint", causeFix[0] + " → Fix: " + causeFix[1])
+                        .append("cause", causeFix[0])
+                        .append("fix", causeFix[1]);
+            } else {
+                // whole batch failed (no key, rate limit, not JSON) or the model skipped this id
+                aiHint = new Document("hint", answers.isEmpty() ? raw : "⚠️ No AI hint returned for this failure.");
+            }
+            String hint = aiHint.getString("hint");
+            hints.add(hint);
+
+            AiReporter.addRecord("AI_HINT: " + f.method + " " + f.endpoint + " (" + f.status + ") → " + hint);
+            AiMongoLogger.attachHint(f.id, aiHint);
+
+            Document doc = new Document("method", f.method)
+                    .append("endpoint", f.endpoint)
+                    .append("status", f.status)
+                    .append("source", source);
+            doc.putAll(aiHint);
+            hintDocs.add(doc.append("timestamp", Instant.now().toString()));
+        }
+
+        // one upsert per subproject the batch's failures were captured under
+        Map<String, List<Document>> bySubProject = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            bySubProject.computeIfAbsent(batch.get(i).subProject, k -> new ArrayList<>()).add(hintDocs.get(i));
+        }
+        bySubProject.forEach((subProject, docs) -> {
+            try {
+                AiMongoLogger.logAIHints(subProject, docs);
+            } catch (RuntimeException e) {
+                System.err.println("⚠️ Failed to store AI hints: " + e.getMessage());
+            }
+        });
+        // Reporting is done before completion, so awaiting a hint also awaits its report entries
+        for (int i = 0; i < batch.size(); i++) batch.get(i).hint.complete(hints.get(i));
+    }
+
+    // 🔍 Streams through the first JSON array in the answer (code fences / prose around it are skipped)
+    static Map<String, String[]> parseHints(String answer) {
+        Map<String, String[]> hints = new HashMap<>();
+        int start = answer == null ? -1 : answer.indexOf('[');
+        if (start < 0) return hints;
+
+        try (JsonReader reader = new JsonReader(new StringReader(answer.substring(start)))) {
+            reader.setLenient(true);
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    continue;
+                }
+                String id = null, cause = "", fix = "";
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                    } else if (name.equals("id")) {
+                        id = reader.nextString();
+                    } else if (name.equals("cause")) {
+                        cause = reader.nextString();
+                    } else if (name.equals("fix")) {
+                        fix = reader.nextString();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                if (id != null) hints.put(id.trim(), new String[]{cause.trim(), fix.trim()});
+            }
+        } catch (IOException | RuntimeException e) {
+            // a truncated or malformed tail still leaves the objects read so far
+            System.err.println("⚠️ AI hint array incomplete: " + e.getMessage());
+        }
+        return hints;
+    }
+
+    // cause / fix as stored in the similar-prompt cache
+    private static String toJson(String[] causeFix) {
+        return GSON.toJson(Map.of("cause", causeFix[0], "fix", causeFix[1]));
+    }
+
+    private static String[] fromJson(String json) {
+        if (json == null) return null;
+        try {
+            Map<?, ?> map = GSON.fromJson(json, Map.class);
+            return new String[]{String.valueOf(map.get("cause")), String.valueOf(map.get("fix"))};
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String clip(String text) {
+        if (text == null) return "";
+        return text.length() <= MAX_BODY_CHARS ? text : text.substring(0, MAX_BODY_CHARS) + "…";
+    }
+
+    // ---------- AWAIT ----------
+    public static void awaitPending() {
+        List<CompletableFuture<String>> pending = new ArrayList<>();
+        for (CompletableFuture<String> f : HINTS.values()) {
+            if (!f.isDone()) pending.add(f);
+        }
+        if (pending.isEmpty()) return;
+
+        System.out.println("⏳ Waiting for " + pending.size() + " AI failure hints...");
+        // a report is being built: hints deferred by the scheduler are needed now (only while waiting)
+        LlmScheduler.beginRelease();
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).get(AWAIT_SEC, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            System.err.println("⚠️ AI failure hints still pending after " + AWAIT_SEC + "s — continuing without them.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("⚠️ AI failure hint failed: " + e.getMessage());
+        } finally {
+            LlmScheduler.endRelease();
+        }
+    }
+
+    public static int distinctFailures() {
+        return HINTS.size();
+    }
+
+    // ---------- REPORT ----------
+    /** Adds to the AI report being built where the hints came from; the console line only when it changed. */
+    public static synchronized void report() {
+        long rules = RULES.get(), mined = MINED.get(), similar = SIMILAR.get(), llm = ESCALATED.get();
+        long total = rules + mined + similar + llm;
+        if (total == 0) return;
+        boolean changed = total != lastReported;
+        lastReported = total;
+
+        double local = (rules + mined + similar) * 100.0 / total;
+        String line = String.format("HINTS: %d distinct failures | %d rules | %d mined | %d similar | %d LLM → %.0f%% served locally",
+                total, rules, mined, similar, llm, local);
+        if (changed) System.out.println("🏷️ " + line);
+        AiReporter.addSection("🏷️ Failure Hint Sources",
+                String.format("<table><tr><th>Source</th><th>Failures</th><th>Share</th></tr>"
+                                + "<tr><td>Built-in rules</td><td>%d</td><td>%.0f%%</td></tr>"
+                                + "<tr><td>Mined from ai_hints</td><td>%d</td><td>%.0f%%</td></tr>"
+                                + "<tr><td>Similar earlier failure</td><td>%d</td><td>%.0f%%</td></tr>"
+                                + "<tr><td>LLM</td><td>%d</td><td>%.0f%%</td></tr></table><p>%s</p>",
+                        rules, rules * 100.0 / total, mined, mined * 100.0 / total,
+                        similar, similar * 100.0 / total, llm, llm * 100.0 / total, line));
+    }
+}
@@ -0,0 +1,537 @@
+package org.allureIQ.AI;
+
+import com.github.javafaker.Faker;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 🎲 Local payload generator (JSON Schema + JavaFaker)
+ * -------------------------------------------------
+ * Builds realistic JSON payloads without a model call. Accepted hints:
+ *  - a JSON Schema: type, properties, items, enum, const, format, minimum / maximum,
+ *    minLength / maxLength, minItems / maxItems
+ *  - an example object, e.g. {"company": "string", "appliedDate": "date", "salary": 5000}
+ *  - a field list in plain text, e.g. "fields: company, role, appliedDate (YYYY-MM-DD),
+ *    and status set to 'Rejected'"; in a requirement sentence only after "fields:",
+ *    "properties:", "keys:" or "with", so "orders and invoices" is left to the LLM
+ * Formats (email, date, date-time, uuid, uri, ipv4, ...) and field names (email, firstName,
+ * company, phone, city, createdAt, price, ...) map to generators. Faker values are drawn once
+ * into per-kind pools, so a payload takes microseconds.
+ *
+ * Tuning (system properties):
+ *  - allureiq.payload.mode      hybrid (default): local when fields are known, else the LLM, whose
+ *                               answer's shape is reused locally afterwards | local: never the LLM |
+ *                               llm: every payload from the LLM
+ *  - allureiq.payload.seed      fixed seed: the n-th payload of a schema is the same in every run
+ *  - allureiq.payload.poolSize  Faker values drawn per kind (default 512)
+ * -------------------------------------------------
+ */
+public final class FakerPayloadGenerator {
+
+    static final String MODE = System.getProperty("allureiq.payload.mode", "hybrid").trim().toLowerCase(Locale.ROOT);
+    private static final Long SEED = Long.getLong("allureiq.payload.seed");
+    private static final int POOL_SIZE = Math.max(1, Integer.getInteger("allureiq.payload.poolSize", 512));
+    // dates are relative to this day when seeded, to today otherwise
+    private static final LocalDate BASE_DATE = SEED != null ? LocalDate.of(2025, 1, 1) : LocalDate.now();
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+    private static final Map<String, JsonObject> SCHEMAS = new ConcurrentHashMap<>();
+    private static final Map<String, Function<Random, String>> GENERATORS = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> SEQUENCES = new ConcurrentHashMap<>();
+    private static final AtomicReferenceArray<String[]> POOLS = new AtomicReferenceArray<>(Kind.values().length);
+    private static final Random FAKER_RANDOM = new Random();
+    private static Faker faker;
+
+    private static final String REQUIREMENT = "requirement\u0000";   // cache key prefix
+    private static final Pattern FIELD_LIST = Pattern.compile("(?is)\\b(?:fields?|properties|keys)\\b\\s*[:=]?\\s*(.+)");
+    private static final Pattern WITH_LIST = Pattern.compile("(?is)\\bwith\\s+(.+)");
+    private static final Pattern FIELD = Pattern.compile("^([A-Za-z_][\\w.]*)\\s*(?:\\(([^)]*)\\))?\\s*(.*)$", Pattern.DOTALL);
+    private static final Pattern CONSTANT = Pattern.compile("(?i)(?:set to|equal to|equals|=|as|is)\\s*['\"]([^'\"]*)['\"]");
+    private static final Pattern SEPARATOR = Pattern.compile("\\s*(?:,|;|\\band\\b)\\s*");
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[a-z]{2,}$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DATE = Pattern.compile("^\\d{4}-\\d{2}-\\d{2}$");
+    private static final Pattern DATE_TIME = Pattern.compile("^\\d{4}-\\d{2}-\\d{2}[T ]\\d{2}:\\d{2}.*$");
+    private static final Pattern UUID_TEXT = Pattern.compile("^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern SCHEMA_TYPE = Pattern.compile("\"(object|array|string|number|integer|boolean|null)\"");
+    // camelCase / snake_case suffixes only: "description" does not end in "On"
+    private static final Pattern TIMESTAMP_NAME = Pattern.compile(".*[a-z](At|Time|Timestamp)|.*_(at|time|timestamp)|time|timestamp");
+    private static final Pattern DATE_NAME = Pattern.compile(".*[a-z](On|Date|Day)|.*_(on|date|day)|date|dob|birthday|birthdate");
+    private static final Pattern SMALL_COUNT = Pattern.compile(".*(quantity|qty|count|amount|number|rating|score)");
+    private static final Pattern MONEY = Pattern.compile(".*(price|salary|cost|total|balance)");
+    private static final Pattern LATITUDE = Pattern.compile(".*(lat|latitude)");
+    private static final Pattern LONGITUDE = Pattern.compile(".*(lng|lon|longitude)");
+    private static final Pattern RATING = Pattern.compile(".*(rating|score)");
+    private static final Pattern NOT_EMAIL_LOCAL = Pattern.compile("[^a-z.]");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]");
+    private static final Pattern ID_NAME = Pattern.compile("id|.*[a-z]Id|.*_id|uuid|guid|.*(Uuid|Guid|_uuid)");
+    private static final Pattern CATEGORY = Pattern.compile("status|state|type|category|level|priority|mode|kind");
+
+    private FakerPayloadGenerator() {
+    }
+
+    // 🔹 Faker-backed value kinds (pooled)
+    private enum Kind {
+        FIRST_NAME(f -> f.name().firstName()),
+        LAST_NAME(f -> f.name().lastName()),
+        FULL_NAME(f -> f.name().fullName()),
+        USERNAME(f -> f.name().username()),
+        DOMAIN(f -> f.internet().domainName()),
+        PASSWORD(f -> f.internet().password(10, 16, true, true, true)),
+        COMPANY(f -> f.company().name()),
+        JOB_TITLE(f -> f.job().title()),
+        DEPARTMENT(f -> f.commerce().department()),
+        PRODUCT(f -> f.commerce().productName()),
+        PHONE(f -> f.phoneNumber().cellPhone()),
+        STREET(f -> f.address().streetAddress()),
+        CITY(f -> f.address().city()),
+        STATE(f -> f.address().state()),
+        COUNTRY(f -> f.address().country()),
+        COUNTRY_CODE(f -> f.address().countryCode()),
+        ZIP(f -> f.address().zipCode()),
+        URL(f -> "https://" + f.internet().domainName() + "/" + f.internet().slug()),
+        IMAGE(f -> f.internet().avatar()),
+        CURRENCY(f -> f.currency().code()),
+        COLOR(f -> f.color().name()),
+        WORD(f -> f.lorem().word()),
+        SENTENCE(f -> f.lorem().sentence()),
+        TITLE(f -> f.book().title());
+
+        private final Function<Faker, String> draw;
+
+        Kind(Function<Faker, String> draw) {
+            this.draw = draw;
+        }
+    }
+
+    // ---------- Public API ----------
+    /** Payload for a schema / example / field-list hint; null when the hint names no fields. */
+    public static String generate(String hint) {
+        JsonObject schema = parseSchema(hint);
+        return schema == null ? null : generate(schema, hint);
+    }
+
+    /** Payload for an already parsed schema; key picks the seeded sequence. */
+    public static String generate(JsonObject schema, String key) {
+        return GSON.toJson(value("", schema, random(key), 0));
+    }
+
+    /**
+     * Schema for a test-data request: the hint when it is one, else the fields listed in the
+     * requirement. Constants in the requirement ("status set to 'Rejected'") are applied to both.
+     */
+    public static JsonObject schemaFor(String requirement, String hint) {
+        JsonObject schema = parseSchema(hint);
+        JsonObject listed = parse(requirement, false);
+        if (schema == null) return listed;
+        if (listed == null || !schema.has("properties")) return schema;
+
+        String key = requirement + "\u0000" + hint;
+        JsonObject cached = SCHEMAS.get(key);
+        if (cached != null) return cached;
+        JsonObject merged = schema.deepCopy();
+        JsonObject properties = merged.getAsJsonObject("properties");
+        for (Map.Entry<String, JsonElement> e : listed.getAsJsonObject("properties").entrySet()) {
+            JsonObject field = e.getValue().getAsJsonObject();
+            if (field.has("const") && properties.has(e.getKey()) && properties.get(e.getKey()).isJsonObject()) {
+                properties.getAsJsonObject(e.getKey()).add("const", field.get("const"));
+            }
+        }
+        SCHEMAS.putIfAbsent(key, merged);
+        return merged;
+    }
+
+    /** JSON Schema for a hint (schema, example object or field list); null when no fields are found. Cached. */
+    public static JsonObject parseSchema(String hint) {
+        return parse(hint, true);
+    }
+
+    // bareList: the whole text may be a field list (schema hints); requirements need a "fields:" / "with" marker
+    private static JsonObject parse(String text, boolean bareList) {
+        if (text == null || text.isBlank()) return null;
+        String key = bareList ? text : REQUIREMENT + text;
+        JsonObject cached = SCHEMAS.get(key);
+        if (cached != null) return cached;
+
+        JsonObject schema = toSchema(text.trim(), bareList);
+        if (schema != null) SCHEMAS.putIfAbsent(key, schema);
+        return schema;
+    }
+
+    /** Schema learned from a sample payload (e.g. an LLM answer); null when it holds no JSON object. */
+    public static JsonObject schemaOfExample(String answer) {
+        int start = answer == null ? -1 : answer.indexOf('{');
+        int end = answer == null ? -1 : answer.lastIndexOf('}');
+        if (start < 0 || end <= start) return null;
+        try {
+            JsonElement example = JsonParser.parseString(answer.substring(start, end + 1));
+            return example.isJsonObject() ? (JsonObject) ofExample("", example, true) : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // ---------- Hint → schema ----------
+    private static JsonObject toSchema(String hint, boolean bareList) {
+        if (hint.startsWith("{")) {
+            try {
+                JsonElement json = JsonParser.parseString(hint);
+                if (!json.isJsonObject()) return null;
+                JsonObject object = json.getAsJsonObject();
+                boolean isSchema = object.has("properties") || object.has("$schema")
+                        || (object.has("type") && SCHEMA_TYPE.matcher(object.get("type").toString()).matches()
+                        && (object.size() == 1 || object.has("items") || object.has("format") || object.has("enum")));
+                return isSchema ? object : (JsonObject) ofExample("", object, false);
+            } catch (RuntimeException e) {
+                // not JSON: read it as a field list
+            }
+        }
+        return ofFieldList(hint, bareList);
+    }
+
+    // "fields: company, role, appliedDate (YYYY-MM-DD), and status set to 'Rejected'."
+    private static JsonObject ofFieldList(String text, boolean bareList) {
+        Matcher list = FIELD_LIST.matcher(text);
+        Matcher with = WITH_LIST.matcher(text);
+        String fields = list.find() ? list.group(1) : with.find() ? with.group(1) : bareList ? text : null;
+        // "user" or "orders and invoices" names no fields: hybrid mode asks the LLM instead
+        if (fields == null) return null;
+
+        JsonObject properties = new JsonObject();
+        for (String item : SEPARATOR.split(fields.replaceAll("[.\\s]+$", ""))) {
+            Matcher m = FIELD.matcher(item.trim());
+            if (!m.matches()) continue;
+            String rest = m.group(3).trim();
+            Matcher constant = CONSTANT.matcher(rest);
+            boolean isConstant = constant.find();
+            // "a job tracking system" is prose, not a field
+            if (!rest.isEmpty() && !isConstant) continue;
+
+            JsonObject field = typeHint(m.group(2) == null ? "" : m.group(2));
+            if (isConstant) field.addProperty("const", constant.group(1));
+            properties.add(m.group(1), field);
+        }
+        return properties.size() == 0 ? null : object(properties);
+    }
+
+    // example values: "string" / "date" / "email" / ... are type hints, real values are typed by what they look like
+    private static JsonElement ofExample(String name, JsonElement example, boolean learned) {
+        if (example.isJsonObject()) {
+            JsonObject properties = new JsonObject();
+            for (Map.Entry<String, JsonElement> e : example.getAsJsonObject().entrySet()) {
+                properties.add(e.getKey(), ofExample(e.getKey(), e.getValue(), learned));
+            }
+            return object(properties);
+        }
+        JsonObject schema = new JsonObject();
+        if (example.isJsonArray()) {
+            JsonArray array = example.getAsJsonArray();
+            schema.addProperty("type", "array");
+            schema.add("items", array.size() == 0 ? new JsonObject() : ofExample(name, array.get(0), learned));
+            return schema;
+        }
+        if (example.isJsonNull()) return schema;
+
+        JsonPrimitive value = example.getAsJsonPrimitive();
+        if (value.isBoolean()) {
+            schema.addProperty("type", "boolean");
+        } else if (value.isNumber()) {
+            schema.addProperty("type", value.getAsString().matches("-?\\d+") ? "integer" : "number");
+        } else {
+            String text = value.getAsString();
+            // a real sample (learned) holds values, a hand-written example may hold type names
+            JsonObject hinted = learned ? new JsonObject() : typeHint(text);
+            if (hinted.size() > 0) return hinted;
+            schema.addProperty("type", "string");
+            String format = formatOf(text);
+            if (format != null) {
+                schema.addProperty("format", format);
+            } else if (learned && CATEGORY.matcher(key(name)).find()) {
+                // a sample's status / type value is kept: random categories are rarely valid
+                JsonArray values = new JsonArray();
+                values.add(text);
+                schema.add("enum", values);
+            }
+        }
+        return schema;
+    }
+
+    private static JsonObject typeHint(String hint) {
+        String h = hint.trim().toLowerCase(Locale.ROOT);
+        JsonObject schema = new JsonObject();
+        if (h.isEmpty()) return schema;
+        if (h.matches("int|integer|long|short")) schema.addProperty("type", "integer");
+        else if (h.matches("number|float|double|decimal|numeric")) schema.addProperty("type", "number");
+        else if (h.matches("bool|boolean")) schema.addProperty("type", "boolean");
+        else if (h.matches("string|str|text")) schema.addProperty("type", "string");
+        else if (h.matches("yyyy-mm-dd|date")) schema.addProperty("format", "date");
+        else if (h.contains("date-time") || h.contains("datetime") || h.contains("timestamp") || h.contains("iso")) schema.addProperty("format", "date-time");
+        else if (h.contains("email")) schema.addProperty("format", "email");
+        else if (h.contains("uuid") || h.contains("guid")) schema.addProperty("format", "uuid");
+        else if (h.contains("url") || h.contains("uri")) schema.addProperty("format", "uri");
+        else if (h.contains("date")) schema.addProperty("format", "date");
+        return schema;
+    }
+
+    private static String formatOf(String text) {
+        if (EMAIL.matcher(text).matches()) return "email";
+        if (DATE.matcher(text).matches()) return "date";
+        if (DATE_TIME.matcher(text).matches()) return "date-time";
+        if (UUID_TEXT.matcher(text).matches()) return "uuid";
+        if (text.startsWith("http://") || text.startsWith("https://")) return "uri";
+        return null;
+    }
+
+    private static JsonObject object(JsonObject properties) {
+        JsonObject schema = new JsonObject();
+        schema.addProperty("type", "object");
+        schema.add("properties", properties);
+        return schema;
+    }
+
+    // ---------- Schema → value ----------
+    private static JsonElement value(String name, JsonObject schema, Random r, int depth) {
+        if (schema.has("const")) return schema.get("const");
+        if (schema.has("enum") && schema.get("enum").isJsonArray() && schema.getAsJsonArray("enum").size() > 0) {
+            JsonArray values = schema.getAsJsonArray("enum");
+            return values.get(r.nextInt(values.size()));
+        }
+
+        switch (type(schema)) {
+            case "object":
+                JsonObject object = new JsonObject();
+                if (depth > 8 || !schema.has("properties")) return object;
+                for (Map.Entry<String, JsonElement> e : schema.getAsJsonObject("properties").entrySet()) {
+                    JsonObject field = e.getValue().isJsonObject() ? e.getValue().getAsJsonObject() : new JsonObject();
+                    object.add(e.getKey(), value(e.getKey(), field, r, depth + 1));
+                }
+                return object;
+            case "array":
+                JsonArray array = new JsonArray();
+                int min = intOf(schema, "minItems", 1);
+                int max = Math.max(min, intOf(schema, "maxItems", min + 2));
+                JsonObject items = schema.has("items") && schema.get("items").isJsonObject()
+                        ? schema.getAsJsonObject("items") : new JsonObject();
+                int size = min + r.nextInt(max - min + 1);
+                for (int i = 0; i < size && depth <= 8; i++) array.add(value(singular(name), items, r, depth + 1));
+                return array;
+            case "integer":
+                return new JsonPrimitive(integer(name, schema, r));
+            case "number":
+                return new JsonPrimitive(Math.round(number(name, schema, r) * 100) / 100.0);
+            case "boolean":
+                return new JsonPrimitive(r.nextBoolean());
+            case "null":
+                return JsonNull.INSTANCE;
+            default:
+                return new JsonPrimitive(sized(string(name, schema, r), schema, r));
+        }
+    }
+
+    private static String type(JsonObject schema) {
+        JsonElement type = schema.get("type");
+        if (type != null && type.isJsonArray()) {
+            for (JsonElement t : type.getAsJsonArray()) {
+                if (!"null".equals(t.getAsString())) return t.getAsString();
+            }
+        }
+        if (type != null && type.isJsonPrimitive()) return type.getAsString();
+        if (schema.has("properties")) return "object";
+        if (schema.has("items")) return "array";
+        return "string";
+    }
+
+    private static long integer(String name, JsonObject schema, Random r) {
+        String key = key(name);
+        long[] range = key.equals("age") ? new long[]{18, 80}
+                : key.endsWith("year") ? new long[]{1990, 2030}
+                : SMALL_COUNT.matcher(key).matches() ? new long[]{1, 10}
+                : MONEY.matcher(key).matches() ? new long[]{10, 10_000}
+                : ID_NAME.matcher(name).matches() ? new long[]{1, 10_000}
+                : new long[]{1, 1_000};
+        long min = (long) Math.ceil(bound(schema, "minimum", "exclusiveMinimum", range[0], 1));
+        long max = (long) Math.floor(bound(schema, "maximum", "exclusiveMaximum", Math.max(range[1], min), -1));
+        return max <= min ? min : min + (long) (r.nextDouble() * (max - min + 1));
+    }
+
+    private static double number(String name, JsonObject schema, Random r) {
+        String key = key(name);
+        double[] range = LATITUDE.matcher(key).matches() ? new double[]{-90, 90}
+                : LONGITUDE.matcher(key).matches() ? new double[]{-180, 180}
+                : RATING.matcher(key).matches() ? new double[]{1, 5}
+                : new double[]{1, 10_000};
+        double min = bound(schema, "minimum", "exclusiveMinimum", range[0], 0.01);
+        double max = bound(schema, "maximum", "exclusiveMaximum", Math.max(range[1], min), -0.01);
+        return min + r.nextDouble() * (max - min);
+    }
+
+    // minimum / maximum, or their exclusive forms nudged by step
+    private static double bound(JsonObject schema, String inclusive, String exclusive, double fallback, double step) {
+        if (schema.has(inclusive) && schema.get(inclusive).isJsonPrimitive()) return schema.get(inclusive).getAsDouble();
+        JsonElement e = schema.get(exclusive);
+        if (e != null && e.isJsonPrimitive() && e.getAsJsonPrimitive().isNumber()) return e.getAsDouble() + step;
+        return fallback;
+    }
+
+    private static String string(String name, JsonObject schema, Random r) {
+        String format = schema.has("format") ? schema.get("format").getAsString() : "";
+        switch (format) {
+            case "email":
+            case "idn-email":
+                return email(r);
+            case "date":
+                return date(r);
+            case "date-time":
+                return dateTime(r);
+            case "time":
+                return LocalTime.ofSecondOfDay(r.nextInt(86_400)).toString();
+            case "uuid":
+                return uuid(r);
+            case "uri":
+            case "url":
+            case "iri":
+                return pick(Kind.URL, r);
+            case "hostname":
+                return pick(Kind.DOMAIN, r);
+            case "ipv4":
+                return (r.nextInt(223) + 1) + "." + r.nextInt(256) + "." + r.nextInt(256) + "." + (r.nextInt(254) + 1);
+            case "ipv6":
+                return String.format("2001:db8:%x:%x::%x", r.nextInt(0xffff), r.nextInt(0xffff), r.nextInt(0xffff) + 1);
+            default:
+                return byName(name, r);
+        }
+    }
+
+    // 🔹 Field name → generator (most specific first); resolved once per name
+    private static String byName(String name, Random r) {
+        return GENERATORS.computeIfAbsent(name, FakerPayloadGenerator::generatorFor).apply(r);
+    }
+
+    private static Function<Random, String> generatorFor(String name) {
+        String key = key(name);
+        if (key.contains("email")) return FakerPayloadGenerator::email;
+        if (key.contains("password") || key.contains("secret")) return r -> pick(Kind.PASSWORD, r);
+        if (key.matches(".*(username|login|handle|nickname)")) return r -> pick(Kind.USERNAME, r) + r.nextInt(10_000);
+        if (key.matches(".*(firstname|givenname|forename)")) return r -> pick(Kind.FIRST_NAME, r);
+        if (key.matches(".*(lastname|surname|familyname)")) return r -> pick(Kind.LAST_NAME, r);
+        if (key.matches(".*(company|employer|organization|organisation|vendor|brand)(name)?")) return r -> pick(Kind.COMPANY, r);
+        if (key.matches(".*(role|jobtitle|position|occupation|designation|profession)")) return r -> pick(Kind.JOB_TITLE, r);
+        if (key.matches(".*(department|team)")) return r -> pick(Kind.DEPARTMENT, r);
+        if (key.matches(".*(product|item)(name)?")) return r -> pick(Kind.PRODUCT, r);
+        if (key.matches("(full)?name|.*(fullname|customer|author|owner|contact)(name)?")) return r -> pick(Kind.FULL_NAME, r);
+        if (key.matches(".*(phone|mobile|tel|telephone|cell)(number)?")) return r -> pick(Kind.PHONE, r);
+        if (key.matches(".*(street|address|address1|addressline)")) return r -> pick(Kind.STREET, r);
+        if (key.endsWith("city") || key.equals("town")) return r -> pick(Kind.CITY, r);
+        if (key.matches("state|province|region")) return r -> pick(Kind.STATE, r);
+        if (key.matches(".*countrycode")) return r -> pick(Kind.COUNTRY_CODE, r);
+        if (key.endsWith("country")) return r -> pick(Kind.COUNTRY, r);
+        if (key.matches(".*(zip|zipcode|postcode|postalcode)")) return r -> pick(Kind.ZIP, r);
+        if (key.matches(".*(avatar|image|photo|picture|thumbnail)(url)?")) return r -> pick(Kind.IMAGE, r);
+        if (key.matches(".*(url|website|homepage|link|uri)")) return r -> pick(Kind.URL, r);
+        if (ID_NAME.matcher(name).matches()) return FakerPayloadGenerator::uuid;
+        if (TIMESTAMP_NAME.matcher(name).matches()) return FakerPayloadGenerator::dateTime;
+        if (DATE_NAME.matcher(name).matches()) return FakerPayloadGenerator::date;
+        if (key.equals("currency") || key.endsWith("currencycode")) return r -> pick(Kind.CURRENCY, r);
+        if (key.endsWith("color") || key.endsWith("colour")) return r -> pick(Kind.COLOR, r);
+        if (key.equals("status")) return r -> new String[]{"active", "pending", "inactive"}[r.nextInt(3)];
+        if (key.equals("gender")) return r -> new String[]{"female", "male", "other"}[r.nextInt(3)];
+        if (key.matches(".*(title|subject|headline)")) return r -> pick(Kind.TITLE, r);
+        if (key.matches(".*(description|desc|notes?|comments?|summary|bio|message|text|content|body|reason|feedback)")) {
+            return r -> pick(Kind.SENTENCE, r);
+        }
+        return r -> pick(Kind.WORD, r);
+    }
+
+    private static String sized(String text, JsonObject schema, Random r) {
+        int min = intOf(schema, "minLength", 0);
+        int max = intOf(schema, "maxLength", Integer.MAX_VALUE);
+        StringBuilder sb = new StringBuilder(text);
+        while (sb.length() < min) sb.append(' ').append(pick(Kind.WORD, r));
+        return sb.length() > max ? sb.substring(0, max) : sb.toString();
+    }
+
+    private static String email(Random r) {
+        String local = NOT_EMAIL_LOCAL.matcher((pick(Kind.FIRST_NAME, r) + "." + pick(Kind.LAST_NAME, r)).toLowerCase(Locale.ROOT))
+                .replaceAll("");
+        return local + r.nextInt(10_000) + "@" + pick(Kind.DOMAIN, r);
+    }
+
+    private static String date(Random r) {
+        return BASE_DATE.minusDays(r.nextInt(730) - 365L).toString();
+    }
+
+    private static String dateTime(Random r) {
+        LocalDateTime time = BASE_DATE.atStartOfDay().minusSeconds(r.nextInt(730 * 86_400) - 365L * 86_400);
+        return time.atOffset(ZoneOffset.UTC).toInstant().toString();
+    }
+
+    // version 4 layout from the (possibly seeded) random
+    private static String uuid(Random r) {
+        long msb = (r.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (r.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb).toString();
+    }
+
+    private static String key(String name) {
+        return NON_ALPHANUMERIC.matcher(name.toLowerCase(Locale.ROOT)).replaceAll("");
+    }
+
+    private static String singular(String name) {
+        return name.endsWith("s") && name.length() > 3 ? name.substring(0, name.length() - 1) : name;
+    }
+
+    private static int intOf(JsonObject schema, String field, int fallback) {
+        JsonElement e = schema.get(field);
+        return e != null && e.isJsonPrimitive() && e.getAsJsonPrimitive().isNumber() ? e.getAsInt() : fallback;
+    }
+
+    // ---------- Randomness ----------
+    // seeded: the n-th payload for the same key is identical across runs, whatever the thread order
+    private static Random random(String key) {
+        if (SEED == null) return ThreadLocalRandom.current();
+        String k = key == null ? "" : key;
+        long n = SEQUENCES.computeIfAbsent(k, x -> new AtomicLong()).getAndIncrement();
+        return new Random(SEED * 31 + k.hashCode() * 1_000_003L + n);
+    }
+
+    // 🎲 Faker is slow per value (expression lookup): each kind is drawn into a pool once
+    private static String pick(Kind kind, Random r) {
+        String[] pool = POOLS.get(kind.ordinal());
+        if (pool == null) pool = fill(kind);
+        return pool[r.nextInt(pool.length)];
+    }
+
+    private static synchronized String[] fill(Kind kind) {
+        String[] pool = POOLS.get(kind.ordinal());
+        if (pool != null) return pool;
+        if (faker == null) faker = new Faker(FAKER_RANDOM);
+        // seeded per kind: pools do not depend on which kind a run happens to use first
+        if (SEED != null) FAKER_RANDOM.setSeed(SEED + kind.ordinal());
+        pool = new String[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) pool[i] = kind.draw.apply(faker);
+        POOLS.set(kind.ordinal(), pool);
+        return pool;
+    }
+}
@@ -1,94 +1,171 @@
 package org.allureIQ.AI;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import org.allureIQ.models.MongoConnector;
 import org.bson.Document;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * 🧠 LLM client
+ * -------------------------------------------------
+ * Features:
+ *  - Model calls go through the configured LlmProvider (-Dallureiq.llm.provider, see LlmProviders)
+ *  - generateAsync: non-blocking; calls are queued by LlmScheduler (priority per call site,
+ *    provider rate limits, Retry-After and jittered retries, at most allureiq.llm.maxInFlight at once)
+ *  - Identical prompts already in flight share one network call (single-flight)
+ *  - generate: the same path, waiting for the answer
+ *  - generateStreaming: SSE, content deltas are handed out as they arrive
+ *  - Prompt cache per call site (see PromptCache / CallSite)
+ * -------------------------------------------------
+ */
 public class GeminiAI {
 
-    private static final String API_KEY = org.allureIQ.AI.EnvConfig.get("OPENROUTER_API_KEY");
-    private static final String MODEL = "openai/gpt-4o-mini";
-    private static final String URL = "https://openrouter.ai/api/v1/chat/completions";
+    private static final LlmProvider PROVIDER = LlmProviders.get();
+    private static final String SYSTEM_PROMPT = "You are a helpful AI assistant specialized in API test summarization.";
 
-    private static final HttpClient client = HttpClient.newHttpClient();
-    private static final ObjectMapper mapper = new ObjectMapper();
+    // 🔗 cache key → call in flight, so identical concurrent prompts hit the network once
+    private static final Map<String, CompletableFuture<String>> IN_FLIGHT = new ConcurrentHashMap<>();
 
     public static String generate(String prompt) {
-        if (API_KEY == null || API_KEY.isBlank()) {
-            return "⚠️ OpenRouter API key not set. Please check your .env file.";
-        }
+        return generate(CallSite.GENERIC, prompt, true);
+    }
 
-        try {
-            System.out.println("🔑 Using OpenRouter API Key: " + API_KEY.substring(0, 10) + "**********");
-            System.out.println("🧠 Model: " + MODEL);
-            System.out.println("💬 Prompt: " + prompt);
-
-            // ✅ Build JSON body
-            String body = """
-            {
-              "model": "%s",
-              "messages": [
-                {"role": "system", "content": "You are a helpful AI assistant specialized in API test summarization."},
-                {"role": "user", "content": "%s"}
-              ]
-            }
-            """.formatted(MODEL, prompt.replace("\"", "\\\""));
-
-            // ✅ Send request
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(URL))
-                    .header("Content-Type", "application/json")
-                    .header("Authorization", "Bearer " + API_KEY)
-                    .header("X-Title", "AI Automation Framework")
-                    .POST(HttpRequest.BodyPublishers.ofString(body))
-                    .build();
-
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-            // ✅ Handle errors
-            if (response.statusCode() == 429) {
-                return "⚠️ Rate limit hit. Try again later.";
-            }
-            if (response.statusCode() / 100 != 2) {
-                return "⚠️ API Error " + response.statusCode() + ": " + response.body();
-            }
+    // 🗄️ useCache=false skips the cache lookup (the fresh answer still refreshes the cache)
+    public static String generate(CallSite site, String prompt, boolean useCache) {
+        return generateAsync(site, prompt, useCache).join();
+    }
 
-            // ✅ Parse AI response
-            JsonNode root = mapper.readTree(response.body());
-            String aiResponse = root.path("choices").get(0)
-                    .path("message").path("content").asText();
+    public static CompletableFuture<String> generateAsync(String prompt) {
+        return generateAsync(CallSite.GENERIC, prompt, true);
+    }
 
-            if (aiResponse == null || aiResponse.isBlank()) {
-                return "⚠️ Empty AI response received.";
+    // ---------- ASYNC ----------
+    public static CompletableFuture<String> generateAsync(CallSite site, String prompt, boolean useCache) {
+        String cacheKey = cacheKey(prompt);
+        if (useCache) {
+            String cached = PromptCache.get(site, cacheKey);
+            if (cached != null) {
+                System.out.println("🗄️ Cached AI response (" + site.key() + ")");
+                return CompletableFuture.completedFuture(cached);
             }
+        }
+
+        // Sites that want a fresh answer every time (test data) are never coalesced
+        if (!site.cacheable()) {
+            return complete(site, prompt, cacheKey);
+        }
+
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> running = IN_FLIGHT.putIfAbsent(cacheKey, created);
+        if (running != null) {
+            System.out.println("🔗 Joined identical AI request already in flight (" + site.key() + ")");
+            return running;
+        }
+
+        complete(site, prompt, cacheKey).whenComplete((answer, e) -> {
+            // leave the in-flight map first: later callers go through the cache, not a finished future
+            IN_FLIGHT.remove(cacheKey, created);
+            created.complete(e == null ? answer : "❌ OpenRouterAI error: " + rootMessage(e));
+        });
+        return created;
+    }
 
-            // ✅ Save report to MongoDB
-            saveToMongo(prompt, aiResponse);
+    // ---------- MODEL CALL ----------
+    private static CompletableFuture<String> complete(CallSite site, String prompt, String cacheKey) {
+        String unavailable = PROVIDER.unavailableReason();
+        if (unavailable != null) return CompletableFuture.completedFuture(unavailable);
 
-            // ✅ Generate Allure Comparison Report
+        System.out.println("🧠 Model: " + PROVIDER.model() + " (" + PROVIDER.name() + ")");
+        System.out.println("💬 Prompt: " + prompt);
+        return LlmScheduler.submit(site, () -> PROVIDER.complete(site, SYSTEM_PROMPT, prompt))
+                .handle((reply, e) -> answer(site, prompt, cacheKey, reply, e));
+    }
+
+    // ✅ Reply → answer string; successful answers are saved to Mongo and cached
+    private static String answer(CallSite site, String prompt, String cacheKey, LlmReply reply, Throwable e) {
+        if (e != null) {
+            return "❌ OpenRouterAI error: " + rootMessage(e);
+        }
+        String error = errorOf(reply);
+        if (error != null) return error;
+
+        String aiResponse = reply.content();
+        if (aiResponse.isBlank()) {
+            return "⚠️ Empty AI response received.";
+        }
+
+        // ✅ Save report to MongoDB
+        saveToMongo(prompt, aiResponse);
+        PromptCache.put(site, cacheKey, aiResponse, reply.latencyMs());
+
+        System.out.println("✅ AI Response Generated Successfully! (" + reply.latencyMs() + " ms)");
+        return aiResponse;
+    }
+
+    // ---------- STREAMING (SSE) ----------
+    /**
+     * Streams the completion: every content delta goes to {@code onDelta} as it arrives (on the LLM
+     * thread), the future completes with the full text. A cached answer is delivered as one delta.
+     * Errors complete the future with the usual "⚠️ / ❌" message and deliver no deltas.
+     */
+    public static CompletableFuture<String> generateStreaming(CallSite site, String prompt, Consumer<String> onDelta) {
+        String cacheKey = cacheKey(prompt);
+        String cached = PromptCache.get(site, cacheKey);
+        if (cached != null) {
+            System.out.println("🗄️ Cached AI response (" + site.key() + ")");
+            onDelta.accept(cached);
+            return CompletableFuture.completedFuture(cached);
+        }
+        String unavailable = PROVIDER.unavailableReason();
+        if (unavailable != null) return CompletableFuture.completedFuture(unavailable);
+
+        System.out.println("🧠 Model: " + PROVIDER.model() + " (" + PROVIDER.name() + ", streaming)");
+        AtomicBoolean delivered = new AtomicBoolean();
+        Consumer<String> tracking = delta -> {
+            delivered.set(true);
+            onDelta.accept(delta);
+        };
+        return LlmScheduler.submit(site, () -> {
             try {
-                AiSummaryReporter.logSummary(); // <-- new method, no params
-            } catch (Exception e) {
-                System.err.println("⚠️ AiSummaryReporter failed: " + e.getMessage());
+                return PROVIDER.stream(site, SYSTEM_PROMPT, prompt, tracking);
+            } catch (IOException e) {
+                // deltas already handed out cannot be taken back: no retry
+                if (delivered.get()) throw new UncheckedIOException(e);
+                throw e;
+            }
+        }).handle((reply, e) -> {
+            if (reply != null && reply.firstTokenMs() >= 0) {
+                System.out.println("⚡ First AI tokens after " + reply.firstTokenMs() + " ms");
             }
+            return answer(site, prompt, cacheKey, reply, e);
+        });
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause.getMessage();
+    }
 
-            System.out.println("✅ OpenRouter AI Response Generated Successfully!");
-            return aiResponse;
+    // ✅ Provider errors as the messages callers already handle
+    private static String errorOf(LlmReply reply) {
+        if (reply.status() == 429) return "⚠️ Rate limit hit. Try again later.";
+        if (reply.status() / 100 != 2) return "⚠️ API Error " + reply.status() + ": " + reply.error();
+        if (reply.error() != null) return "⚠️ API Error " + reply.error();
+        return null;
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "❌ OpenRouterAI error: " + e.getMessage();
-        }
+    // 🗄️ Provider is part of the key: stand-in answers never serve a real run
+    private static String cacheKey(String prompt) {
+        return PromptCache.key(PROVIDER.name() + "/" + PROVIDER.model(), SYSTEM_PROMPT, prompt);
     }
 
     private static void saveToMongo(String prompt, String aiSummary) {
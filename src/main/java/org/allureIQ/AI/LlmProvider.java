@@ -0,0 +1,34 @@
+package org.allureIQ.AI;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * 🔌 LLM provider SPI
+ * -------------------------------------------------
+ * Where chat completions come from. GeminiAI and the unified search engine only talk to this
+ * interface; caching, single-flight and reporting stay on their side.
+ *
+ * Built-in providers (select with -Dallureiq.llm.provider):
+ *  - openrouter (default) : OpenRouterProvider
+ *  - local                : LocalLlmProvider, deterministic stand-in server for offline runs / CI
+ * Other implementations are found through ServiceLoader
+ * (META-INF/services/org.allureIQ.AI.LlmProvider) and matched on name().
+ * -------------------------------------------------
+ */
+public interface LlmProvider {
+
+    /** Name used by allureiq.llm.provider and in logs. */
+    String name();
+
+    String model();
+
+    /** Null when the provider can be called, otherwise the "⚠️ ..." message handed back to callers. */
+    String unavailableReason();
+
+    LlmReply complete(CallSite site, String systemPrompt, String prompt) throws IOException, InterruptedException;
+
+    /** Streams content deltas to {@code onDelta} as they arrive; the reply holds the full text. */
+    LlmReply stream(CallSite site, String systemPrompt, String prompt, Consumer<String> onDelta)
+            throws IOException, InterruptedException;
+}
@@ -0,0 +1,44 @@
+package org.allureIQ.AI;
+
+import java.util.ServiceLoader;
+
+/**
+ * 🔌 Provider selection: -Dallureiq.llm.provider = openrouter (default) | local | name of a ServiceLoader provider
+ */
+public final class LlmProviders {
+
+    private static final String NAME = System.getProperty("allureiq.llm.provider", "openrouter").trim().toLowerCase();
+    private static volatile LlmProvider current;
+
+    private LlmProviders() {
+    }
+
+    public static LlmProvider get() {
+        if (current == null) {
+            synchronized (LlmProviders.class) {
+                if (current == null) current = create(null);
+            }
+        }
+        return current;
+    }
+
+    /** Same selection, but OpenRouter uses the given key (callers that carry their own key). */
+    public static LlmProvider withApiKey(String apiKey) {
+        return "openrouter".equals(NAME) ? create(apiKey) : get();
+    }
+
+    private static LlmProvider create(String apiKey) {
+        switch (NAME) {
+            case "openrouter":
+                return apiKey == null ? new OpenRouterProvider() : new OpenRouterProvider(apiKey);
+            case "local":
+                return new LocalLlmProvider();
+            default:
+                for (LlmProvider provider : ServiceLoader.load(LlmProvider.class)) {
+                    if (provider.name().equalsIgnoreCase(NAME)) return provider;
+                }
+                throw new IllegalStateException("❌ Unknown LLM provider: " + NAME
+                        + " (expected openrouter, local or a ServiceLoader provider name)");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.allureIQ.AI;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 📨 One provider answer: HTTP status, content (or error body), response headers, timings and
+ * token usage (-1 when the provider did not report it).
+ */
+public final class LlmReply {
+
+    private final int status;
+    private final String content;
+    private final String error;
+    private final Map<String, List<String>> headers;
+    private final long latencyMs;
+    private final long firstTokenMs;
+    private long promptTokens = -1;
+    private long completionTokens = -1;
+    private double costUsd = -1;
+
+    public LlmReply(int status, String content, String error, Map<String, List<String>> headers,
+                    long latencyMs, long firstTokenMs) {
+        this.status = status;
+        this.content = content == null ? "" : content;
+        this.error = error;
+        this.headers = headers == null ? Map.of() : headers;
+        this.latencyMs = latencyMs;
+        this.firstTokenMs = firstTokenMs;
+    }
+
+    public boolean ok() {
+        return status / 100 == 2 && error == null;
+    }
+
+    public int status() {
+        return status;
+    }
+
+    public String content() {
+        return content;
+    }
+
+    /** Error body / message, null on success. */
+    public String error() {
+        return error;
+    }
+
+    public Map<String, List<String>> headers() {
+        return headers;
+    }
+
+    /** First value of a response header (case-insensitive), or null. */
+    public String header(String name) {
+        for (Map.Entry<String, List<String>> e : headers.entrySet()) {
+            if (e.getKey() != null && e.getKey().equalsIgnoreCase(name) && !e.getValue().isEmpty()) {
+                return e.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    public long latencyMs() {
+        return latencyMs;
+    }
+
+    /** Time to the first streamed delta; -1 when not streamed or nothing arrived. */
+    public long firstTokenMs() {
+        return firstTokenMs;
+    }
+
+    /** Usage as reported by the provider ("usage" field); cost is -1 when not reported. */
+    public LlmReply withUsage(long promptTokens, long completionTokens, double costUsd) {
+        this.promptTokens = promptTokens;
+        this.completionTokens = completionTokens;
+        this.costUsd = costUsd;
+        return this;
+    }
+
+    public long promptTokens() {
+        return promptTokens;
+    }
+
+    public long completionTokens() {
+        return completionTokens;
+    }
+
+    public double costUsd() {
+        return costUsd;
+    }
+}
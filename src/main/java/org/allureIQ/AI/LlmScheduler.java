@@ -0,0 +1,375 @@
+package org.allureIQ.AI;
+
+import org.allureIQ.API.ApiExecutors;
+import org.allureIQ.API.RunLifecycle;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 🚦 LLM request scheduler
+ * -------------------------------------------------
+ * Every model call goes through one dispatcher:
+ *  - Priority classes from CallSite: HIGH (payloads / test data / decisions, a test thread waits)
+ *    before NORMAL (summaries, suggestions) before LOW (failure hints), FIFO within a class
+ *  - Token bucket: starts at allureiq.llm.rpm, then follows the provider's rate-limit headers
+ *    (X-RateLimit-Limit / -Remaining / -Reset, or the x-ratelimit-*-requests variants)
+ *  - 408 / 429 / 5xx / I/O errors are retried: Retry-After is honoured (and pauses all
+ *    dispatching on a 429), otherwise exponential backoff with jitter
+ *  - Under rate-limit pressure LOW work is deferred, at the latest until the run ends
+ *    (RunLifecycle.RELEASE_DEFERRED_WORK), so it never takes tokens a test thread is waiting for;
+ *    a report being built mid-run releases it only while it waits (beginRelease / endRelease)
+ *
+ * Tuning (system properties):
+ *  - allureiq.llm.maxInFlight         (default 8)
+ *  - allureiq.llm.rpm                 requests per minute until headers say otherwise (default 60)
+ *  - allureiq.llm.maxRetries          (default 4)
+ *  - allureiq.llm.backoffBaseMs       (default 500)
+ *  - allureiq.llm.backoffMaxMs        (default 30000)
+ *  - allureiq.llm.lowPriorityReserve  share of the bucket LOW work leaves free (default 0.25)
+ * -------------------------------------------------
+ */
+public final class LlmScheduler {
+
+    /** One try of a model call; the scheduler decides whether its reply is retried. */
+    @FunctionalInterface
+    public interface Attempt {
+        LlmReply run() throws IOException, InterruptedException;
+    }
+
+    private static final int MAX_IN_FLIGHT = Math.max(1, Integer.getInteger("allureiq.llm.maxInFlight", 8));
+    private static final int MAX_RETRIES = Integer.getInteger("allureiq.llm.maxRetries", 4);
+    private static final long BACKOFF_BASE_MS = Long.getLong("allureiq.llm.backoffBaseMs", 500L);
+    private static final long BACKOFF_MAX_MS = Long.getLong("allureiq.llm.backoffMaxMs", 30_000L);
+    private static final double LOW_RESERVE = Double.parseDouble(System.getProperty("allureiq.llm.lowPriorityReserve", "0.25"));
+
+    private static final Executor EXECUTOR = ApiExecutors.bounded("allureiq-llm", MAX_IN_FLIGHT);
+    private static final Semaphore SLOTS = new Semaphore(MAX_IN_FLIGHT);
+    private static final PriorityBlockingQueue<Job> QUEUE = new PriorityBlockingQueue<>();
+    private static final List<Job> DEFERRED = new ArrayList<>();   // dispatcher thread only
+    private static final TokenBucket BUCKET =
+            new TokenBucket(Math.max(1, Integer.getInteger("allureiq.llm.rpm", 60)), 60_000);
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final AtomicLong RETRIES = new AtomicLong();
+    private static final AtomicLong RATE_LIMITED = new AtomicLong();
+    private static final AtomicLong DEFERRED_TOTAL = new AtomicLong();
+    private static volatile long pausedUntil;      // epoch millis, set by Retry-After / exhausted window
+    private static final AtomicInteger RELEASE_HOLDS = new AtomicInteger();   // reports waiting for LOW work
+    private static volatile boolean runEnded;
+    private static long lastReported = -1;
+
+    private static final Pattern DURATION = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|s|m|h)");
+
+    static {
+        RunLifecycle.onRunEnd("release deferred LLM work", RunLifecycle.RELEASE_DEFERRED_WORK, LlmScheduler::releaseDeferred);
+        RunLifecycle.onRunEnd("report LLM scheduler", RunLifecycle.FLUSH_LOGS, LlmScheduler::report);
+        ApiExecutors.daemon("allureiq-llm-scheduler", LlmScheduler::dispatch).start();
+    }
+
+    private LlmScheduler() {
+    }
+
+    private static final class Job implements Comparable<Job> {
+        private final CallSite site;
+        private final Attempt attempt;
+        private final long seq = SEQUENCE.incrementAndGet();
+        private final long submitted = System.nanoTime();
+        private final CompletableFuture<LlmReply> reply = new CompletableFuture<>();
+        private int tries;
+
+        private Job(CallSite site, Attempt attempt) {
+            this.site = site;
+            this.attempt = attempt;
+        }
+
+        // retries keep their sequence number, so they stay ahead of later work in their class
+        @Override
+        public int compareTo(Job other) {
+            int byPriority = site.priority().compareTo(other.site.priority());
+            return byPriority != 0 ? byPriority : Long.compare(seq, other.seq);
+        }
+    }
+
+    // ---------- SUBMIT ----------
+    public static CompletableFuture<LlmReply> submit(CallSite site, Attempt attempt) {
+        Job job = new Job(site, attempt);
+        QUEUE.add(job);
+        return job.reply;
+    }
+
+    /** Run end: deferred LOW work runs now, and nothing is deferred any more. */
+    public static void releaseDeferred() {
+        runEnded = true;
+    }
+
+    /** A report waits for LOW work: it runs regardless of pressure until the matching endRelease(). */
+    public static void beginRelease() {
+        RELEASE_HOLDS.incrementAndGet();
+    }
+
+    public static void endRelease() {
+        RELEASE_HOLDS.decrementAndGet();
+    }
+
+    private static boolean released() {
+        return runEnded || RELEASE_HOLDS.get() > 0;
+    }
+
+    // ---------- DISPATCH ----------
+    // 🎟️ Slot, pause and token come first and the job is picked last, so whatever was queued while
+    //    the dispatcher waited is still ordered by priority (a HIGH call overtakes a waiting LOW one)
+    private static void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            boolean dispatched = false;
+            try {
+                SLOTS.acquire();
+                try {
+                    sleepUntil(pausedUntil);
+                    for (long wait = BUCKET.take(); wait > 0; wait = BUCKET.take()) {
+                        Thread.sleep(wait);
+                    }
+                    Job job = next();
+                    EXECUTOR.execute(() -> run(job));
+                    dispatched = true;
+                } finally {
+                    if (!dispatched) SLOTS.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // 🔹 Highest-priority job that may start now: LOW work is deferred under pressure, and a job
+    //    polled after a 429 pause began goes back to the queue until the pause is over
+    private static Job next() throws InterruptedException {
+        while (true) {
+            boolean released = released();
+            if (!DEFERRED.isEmpty() && (released || !underPressure())) {
+                QUEUE.addAll(DEFERRED);
+                DEFERRED.clear();
+            }
+            Job job = QUEUE.poll(250, TimeUnit.MILLISECONDS);
+            if (job == null) continue;
+
+            if (job.site.priority() == CallSite.Priority.LOW && !released && underPressure()) {
+                if (DEFERRED.isEmpty()) System.out.println("⏸️ LLM rate limit pressure — deferring low-priority AI work");
+                DEFERRED.add(job);
+                DEFERRED_TOTAL.incrementAndGet();
+                continue;
+            }
+            if (System.currentTimeMillis() < pausedUntil) {
+                QUEUE.add(job);
+                sleepUntil(pausedUntil);
+                continue;
+            }
+            return job;
+        }
+    }
+
+    private static boolean underPressure() {
+        return System.currentTimeMillis() < pausedUntil || BUCKET.available() < BUCKET.capacity() * LOW_RESERVE;
+    }
+
+    private static void run(Job job) {
+        LlmReply reply = null;
+        Exception error = null;
+        try {
+            reply = job.attempt.run();
+        } catch (IOException e) {
+            error = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(job, null, e);
+            return;
+        } catch (RuntimeException e) {
+            finish(job, null, e);
+            return;
+        } finally {
+            SLOTS.release();
+        }
+
+        if (reply == null && error == null) {
+            finish(job, null, new IOException("❌ AI provider returned no reply (" + job.site.key() + ")"));
+            return;
+        }
+        if (reply != null) {
+            observe(reply);
+            if (reply.status() == 429) RATE_LIMITED.incrementAndGet();
+        }
+        boolean retryable = error != null || isRetryable(reply.status());
+        if (!retryable || job.tries >= MAX_RETRIES) {
+            finish(job, reply, error);
+            return;
+        }
+
+        long delay = reply == null ? -1 : retryAfterMillis(reply.header("Retry-After"));
+        if (delay < 0) delay = backoffMillis(job.tries);
+        if (reply != null && reply.status() == 429) pauseFor(delay);
+        job.tries++;
+        RETRIES.incrementAndGet();
+        System.out.printf("🔁 AI call (%s) %s — retry %d/%d in %d ms%n", job.site.key(),
+                reply == null ? error.getMessage() : "HTTP " + reply.status(), job.tries, MAX_RETRIES, delay);
+        CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(() -> QUEUE.add(job));
+    }
+
+    private static void finish(Job job, LlmReply reply, Exception error) {
+        LlmTelemetry.record(job.site, reply, System.nanoTime() - job.submitted, job.tries);
+        if (error != null) job.reply.completeExceptionally(error);
+        else job.reply.complete(reply);
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 408 || status == 429 || status >= 500;
+    }
+
+    // ---------- RATE-LIMIT HEADERS ----------
+    private static void observe(LlmReply reply) {
+        double limit = number(first(reply, "X-RateLimit-Limit", "x-ratelimit-limit-requests"));
+        double remaining = number(first(reply, "X-RateLimit-Remaining", "x-ratelimit-remaining-requests"));
+        long resetAt = resetAtMillis(first(reply, "X-RateLimit-Reset", "x-ratelimit-reset-requests"));
+        BUCKET.sync(limit, remaining);
+        if (remaining == 0 && resetAt > System.currentTimeMillis()) pauseFor(resetAt - System.currentTimeMillis());
+    }
+
+    private static String first(LlmReply reply, String name, String alternative) {
+        String value = reply.header(name);
+        return value != null ? value : reply.header(alternative);
+    }
+
+    private static double number(String value) {
+        try {
+            return value == null ? -1 : Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // "1700000000000" (epoch ms), "1700000000" (epoch s), "20" (s from now), "6m0s" / "250ms" (from now)
+    static long resetAtMillis(String value) {
+        if (value == null || value.isBlank()) return -1;
+        long now = System.currentTimeMillis();
+        double n = number(value);
+        if (n >= 1e12) return (long) n;
+        if (n >= 1e9) return (long) (n * 1000);
+        if (n >= 0) return now + (long) (n * 1000);
+        long millis = durationMillis(value);
+        return millis < 0 ? -1 : now + millis;
+    }
+
+    private static long durationMillis(String value) {
+        Matcher m = DURATION.matcher(value.trim());
+        long total = 0;
+        boolean found = false;
+        while (m.find()) {
+            found = true;
+            double amount = Double.parseDouble(m.group(1));
+            switch (m.group(2)) {
+                case "ms": total += (long) amount; break;
+                case "s": total += (long) (amount * 1000); break;
+                case "m": total += (long) (amount * 60_000); break;
+                default: total += (long) (amount * 3_600_000); break;
+            }
+        }
+        return found ? total : -1;
+    }
+
+    // Retry-After: delta-seconds or HTTP-date
+    static long retryAfterMillis(String value) {
+        if (value == null || value.isBlank()) return -1;
+        double seconds = number(value);
+        if (seconds >= 0) return (long) (seconds * 1000);
+        try {
+            long at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, at - System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    // half fixed, half random: retries of a burst spread out instead of returning together
+    static long backoffMillis(int tries) {
+        long ceiling = Math.min(BACKOFF_MAX_MS, BACKOFF_BASE_MS << Math.min(tries, 20));
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    private static synchronized void pauseFor(long millis) {
+        pausedUntil = Math.max(pausedUntil, System.currentTimeMillis() + millis);
+    }
+
+    private static void sleepUntil(long epochMillis) throws InterruptedException {
+        long wait = epochMillis - System.currentTimeMillis();
+        if (wait > 0) Thread.sleep(wait);
+    }
+
+    // ---------- Token bucket ----------
+    static final class TokenBucket {
+        private final long windowMillis;
+        private double capacity;
+        private double tokens;
+        private long last = System.nanoTime();
+
+        TokenBucket(double perWindow, long windowMillis) {
+            this.windowMillis = windowMillis;
+            this.capacity = perWindow;
+            this.tokens = perWindow;
+        }
+
+        /** Takes a token: 0 when granted, otherwise millis until one is available. */
+        synchronized long take() {
+            refill();
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) * windowMillis / capacity));
+        }
+
+        /** Server-side numbers win: the limit resizes the bucket, remaining caps the tokens. */
+        synchronized void sync(double limit, double remaining) {
+            refill();
+            if (limit > 0) capacity = limit;
+            if (remaining >= 0) tokens = Math.min(tokens, remaining);
+            tokens = Math.min(tokens, capacity);
+        }
+
+        synchronized double available() {
+            refill();
+            return tokens;
+        }
+
+        synchronized double capacity() {
+            return capacity;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - last) / 1_000_000.0 * capacity / windowMillis);
+            last = now;
+        }
+    }
+
+    // ---------- Report ----------
+    static synchronized void report() {
+        long retries = RETRIES.get();
+        long total = retries + RATE_LIMITED.get() + DEFERRED_TOTAL.get();
+        if (total == 0 || total == lastReported) return;
+        lastReported = total;
+        System.out.printf("🚦 LLM SCHEDULER: %d retries | %d rate-limited (429) | %d low-priority calls deferred%n",
+                retries, RATE_LIMITED.get(), DEFERRED_TOTAL.get());
+    }
+}
@@ -0,0 +1,152 @@
+package org.allureIQ.AI;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import org.allureIQ.API.LatencyHistogram;
+import org.allureIQ.API.RunLifecycle;
+import org.allureIQ.models.AiMongoLogger;
+import org.allureIQ.models.MongoConnector;
+import org.bson.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 📈 LLM call telemetry per call site
+ * -------------------------------------------------
+ * Recorded by LlmScheduler when a call completes (after its retries):
+ *  - calls, errors, retries
+ *  - latency p50 / p95: end to end (queue + retries) and the model's own time
+ *  - prompt / completion tokens from the provider's "usage" field
+ *  - cost: as reported by the provider, else estimated from the configured prices
+ * Cache hits come from PromptCache (they never reach the scheduler).
+ * Published as a table in the AI report and as one document per run in ai_telemetry
+ * (keyed by the run's sessionId, so publishing again updates it).
+ *
+ * Tuning (system properties):
+ *  - allureiq.llm.price.prompt      USD per 1M prompt tokens, for unreported costs (default 0)
+ *  - allureiq.llm.price.completion  USD per 1M completion tokens (default 0)
+ * -------------------------------------------------
+ */
+public final class LlmTelemetry {
+
+    private static final double PROMPT_PRICE = Double.parseDouble(System.getProperty("allureiq.llm.price.prompt", "0"));
+    private static final double COMPLETION_PRICE = Double.parseDouble(System.getProperty("allureiq.llm.price.completion", "0"));
+
+    private static final SiteStats[] STATS = new SiteStats[CallSite.values().length];
+    private static long lastPublished = -1;
+
+    static {
+        for (CallSite site : CallSite.values()) STATS[site.ordinal()] = new SiteStats();
+        RunLifecycle.onRunEnd("publish LLM telemetry", RunLifecycle.FLUSH_LOGS, LlmTelemetry::publish);
+    }
+
+    private LlmTelemetry() {
+    }
+
+    private static final class SiteStats {
+        private long calls, errors, retries, promptTokens, completionTokens;
+        private double costUsd;
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final LatencyHistogram model = new LatencyHistogram();
+    }
+
+    // ---------- Recording ----------
+    /** One finished call; reply is null when it ended with an exception. */
+    public static void record(CallSite site, LlmReply reply, long totalNanos, int retries) {
+        SiteStats s = STATS[site.ordinal()];
+        synchronized (s) {
+            s.calls++;
+            s.retries += retries;
+            s.total.recordNanos(totalNanos);
+            if (reply == null || !reply.ok()) s.errors++;
+            if (reply == null) return;
+
+            s.model.recordNanos(reply.latencyMs() * 1_000_000);
+            long prompt = Math.max(0, reply.promptTokens());
+            long completion = Math.max(0, reply.completionTokens());
+            s.promptTokens += prompt;
+            s.completionTokens += completion;
+            s.costUsd += reply.costUsd() >= 0
+                    ? reply.costUsd()
+                    : (prompt * PROMPT_PRICE + completion * COMPLETION_PRICE) / 1_000_000;
+        }
+    }
+
+    // ---------- Publishing ----------
+    /** Adds/refreshes the report table and the ai_telemetry document; no-op when nothing changed. */
+    public static synchronized void publish() {
+        long activity = 0;
+        for (CallSite site : CallSite.values()) {
+            SiteStats s = STATS[site.ordinal()];
+            synchronized (s) {
+                activity += s.calls;
+            }
+            activity += PromptCache.hits(site);
+        }
+        if (activity == 0 || activity == lastPublished) return;
+        lastPublished = activity;
+
+        List<Document> sites = new ArrayList<>();
+        StringBuilder rows = new StringBuilder();
+        long calls = 0, tokens = 0;
+        double cost = 0;
+        for (CallSite site : CallSite.values()) {
+            Document d = toDocument(site);
+            if (d == null) continue;
+            sites.add(d);
+            calls += d.getLong("calls");
+            tokens += d.getLong("promptTokens") + d.getLong("completionTokens");
+            cost += d.getDouble("costUsd");
+            rows.append(String.format("<tr><td>%s</td><td>%d</td><td>%d</td><td>%d</td><td>%d</td>"
+                            + "<td>%.0f / %.0f</td><td>%.0f</td><td>%d / %d</td><td>$%.4f</td></tr>",
+                    site.key(), d.getLong("calls"), d.getLong("cacheHits"), d.getLong("retries"), d.getLong("errors"),
+                    d.getDouble("p50Ms"), d.getDouble("p95Ms"), d.getDouble("modelP95Ms"),
+                    d.getLong("promptTokens"), d.getLong("completionTokens"), d.getDouble("costUsd")));
+        }
+
+        String line = String.format("LLM TELEMETRY: %d model calls | %d tokens | $%.4f", calls, tokens, cost);
+        System.out.println("📈 " + line);
+        AiReporter.addSection("📈 LLM Telemetry",
+                "<table><tr><th>Call site</th><th>Calls</th><th>Cache hits</th><th>Retries</th><th>Errors</th>"
+                        + "<th>Latency p50 / p95 ms</th><th>Model p95 ms</th><th>Prompt / completion tokens</th>"
+                        + "<th>Cost</th></tr>" + rows + "</table><p>" + line + "</p>");
+
+        Document doc = new Document("sessionId", AiMongoLogger.sessionId())
+                .append("provider", LlmProviders.get().name())
+                .append("model", LlmProviders.get().model())
+                .append("timestamp", Instant.now().toString())
+                .append("calls", calls)
+                .append("tokens", tokens)
+                .append("costUsd", cost)
+                .append("sites", sites);
+        try {
+            MongoConnector.connect().getCollection("ai_telemetry")
+                    .replaceOne(Filters.eq("sessionId", doc.getString("sessionId")), doc, new ReplaceOptions().upsert(true));
+        } catch (Exception e) {
+            System.err.println("⚠️ Failed to store LLM telemetry: " + e.getMessage());
+        }
+    }
+
+    // null when the site was not used this run
+    private static Document toDocument(CallSite site) {
+        SiteStats s = STATS[site.ordinal()];
+        long hits = PromptCache.hits(site);
+        synchronized (s) {
+            if (s.calls == 0 && hits == 0) return null;
+            return new Document("site", site.key())
+                    .append("priority", site.priority().name())
+                    .append("calls", s.calls)
+                    .append("cacheHits", hits)
+                    .append("retries", s.retries)
+                    .append("errors", s.errors)
+                    .append("p50Ms", s.total.percentileMillis(50))
+                    .append("p95Ms", s.total.percentileMillis(95))
+                    .append("modelP95Ms", s.model.percentileMillis(95))
+                    .append("promptTokens", s.promptTokens)
+                    .append("completionTokens", s.completionTokens)
+                    .append("costUsd", s.costUsd);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.allureIQ.AI;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+
+/**
+ * 🧪 Local stand-in provider (-Dallureiq.llm.provider=local)
+ *  - Talks to the embedded LocalLlmServer, started on first use
+ *  - -Dallureiq.llm.local.url points it at a stand-in running elsewhere instead
+ */
+public class LocalLlmProvider extends ChatCompletionsProvider {
+
+    private static final String URL = System.getProperty("allureiq.llm.local.url");
+
+    private volatile URI endpoint;
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public String model() {
+        return "local/stand-in";
+    }
+
+    @Override
+    public String unavailableReason() {
+        return null;
+    }
+
+    @Override
+    protected URI endpoint() {
+        if (endpoint == null) endpoint = URL == null || URL.isBlank() ? LocalLlmServer.start() : URI.create(URL);
+        return endpoint;
+    }
+
+    @Override
+    protected void decorate(HttpRequest.Builder request, CallSite site) {
+        request.header("X-AllureIQ-Call-Site", site.key());
+    }
+}
@@ -0,0 +1,343 @@
+package org.allureIQ.AI;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.allureIQ.API.ApiExecutors;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 🧪 Local LLM stand-in server
+ * -------------------------------------------------
+ * Embedded HTTP server (loopback only) answering POST /v1/chat/completions in the OpenAI format,
+ * plain or SSE. Answers are deterministic (derived from the prompt) and valid for the call site
+ * named in the X-AllureIQ-Call-Site header:
+ *  - failure_hint    : JSON array of {id, cause, fix} for every "id:" in the prompt
+ *  - summary         : all report sections ("Overall Summary:" ... "Error Breakdown:")
+ *  - payload / test_data : one JSON object
+ *  - decision        : GET / POST / PUT / DELETE
+ *  - test_suggestion : "[Endpoint] - [Test Case] - [Why it matters]" per listed endpoint
+ *  - others          : short text digest
+ * "usage" (≈ 4 chars per token) is reported like a real provider, in the last SSE chunk when streaming.
+ * Used to run the whole reporting pipeline offline and to measure framework overhead without
+ * model latency.
+ *
+ * Tuning (system properties):
+ *  - allureiq.llm.local.port          (default 0 = any free port)
+ *  - allureiq.llm.local.latencyMs     delay before the answer / first SSE chunk (default 0)
+ *  - allureiq.llm.local.chunkDelayMs  delay between SSE chunks (default 0)
+ *  - allureiq.llm.local.errorRate     share of requests answered 500 (default 0.0)
+ *  - allureiq.llm.local.rateLimitRate share of requests answered 429 + Retry-After (default 0.0)
+ *  - allureiq.llm.local.rpm           requests per minute before 429, with X-RateLimit-* headers (default 0 = unlimited)
+ *  - allureiq.llm.local.seed          error injection seed (default 42)
+ * Injected errors are drawn per (prompt, attempt), so a run is reproducible whatever the thread order.
+ * -------------------------------------------------
+ */
+public final class LocalLlmServer {
+
+    private static final int PORT = Integer.getInteger("allureiq.llm.local.port", 0);
+    private static final long LATENCY_MS = Long.getLong("allureiq.llm.local.latencyMs", 0L);
+    private static final long CHUNK_DELAY_MS = Long.getLong("allureiq.llm.local.chunkDelayMs", 0L);
+    private static final double ERROR_RATE = Double.parseDouble(System.getProperty("allureiq.llm.local.errorRate", "0"));
+    private static final double RATE_LIMIT_RATE = Double.parseDouble(System.getProperty("allureiq.llm.local.rateLimitRate", "0"));
+    private static final int RPM = Integer.getInteger("allureiq.llm.local.rpm", 0);
+    private static final long SEED = Long.getLong("allureiq.llm.local.seed", 42L);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern HINT_ID = Pattern.compile("(?m)^id: (\\S+)\\s*\\nMethod: (\\S+)\\s*\\nEndpoint: (\\S+)[\\s\\S]*?^Status: (\\d+)");
+    private static final Pattern LIST_ITEM = Pattern.compile("(?m)^- (\\S.*)$");
+    private static final List<String> SUMMARY_SECTIONS = List.of("Overall Summary", "Key Issues",
+            "Technical Root Cause Insights", "Suggestions", "Endpoints Tested", "Error Breakdown");
+
+    private static final Map<Long, AtomicInteger> ATTEMPTS = new ConcurrentHashMap<>();
+    private static final AtomicInteger WINDOW_COUNT = new AtomicInteger();
+    private static volatile long windowStart = System.currentTimeMillis();
+    private static HttpServer server;
+
+    private LocalLlmServer() {
+    }
+
+    // ---------- Lifecycle ----------
+    /** Starts the server once (daemon threads) and returns the completions URL. */
+    public static synchronized URI start() {
+        if (server == null) {
+            try {
+                server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), PORT), 0);
+            } catch (IOException e) {
+                throw new IllegalStateException("❌ Local LLM server could not start: " + e.getMessage(), e);
+            }
+            server.createContext("/v1/chat/completions", LocalLlmServer::handle);
+            server.setExecutor(Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "allureiq-local-llm");
+                t.setDaemon(true);
+                return t;
+            }));
+            // the dispatcher thread inherits the daemon flag of the thread calling start()
+            Thread starter = ApiExecutors.daemon("allureiq-local-llm-start", server::start);
+            starter.start();
+            try {
+                starter.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            System.out.println("🧪 Local LLM stand-in listening on port " + server.getAddress().getPort());
+        }
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions");
+    }
+
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    // ---------- Handler ----------
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, "{\"error\":{\"message\":\"POST only\"}}");
+                return;
+            }
+            JsonNode request = MAPPER.readTree(exchange.getRequestBody());
+            JsonNode messages = request.path("messages");
+            String prompt = messages.path(messages.size() - 1).path("content").asText("");
+            boolean stream = request.path("stream").asBoolean(false);
+            String site = String.valueOf(exchange.getRequestHeaders().getFirst("X-AllureIQ-Call-Site"));
+
+            sleep(LATENCY_MS);
+
+            // 🚦 Rate limit window and injected failures
+            if (RPM > 0 && !admitted(exchange)) return;
+            long promptHash = fnv(prompt);
+            int attempt = ATTEMPTS.computeIfAbsent(promptHash, k -> new AtomicInteger()).getAndIncrement();
+            double draw = unit(SEED ^ promptHash ^ (attempt * 0x9E3779B97F4A7C15L));
+            if (draw < RATE_LIMIT_RATE) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                send(exchange, 429, "{\"error\":{\"message\":\"Rate limit exceeded (injected)\"}}");
+                return;
+            }
+            if (draw < RATE_LIMIT_RATE + ERROR_RATE) {
+                send(exchange, 500, "{\"error\":{\"message\":\"Internal error (injected)\"}}");
+                return;
+            }
+
+            String answer = answer(site, prompt, promptHash);
+            ObjectNode usage = MAPPER.createObjectNode()
+                    .put("prompt_tokens", tokens(messages))
+                    .put("completion_tokens", (answer.length() + 3) / 4);
+            if (stream) {
+                streamAnswer(exchange, answer, usage);
+            } else {
+                ObjectNode body = MAPPER.createObjectNode().put("id", "local-" + Long.toHexString(promptHash))
+                        .put("model", "local/stand-in");
+                body.putArray("choices").addObject().put("index", 0).put("finish_reason", "stop")
+                        .putObject("message").put("role", "assistant").put("content", answer);
+                body.set("usage", usage);
+                send(exchange, 200, MAPPER.writeValueAsString(body));
+            }
+        } catch (RuntimeException e) {
+            send(exchange, 500, "{\"error\":{\"message\":" + MAPPER.writeValueAsString(String.valueOf(e.getMessage())) + "}}");
+        }
+    }
+
+    // ⏱️ Fixed one-minute window, OpenRouter-style X-RateLimit-* headers
+    private static boolean admitted(HttpExchange exchange) throws IOException {
+        long now = System.currentTimeMillis();
+        synchronized (WINDOW_COUNT) {
+            if (now - windowStart >= 60_000) {
+                windowStart = now;
+                WINDOW_COUNT.set(0);
+            }
+        }
+        int used = WINDOW_COUNT.incrementAndGet();
+        long resetAt = windowStart + 60_000;
+        exchange.getResponseHeaders().add("X-RateLimit-Limit", String.valueOf(RPM));
+        exchange.getResponseHeaders().add("X-RateLimit-Remaining", String.valueOf(Math.max(0, RPM - used)));
+        exchange.getResponseHeaders().add("X-RateLimit-Reset", String.valueOf(resetAt));
+        if (used <= RPM) return true;
+
+        exchange.getResponseHeaders().add("Retry-After", String.valueOf(Math.max(1, (resetAt - now + 999) / 1000)));
+        send(exchange, 429, "{\"error\":{\"message\":\"Rate limit exceeded\"}}");
+        return false;
+    }
+
+    private static void streamAnswer(HttpExchange exchange, String answer, ObjectNode usage) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        out.write(": local stand-in\n\n".getBytes(StandardCharsets.UTF_8));
+
+        // ~ one word per chunk, like real token streams
+        int start = 0;
+        while (start < answer.length()) {
+            int end = answer.indexOf(' ', start + 1);
+            end = end < 0 ? answer.length() : end;
+            ObjectNode event = MAPPER.createObjectNode();
+            event.putArray("choices").addObject().put("index", 0)
+                    .putObject("delta").put("content", answer.substring(start, end));
+            out.write(("data: " + MAPPER.writeValueAsString(event) + "\n\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            start = end;
+            sleep(CHUNK_DELAY_MS);
+        }
+        ObjectNode last = MAPPER.createObjectNode();
+        last.putArray("choices");
+        last.set("usage", usage);
+        out.write(("data: " + MAPPER.writeValueAsString(last) + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    // ---------- Answers per call site ----------
+    static String answer(String site, String prompt, long promptHash) throws IOException {
+        switch (site) {
+            case "failure_hint":
+                return failureHints(prompt);
+            case "summary":
+                return summary(prompt);
+            case "payload":
+            case "test_data":
+                return payload(promptHash);
+            case "decision":
+                return decision(prompt);
+            case "test_suggestion":
+                return testSuggestions(prompt);
+            default:
+                return "Local stand-in answer: analysed " + prompt.length() + " characters (digest "
+                        + Long.toHexString(promptHash) + ").";
+        }
+    }
+
+    private static String failureHints(String prompt) throws IOException {
+        ArrayNode hints = MAPPER.createArrayNode();
+        Matcher m = HINT_ID.matcher(prompt);
+        while (m.find()) {
+            int status = Integer.parseInt(m.group(4));
+            hints.addObject().put("id", m.group(1))
+                    .put("cause", causeOf(status) + " on " + m.group(2) + " " + m.group(3))
+                    .put("fix", fixOf(status));
+        }
+        return MAPPER.writeValueAsString(hints);
+    }
+
+    private static String causeOf(int status) {
+        if (status == 400 || status == 422) return "Request payload failed server-side validation";
+        if (status == 401) return "Missing or expired auth token";
+        if (status == 403) return "Authenticated user lacks permission";
+        if (status == 404) return "Referenced resource does not exist";
+        if (status == 409) return "Conflicting resource state";
+        if (status == 429) return "Target API rate limit reached";
+        if (status >= 500) return "Unhandled server-side exception";
+        return "Unexpected status " + status;
+    }
+
+    private static String fixOf(int status) {
+        if (status == 401 || status == 403) return "Refresh the token before the call and check the user's roles";
+        if (status == 404) return "Create the resource in setup or use an id returned by the API";
+        if (status == 429) return "Throttle the test or add a retry with backoff";
+        if (status >= 500) return "Check the service logs for the stack trace of this request";
+        return "Validate the payload against the API schema before sending";
+    }
+
+    private static String summary(String prompt) {
+        long lines = prompt.lines().count();
+        long failing = prompt.lines().filter(l -> l.contains(" 4xx ") || l.contains(" 5xx ")).count();
+        StringBuilder sb = new StringBuilder();
+        int n = 1;
+        for (String section : SUMMARY_SECTIONS) {
+            sb.append(n++).append(". **").append(section).append(":**\n");
+            sb.append("- Local stand-in ").append(section.toLowerCase(Locale.ROOT))
+                    .append(" for ").append(lines).append(" prompt lines, ")
+                    .append(failing).append(" endpoint lines with failures.\n\n");
+        }
+        return sb.toString();
+    }
+
+    private static String payload(long promptHash) throws IOException {
+        long n = Math.floorMod(promptHash, 100_000L);
+        ObjectNode payload = MAPPER.createObjectNode()
+                .put("id", n)
+                .put("name", "User " + n)
+                .put("email", "user" + n + "@example.com")
+                .put("status", n % 2 == 0 ? "active" : "inactive")
+                .put("createdAt", "2024-01-01T00:00:00Z");
+        return MAPPER.writeValueAsString(payload);
+    }
+
+    private static String decision(String prompt) {
+        String p = prompt.toLowerCase(Locale.ROOT);
+        if (p.contains("delete") || p.contains("remove")) return "DELETE";
+        if (p.contains("update") || p.contains("edit")) return "PUT";
+        if (p.contains("create") || p.contains("add") || p.contains("submit")) return "POST";
+        return "GET";
+    }
+
+    private static String testSuggestions(String prompt) {
+        StringBuilder sb = new StringBuilder();
+        Matcher m = LIST_ITEM.matcher(prompt);
+        while (m.find()) {
+            String endpoint = m.group(1).trim();
+            sb.append("[").append(endpoint).append("] - [Invalid payload returns 400] - [Guards input validation]\n");
+            sb.append("[").append(endpoint).append("] - [Missing token returns 401] - [Guards authentication]\n");
+        }
+        return sb.length() == 0 ? "No endpoints listed." : sb.toString();
+    }
+
+    // ---------- Helpers ----------
+    // ≈ 4 characters per token, over every message
+    private static long tokens(JsonNode messages) {
+        long chars = 0;
+        for (JsonNode message : messages) chars += message.path("content").asText("").length();
+        return (chars + 3) / 4;
+    }
+
+    private static long fnv(String text) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            h ^= text.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // SplitMix64 finalizer → [0, 1)
+    private static double unit(long x) {
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        x ^= x >>> 31;
+        return (x >>> 11) * 0x1.0p-53;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.allureIQ.AI;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * 🗜️ Log compaction for the AI summary prompt
+ * -------------------------------------------------
+ * The prompt gets one line per normalized endpoint instead of one line per call:
+ *   GET /api/jobs/{id} | calls 120 | 2xx 100, 4xx 18, 5xx 2 | first error 12:01:03 404 … |
+ *   last error 12:05:10 500 … | distinct errors: 404 "not found" ×18; 500 "db timeout" ×2
+ *  - Endpoints with server errors first, then client errors, then by call count
+ *  - Other records (LOAD / DATA / FLOW / AI_HINT / INFO ...) are de-duplicated and appended
+ *  - Tokens are estimated (≈ 4 chars per token) and the text is trimmed to the budget;
+ *    what does not fit is folded into one "… N more" line
+ * So the prompt size depends on the number of endpoints and the budget, not on the run size.
+ * -------------------------------------------------
+ */
+public final class LogCompactor {
+
+    private static final int MAX_DISTINCT_ERRORS = 5;
+    private static final int MAX_ERROR_CHARS = 120;
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final Map<String, EndpointLog> endpoints = new LinkedHashMap<>();
+    private final Map<String, Integer> otherLines = new LinkedHashMap<>();
+
+    // ---------- Per-endpoint aggregate ----------
+    private static final class EndpointLog {
+        private final String key;
+        private long calls, ok, redirect, client, server;
+        private String firstError, lastError;
+        private final Map<String, Integer> errors = new LinkedHashMap<>();
+
+        private EndpointLog(String key) {
+            this.key = key;
+        }
+
+        private String line(String latency) {
+            StringBuilder sb = new StringBuilder(key).append(" | calls ").append(calls).append(" | ");
+            sb.append("2xx ").append(ok);
+            if (redirect > 0) sb.append(", 3xx ").append(redirect);
+            if (client > 0) sb.append(", 4xx ").append(client);
+            if (server > 0) sb.append(", 5xx ").append(server);
+            if (latency != null) sb.append(" | ").append(latency);
+            if (firstError != null) {
+                sb.append(" | first error ").append(firstError);
+                if (!firstError.equals(lastError)) sb.append(" | last error ").append(lastError);
+            }
+            if (errors.size() > 1 || (errors.size() == 1 && client + server > 1)) {
+                sb.append(" | distinct errors: ");
+                int shown = 0;
+                for (Map.Entry<String, Integer> e : errors.entrySet()) {
+                    if (shown++ == MAX_DISTINCT_ERRORS) {
+                        sb.append("; … ").append(errors.size() - MAX_DISTINCT_ERRORS).append(" more");
+                        break;
+                    }
+                    sb.append(shown > 1 ? "; " : "").append(e.getKey()).append(" ×").append(e.getValue());
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    // ---------- Feeding ----------
+    public synchronized void execution(String method, String endpoint, int status, String errorBody) {
+        String key = method + " " + AiAutoContext.normalizeEndpoint(endpoint);
+        EndpointLog log = endpoints.computeIfAbsent(key, EndpointLog::new);
+        log.calls++;
+
+        if (status < 300) log.ok++;
+        else if (status < 400) log.redirect++;
+        else if (status < 500) log.client++;
+        else log.server++;
+
+        if (status >= 400) {
+            String message = clip(errorBody);
+            String error = LocalTime.now().format(TIME) + " " + status + (message.isEmpty() ? "" : " " + message);
+            if (log.firstError == null) log.firstError = error;
+            log.lastError = error;
+            log.errors.merge(status + " \"" + DIGITS.matcher(message).replaceAll("#") + "\"", 1, Integer::sum);
+        }
+    }
+
+    public synchronized void line(String record) {
+        otherLines.merge(record, 1, Integer::sum);
+    }
+
+    public synchronized void clear() {
+        endpoints.clear();
+        otherLines.clear();
+    }
+
+    // ---------- Compaction ----------
+    public static int estimateTokens(String text) {
+        return (text.length() + 3) / 4;
+    }
+
+    /**
+     * @param tokenBudget upper bound for the returned text
+     * @param latency     extra text per endpoint key (e.g. latency percentiles), may return null
+     */
+    public synchronized String compact(int tokenBudget, Function<String, String> latency) {
+        List<EndpointLog> ordered = new ArrayList<>(endpoints.values());
+        ordered.sort(Comparator.comparingLong((EndpointLog e) -> -e.server)
+                .thenComparingLong(e -> -e.client)
+                .thenComparingLong(e -> -e.calls));
+
+        long calls = ordered.stream().mapToLong(e -> e.calls).sum();
+        long failed = ordered.stream().mapToLong(e -> e.client + e.server).sum();
+        StringBuilder out = new StringBuilder(String.format(
+                "TOTALS: %d calls | %d unique endpoints | %d failed calls%n", calls, ordered.size(), failed));
+
+        // 🔹 Endpoints may use most of the budget; other records get the rest (and what endpoints left)
+        int endpointBudget = tokenBudget * 3 / 4;
+        int used = estimateTokens(out.toString());
+        int i = 0;
+        for (; i < ordered.size(); i++) {
+            String line = ordered.get(i).line(latency.apply(ordered.get(i).key)) + "\n";
+            if (used + estimateTokens(line) > endpointBudget) break;
+            out.append(line);
+            used += estimateTokens(line);
+        }
+        if (i < ordered.size()) {
+            List<EndpointLog> rest = ordered.subList(i, ordered.size());
+            String line = String.format("… %d more endpoints: %d calls, %d failed%n", rest.size(),
+                    rest.stream().mapToLong(e -> e.calls).sum(),
+                    rest.stream().mapToLong(e -> e.client + e.server).sum());
+            out.append(line);
+            used += estimateTokens(line);
+        }
+
+        int omitted = 0;
+        for (Map.Entry<String, Integer> e : otherLines.entrySet()) {
+            String line = e.getKey() + (e.getValue() > 1 ? " (×" + e.getValue() + ")" : "") + "\n";
+            if (used + estimateTokens(line) > tokenBudget) {
+                omitted++;
+                continue;
+            }
+            out.append(line);
+            used += estimateTokens(line);
+        }
+        if (omitted > 0) out.append("… ").append(omitted).append(" more log lines omitted\n");
+        return out.toString();
+    }
+
+    private static String clip(String text) {
+        if (text == null) return "";
+        String oneLine = WHITESPACE.matcher(text).replaceAll(" ").trim();
+        return oneLine.length() <= MAX_ERROR_CHARS ? oneLine : oneLine.substring(0, MAX_ERROR_CHARS) + "…";
+    }
+}
@@ -0,0 +1,59 @@
+package org.allureIQ.AI;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+
+/**
+ * 🌐 OpenRouter chat completions (default provider)
+ *  - Key: OPENROUTER_API_KEY from the .env file (or passed in)
+ *  - Model: -Dallureiq.llm.model (default openai/gpt-4o-mini)
+ */
+public class OpenRouterProvider extends ChatCompletionsProvider {
+
+    private static final URI URL = URI.create("https://openrouter.ai/api/v1/chat/completions");
+    private static final String MODEL = System.getProperty("allureiq.llm.model", "openai/gpt-4o-mini");
+
+    private final String apiKey;
+
+    public OpenRouterProvider() {
+        this(EnvConfig.get("OPENROUTER_API_KEY"));
+    }
+
+    public OpenRouterProvider(String apiKey) {
+        this.apiKey = apiKey;
+    }
+
+    @Override
+    public String name() {
+        return "openrouter";
+    }
+
+    @Override
+    public String model() {
+        return MODEL;
+    }
+
+    @Override
+    public String unavailableReason() {
+        return apiKey == null || apiKey.isBlank() ? "⚠️ OpenRouter API key not set. Please check your .env file." : null;
+    }
+
+    @Override
+    protected URI endpoint() {
+        return URL;
+    }
+
+    // usage accounting: OpenRouter adds the call's cost to "usage"
+    @Override
+    protected void customize(ObjectNode body) {
+        body.putObject("usage").put("include", true);
+    }
+
+    @Override
+    protected void decorate(HttpRequest.Builder request, CallSite site) {
+        request.header("Authorization", "Bearer " + apiKey)
+                .header("X-Title", "AI Automation Framework");
+    }
+}
@@ -0,0 +1,203 @@
+package org.allureIQ.AI;
+
+import com.google.gson.Gson;
+import org.allureIQ.API.RunLifecycle;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Pattern;
+
+/**
+ * 🗄️ Content-addressed LLM prompt cache
+ * -------------------------------------------------
+ * Key: SHA-256 of (model, system prompt, normalized user prompt) — whitespace differences
+ * never cause a miss. Two tiers:
+ *  - memory : LRU of the most recent responses
+ *  - disk   : one JSON file per key, survives between runs
+ * Entries expire after their call site's TTL (see CallSite). Error answers are never stored.
+ * Hits, misses and the model latency saved by hits are printed (and added to the AI report)
+ * when the run ends.
+ *
+ * Tuning (system properties):
+ *  - allureiq.llm.cache            on (default) | memory | off
+ *  - allureiq.llm.cache.dir        disk tier, default target/allureiq-llm-cache
+ *  - allureiq.llm.cache.maxEntries memory tier size (default 512)
+ * -------------------------------------------------
+ */
+public final class PromptCache {
+
+    private static final String MODE = System.getProperty("allureiq.llm.cache", "on").trim().toLowerCase();
+    private static final boolean ENABLED = !"off".equals(MODE);
+    private static final boolean DISK = "on".equals(MODE);
+    private static final Path DIR = Paths.get(System.getProperty("allureiq.llm.cache.dir", "target/allureiq-llm-cache"));
+    private static final int MAX_ENTRIES = Integer.getInteger("allureiq.llm.cache.maxEntries", 512);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Gson GSON = new Gson();
+
+    private static final Map<String, Entry> MEMORY = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    // ---------- Stats (indexed by CallSite ordinal) ----------
+    private static final int SITES = CallSite.values().length;
+    private static final AtomicLongArray HITS = new AtomicLongArray(SITES);
+    private static final AtomicLongArray MISSES = new AtomicLongArray(SITES);
+    private static final AtomicLongArray SAVED_MILLIS = new AtomicLongArray(SITES);
+    private static long lastReportedLookups = -1;
+
+    static {
+        RunLifecycle.onRunEnd("report prompt cache", RunLifecycle.FLUSH_LOGS, PromptCache::report);
+    }
+
+    private static final class Entry {
+        String site;
+        long createdAt;     // epoch millis
+        long latencyMs;     // what the original model call took
+        String response;
+    }
+
+    private PromptCache() {
+    }
+
+    // ---------- Key ----------
+    public static String key(String model, String systemPrompt, String prompt) {
+        String normalized = WHITESPACE.matcher(prompt == null ? "" : prompt.trim()).replaceAll(" ");
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[]{model, systemPrompt, normalized}) {
+                sha.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                sha.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(sha.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // ---------- Lookup ----------
+    /** Cached response, or null on a miss (also null when the site is not cacheable). */
+    public static String get(CallSite site, String key) {
+        if (!ENABLED || !site.cacheable()) return null;
+
+        Entry e;
+        synchronized (MEMORY) {
+            e = MEMORY.get(key);
+        }
+        if (e == null && DISK) {
+            e = readDisk(key);
+            if (e != null) {
+                synchronized (MEMORY) {
+                    MEMORY.put(key, e);
+                }
+            }
+        }
+        if (e != null && System.currentTimeMillis() - e.createdAt > site.ttl().toMillis()) {
+            remove(key);
+            e = null;
+        }
+
+        if (e == null) {
+            MISSES.incrementAndGet(site.ordinal());
+            return null;
+        }
+        HITS.incrementAndGet(site.ordinal());
+        SAVED_MILLIS.addAndGet(site.ordinal(), e.latencyMs);
+        return e.response;
+    }
+
+    public static void put(CallSite site, String key, String response, long latencyMs) {
+        if (!ENABLED || !site.cacheable() || response == null || response.isBlank()) return;
+
+        Entry e = new Entry();
+        e.site = site.key();
+        e.createdAt = System.currentTimeMillis();
+        e.latencyMs = latencyMs;
+        e.response = response;
+        synchronized (MEMORY) {
+            MEMORY.put(key, e);
+        }
+        if (DISK) writeDisk(key, e);
+    }
+
+    private static void remove(String key) {
+        synchronized (MEMORY) {
+            MEMORY.remove(key);
+        }
+        if (DISK) {
+            try {
+                Files.deleteIfExists(DIR.resolve(key + ".json"));
+            } catch (IOException ignored) {
+                // expired entry is overwritten on the next put
+            }
+        }
+    }
+
+    // ---------- Disk tier ----------
+    private static Entry readDisk(String key) {
+        Path file = DIR.resolve(key + ".json");
+        if (!Files.exists(file)) return null;
+        try {
+            return GSON.fromJson(Files.readString(file, StandardCharsets.UTF_8), Entry.class);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("⚠️ Prompt cache entry unreadable, ignoring: " + file.getFileName());
+            return null;
+        }
+    }
+
+    // write to a temp file and move, so a concurrent reader never sees half an entry
+    private static void writeDisk(String key, Entry e) {
+        try {
+            Files.createDirectories(DIR);
+            Path tmp = Files.createTempFile(DIR, key, ".tmp");
+            Files.writeString(tmp, GSON.toJson(e), StandardCharsets.UTF_8);
+            Files.move(tmp, DIR.resolve(key + ".json"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            System.err.println("⚠️ Prompt cache write failed: " + ex.getMessage());
+        }
+    }
+
+    // ---------- Report ----------
+    public static long hits(CallSite site)   { return HITS.get(site.ordinal()); }
+    public static long misses(CallSite site) { return MISSES.get(site.ordinal()); }
+
+    /** Prints the hit rate and adds it to the AI report being built (also at run end). */
+    public static synchronized void report() {
+        long hits = 0, lookups = 0, saved = 0;
+        StringBuilder rows = new StringBuilder();
+        for (CallSite site : CallSite.values()) {
+            long h = HITS.get(site.ordinal());
+            long m = MISSES.get(site.ordinal());
+            if (h + m == 0) continue;
+            long s = SAVED_MILLIS.get(site.ordinal());
+            hits += h;
+            lookups += h + m;
+            saved += s;
+            rows.append(String.format("<tr><td>%s</td><td>%d</td><td>%d</td><td>%.0f%%</td><td>%.1f s</td></tr>",
+                    site.key(), h, m, h * 100.0 / (h + m), s / 1000.0));
+        }
+        if (lookups == 0) return;
+
+        String line = String.format("LLM CACHE: %d/%d hits (%.0f%%) | saved %.1f s of model latency",
+                hits, lookups, hits * 100.0 / lookups, saved / 1000.0);
+        // console once per change; the section is added for every report being built
+        if (lookups != lastReportedLookups) System.out.println("🗄️ " + line);
+        lastReportedLookups = lookups;
+        AiReporter.addSection("🗄️ LLM Prompt Cache",
+                "<table><tr><th>Call site</th><th>Hits</th><th>Misses</th><th>Hit rate</th><th>Saved</th></tr>"
+                        + rows + "</table><p>" + line + "</p>");
+    }
+}
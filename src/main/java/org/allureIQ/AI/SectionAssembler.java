@@ -0,0 +1,110 @@
+package org.allureIQ.AI;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 🧩 Incremental report-section assembler
+ * -------------------------------------------------
+ * Fed with streamed LLM text (any chunk size), it splits the answer into the sections named
+ * in the prompt ("Overall Summary", "Key Issues", ...) while tokens arrive:
+ *  - a line starting with a known header opens that section
+ *    (numbering, emoji, markdown #, ** and trailing ':' are ignored)
+ *  - the section is complete as soon as the next header starts (or the stream ends),
+ *    and is handed to the callback right away
+ *  - only the current line is buffered, never the whole answer
+ * -------------------------------------------------
+ */
+public final class SectionAssembler {
+
+    private final List<String> headers;
+    private final BiConsumer<String, String> onSection;
+    private final Map<String, String> sections = new LinkedHashMap<>();
+    private final StringBuilder line = new StringBuilder();
+
+    private String current;
+    private StringBuilder content;
+
+    public SectionAssembler(List<String> headers, BiConsumer<String, String> onSection) {
+        this.headers = headers;
+        this.onSection = onSection;
+    }
+
+    // ---------- Feeding ----------
+    public synchronized void accept(String delta) {
+        for (int i = 0; i < delta.length(); i++) {
+            char c = delta.charAt(i);
+            if (c == '\n') {
+                processLine(line.toString());
+                line.setLength(0);
+            } else if (c != '\r') {
+                line.append(c);
+            }
+        }
+    }
+
+    /** Flushes the last line and closes the open section. */
+    public synchronized void finish() {
+        if (line.length() > 0) {
+            processLine(line.toString());
+            line.setLength(0);
+        }
+        close();
+    }
+
+    private void processLine(String text) {
+        String header = headerOf(text);
+        if (header != null) {
+            close();
+            current = header;
+            content = new StringBuilder();
+            // "Overall Summary: text on the same line"
+            int colon = text.indexOf(':');
+            if (colon >= 0) appendContent(text.substring(colon + 1));
+        } else if (current != null) {
+            appendContent(text);
+        }
+    }
+
+    private void appendContent(String text) {
+        String cleaned = text.replace("*", "").replace("•", "").stripTrailing();
+        if (cleaned.isBlank() && content.length() == 0) return;
+        content.append(cleaned).append('\n');
+    }
+
+    private void close() {
+        if (current == null) return;
+        String text = content.toString().trim();
+        sections.put(current, text);
+        onSection.accept(current, text);
+        current = null;
+    }
+
+    // 🔹 "2️⃣ **Key Issues:**", "## Key Issues", "Key Issues:" → "Key Issues"
+    private String headerOf(String text) {
+        int start = 0;
+        while (start < text.length() && !Character.isLetter(text.charAt(start))) start++;
+        if (start == text.length()) return null;
+
+        String rest = text.substring(start).toLowerCase(Locale.ROOT);
+        for (String header : headers) {
+            String h = header.toLowerCase(Locale.ROOT);
+            if (!rest.startsWith(h)) continue;
+            String after = rest.substring(h.length()).replace("*", "").replace("#", "").trim();
+            if (after.isEmpty() || after.startsWith(":") || after.startsWith("：")) return header;
+        }
+        return null;
+    }
+
+    // ---------- Result ----------
+    public synchronized String section(String header) {
+        return sections.getOrDefault(header, "");
+    }
+
+    public synchronized boolean isEmpty() {
+        return sections.isEmpty();
+    }
+}
@@ -0,0 +1,278 @@
+package org.allureIQ.AI;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.allureIQ.API.RunLifecycle;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 🧬 Near-duplicate prompt cache (MinHash + LSH)
+ * -------------------------------------------------
+ * For prompts that differ only in ids, timestamps or random values, where PromptCache's exact
+ * key never hits (e.g. one failure inside a hint batch):
+ *  - text is normalized: UUIDs, dates / times, long hex ids and numbers are masked
+ *  - character 5-gram shingles → 64-slot MinHash signature
+ *  - LSH index: 16 bands × 4 rows; only entries sharing a band with the new text are compared
+ *  - a hit needs the same scope (exact, e.g. method + endpoint + status) and an estimated
+ *    Jaccard similarity ≥ threshold
+ *  - LRU-bounded; entries expire with their call site's TTL
+ *  - snapshot on disk, loaded at start and written when the run ends
+ *
+ * Tuning (system properties):
+ *  - allureiq.llm.similar            on (default) | memory | off
+ *  - allureiq.llm.similar.threshold  (default 0.85)
+ *  - allureiq.llm.similar.maxEntries (default 2000)
+ *  - allureiq.llm.similar.file       snapshot, default target/allureiq-similar-cache.json
+ * -------------------------------------------------
+ */
+public final class SimilarPromptCache {
+
+    private static final String MODE = System.getProperty("allureiq.llm.similar", "on").trim().toLowerCase();
+    private static final boolean ENABLED = !"off".equals(MODE);
+    private static final boolean DISK = "on".equals(MODE);
+    private static final double THRESHOLD = Double.parseDouble(System.getProperty("allureiq.llm.similar.threshold", "0.85"));
+    private static final int MAX_ENTRIES = Integer.getInteger("allureiq.llm.similar.maxEntries", 2000);
+    private static final Path FILE = Paths.get(System.getProperty("allureiq.llm.similar.file", "target/allureiq-similar-cache.json"));
+
+    private static final int HASHES = 64;
+    private static final int BANDS = 16;
+    private static final int ROWS = HASHES / BANDS;
+    private static final int SHINGLE = 5;
+    private static final long[] SEEDS = new long[HASHES];
+
+    private static final Pattern UUID = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+    private static final Pattern DATE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}([t ]\\d{2}:\\d{2}(:\\d{2}(\\.\\d+)?)?(z|[+-]\\d{2}:?\\d{2})?)?");
+    private static final Pattern TIME = Pattern.compile("\\d{2}:\\d{2}(:\\d{2})?");
+    private static final Pattern HEX = Pattern.compile("\\b(?=[0-9a-f]*\\d)[0-9a-f]{12,}\\b");
+    private static final Pattern NUMBER = Pattern.compile("\\d+(\\.\\d+)?");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Gson GSON = new Gson();
+    private static final Map<String, Entry> ENTRIES = new LinkedHashMap<>(64, 0.75f, true);
+    private static final Map<Long, Set<String>> BUCKETS = new HashMap<>();
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static long lastReported = -1;
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < HASHES; i++) SEEDS[i] = seed = mix(seed + 0x9E3779B97F4A7C15L);
+        if (DISK) load();
+        RunLifecycle.onRunEnd("save similar prompt cache", RunLifecycle.FLUSH_LOGS, SimilarPromptCache::report);
+    }
+
+    private static final class Entry {
+        String site;
+        String scope;
+        int[] signature;
+        long createdAt;
+        String answer;
+    }
+
+    private SimilarPromptCache() {
+    }
+
+    // ---------- Lookup ----------
+    /** Answer of the most similar earlier text in the same scope, or null. */
+    public static String get(CallSite site, String scope, String text) {
+        if (!ENABLED || !site.cacheable()) return null;
+        int[] signature = signature(text);
+        long now = System.currentTimeMillis();
+
+        synchronized (ENTRIES) {
+            Set<String> candidates = new HashSet<>();
+            for (int band = 0; band < BANDS; band++) {
+                Set<String> bucket = BUCKETS.get(bandKey(site, scope, signature, band));
+                if (bucket != null) candidates.addAll(bucket);
+            }
+
+            Entry best = null;
+            String bestId = null;
+            double bestSimilarity = THRESHOLD;
+            List<String> expired = new ArrayList<>();
+            for (String id : candidates) {
+                Entry e = ENTRIES.get(id);
+                if (e == null || !e.site.equals(site.key()) || !e.scope.equals(scope)) continue;
+                if (now - e.createdAt > site.ttl().toMillis()) {
+                    expired.add(id);
+                    continue;
+                }
+                double similarity = similarity(signature, e.signature);
+                if (similarity >= bestSimilarity) {
+                    best = e;
+                    bestId = id;
+                    bestSimilarity = similarity;
+                }
+            }
+            expired.forEach(SimilarPromptCache::remove);
+
+            if (best == null) {
+                MISSES.incrementAndGet();
+                return null;
+            }
+            ENTRIES.get(bestId);   // LRU touch
+            HITS.incrementAndGet();
+            return best.answer;
+        }
+    }
+
+    public static void put(CallSite site, String scope, String text, String answer) {
+        if (!ENABLED || !site.cacheable() || answer == null || answer.isBlank()) return;
+        Entry e = new Entry();
+        e.site = site.key();
+        e.scope = scope;
+        e.signature = signature(text);
+        e.createdAt = System.currentTimeMillis();
+        e.answer = answer;
+        synchronized (ENTRIES) {
+            add(Long.toHexString(e.createdAt) + "-" + SEQUENCE.incrementAndGet(), e);
+        }
+    }
+
+    // caller holds the ENTRIES lock
+    private static void add(String id, Entry e) {
+        ENTRIES.put(id, e);
+        CallSite site = CallSite.valueOf(e.site.toUpperCase());
+        for (int band = 0; band < BANDS; band++) {
+            BUCKETS.computeIfAbsent(bandKey(site, e.scope, e.signature, band), k -> new HashSet<>()).add(id);
+        }
+        while (ENTRIES.size() > MAX_ENTRIES) remove(ENTRIES.keySet().iterator().next());
+    }
+
+    private static void remove(String id) {
+        Entry e = ENTRIES.remove(id);
+        if (e == null) return;
+        CallSite site = CallSite.valueOf(e.site.toUpperCase());
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(site, e.scope, e.signature, band);
+            Set<String> bucket = BUCKETS.get(key);
+            if (bucket != null && bucket.remove(id) && bucket.isEmpty()) BUCKETS.remove(key);
+        }
+    }
+
+    // ---------- MinHash ----------
+    static String normalize(String text) {
+        String s = text == null ? "" : text.toLowerCase();
+        s = UUID.matcher(s).replaceAll("#uuid");
+        s = DATE.matcher(s).replaceAll("#date");
+        s = TIME.matcher(s).replaceAll("#time");
+        s = HEX.matcher(s).replaceAll("#hex");
+        s = NUMBER.matcher(s).replaceAll("#");
+        return WHITESPACE.matcher(s).replaceAll(" ").trim();
+    }
+
+    static int[] signature(String text) {
+        String s = normalize(text);
+        int[] sig = new int[HASHES];
+        Arrays.fill(sig, Integer.MAX_VALUE);
+        int shingles = Math.max(1, s.length() - SHINGLE + 1);
+        for (int i = 0; i < shingles; i++) {
+            long h = fnv(s, i, Math.min(s.length(), i + SHINGLE));
+            for (int k = 0; k < HASHES; k++) {
+                int v = (int) (mix(h ^ SEEDS[k]) >>> 33);
+                if (v < sig[k]) sig[k] = v;
+            }
+        }
+        return sig;
+    }
+
+    /** Share of equal slots ≈ Jaccard similarity of the shingle sets. */
+    static double similarity(int[] a, int[] b) {
+        int same = 0;
+        for (int i = 0; i < HASHES; i++) if (a[i] == b[i]) same++;
+        return (double) same / HASHES;
+    }
+
+    private static long bandKey(CallSite site, String scope, int[] sig, int band) {
+        long h = mix(fnv(site.key() + "|" + scope, 0, site.key().length() + 1 + scope.length()) + band);
+        for (int r = 0; r < ROWS; r++) h = mix(h ^ sig[band * ROWS + r]);
+        return h;
+    }
+
+    private static long fnv(String s, int from, int to) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+
+    // ---------- Snapshot ----------
+    private static void load() {
+        if (!Files.exists(FILE)) return;
+        try {
+            Map<String, Entry> saved = GSON.fromJson(Files.readString(FILE, StandardCharsets.UTF_8),
+                    new TypeToken<LinkedHashMap<String, Entry>>() { }.getType());
+            if (saved == null) return;
+            synchronized (ENTRIES) {
+                saved.forEach((id, e) -> {
+                    if (e.signature != null && e.signature.length == HASHES) add(id, e);
+                });
+            }
+            System.out.println("🧬 Similar prompt cache: " + ENTRIES.size() + " entries loaded");
+        } catch (IOException | RuntimeException e) {
+            System.err.println("⚠️ Similar prompt cache snapshot unreadable, starting empty: " + e.getMessage());
+        }
+    }
+
+    private static void save() {
+        String json;
+        synchronized (ENTRIES) {
+            json = GSON.toJson(ENTRIES);
+        }
+        try {
+            Files.createDirectories(FILE.toAbsolutePath().getParent());
+            Path tmp = Files.createTempFile(FILE.toAbsolutePath().getParent(), "similar-cache", ".tmp");
+            Files.writeString(tmp, json, StandardCharsets.UTF_8);
+            Files.move(tmp, FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("⚠️ Similar prompt cache snapshot failed: " + e.getMessage());
+        }
+    }
+
+    // ---------- Report ----------
+    public static long hits() {
+        return HITS.get();
+    }
+
+    /** Saves the snapshot and adds the near-duplicate hit rate to the AI report being built (also at run end). */
+    public static synchronized void report() {
+        long hits = HITS.get(), lookups = hits + MISSES.get();
+        long state = lookups + SEQUENCE.get();   // lookups and puts: a put after the last report still needs a save
+        boolean changed = state != lastReported;
+        lastReported = state;
+        if (changed && DISK) save();
+        if (lookups == 0) return;
+
+        String line = String.format("SIMILAR CACHE: %d/%d near-duplicate hits (%.0f%%) | %d entries",
+                hits, lookups, hits * 100.0 / lookups, ENTRIES.size());
+        if (changed) System.out.println("🧬 " + line);
+        AiReporter.addSection("🧬 Similar Prompt Cache",
+                "<p>" + line + " | similarity threshold " + THRESHOLD + "</p>");
+    }
+}
@@ -0,0 +1,36 @@
+package org.allureIQ.API;
+
+import org.allureIQ.AI.AiSummaryReporter;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 🧩 TestNG hook for the AllureIQ run lifecycle
+ * -------------------------------------------------
+ * Registered automatically through META-INF/services/org.testng.ITestNGListener.
+ * The first suite to start schedules the unified AI summary for the end of the run;
+ * when the last running suite finishes, RunLifecycle.runEnded() fires
+ * (nested suites only count once the outermost one is done).
+ * -------------------------------------------------
+ */
+public class AllureIQSuiteListener implements ISuiteListener {
+
+    private static final AtomicInteger ACTIVE_SUITES = new AtomicInteger();
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (ACTIVE_SUITES.incrementAndGet() == 1) {
+            AiSummaryReporter.buildAtRunEnd();
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (ACTIVE_SUITES.decrementAndGet() <= 0) {
+            System.out.println("🏁 Suite '" + suite.getName() + "' finished — running AllureIQ run-end hooks.");
+            RunLifecycle.runEnded();
+        }
+    }
+}
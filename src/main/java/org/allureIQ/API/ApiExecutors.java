@@ -0,0 +1,70 @@
+package org.allureIQ.API;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 🧵 Shared executors for AllureIQ background work
+ * -------------------------------------------------
+ * Features:
+ *  - Virtual threads when the JVM provides them (Java 21+)
+ *  - Daemon platform-thread fallback on older JVMs (the framework targets Java 17)
+ *  - Hard concurrency cap per executor
+ * -------------------------------------------------
+ */
+public final class ApiExecutors {
+
+    private ApiExecutors() {
+    }
+
+    /**
+     * Creates an executor that never runs more than {@code maxConcurrency} tasks at once.
+     * On Java 21+ every task gets its own virtual thread and waits on a semaphore;
+     * on older JVMs a fixed pool of daemon threads gives the same cap.
+     */
+    public static Executor bounded(String name, int maxConcurrency) {
+        int cap = Math.max(1, maxConcurrency);
+        ExecutorService virtual = newVirtualPerTaskExecutor();
+
+        if (virtual == null) {
+            return Executors.newFixedThreadPool(cap, daemonFactory(name));
+        }
+
+        Semaphore permits = new Semaphore(cap);
+        return task -> virtual.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    /** Single daemon thread, used by background flushers and schedulers. */
+    public static Thread daemon(String name, Runnable body) {
+        Thread t = new Thread(body, name);
+        t.setDaemon(true);
+        return t;
+    }
+
+    // ---------- Virtual threads (reflective, so the jar still runs on Java 17) ----------
+    private static ExecutorService newVirtualPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemonFactory(String name) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> daemon(name + "-" + seq.incrementAndGet(), r);
+    }
+}
@@ -0,0 +1,295 @@
+package org.allureIQ.API;
+
+import org.allureIQ.AI.AiAutoContext;
+import org.allureIQ.AI.AiReporter;
+import io.restassured.response.Response;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 🧩 Dependency-graph executor for chained API flows
+ * -------------------------------------------------
+ * Each step is an ApiReuse call that declares:
+ *  - extract(name, jsonPath) : values it produces (RestAssured JsonPath syntax, e.g. "[0]._id")
+ *  - consumes(name...)       : values it needs; {name} placeholders in endpoint / payload are
+ *                              picked up automatically when some step produces that name
+ *  - after(step...)          : ordering-only dependencies (e.g. delete after update)
+ *  - authenticates()         : login step; every other step waits for it (token handling stays in ApiReuse)
+ *
+ * The flow is checked up front (unknown steps, missing producers, cycles) and then runs as a
+ * CompletableFuture graph: independent branches in parallel, so wall-clock time follows the
+ * critical path instead of the sum of all calls. A failed step (exception, status >= 400 or a
+ * missing extracted value) skips everything that depends on it.
+ *
+ * Usage:
+ *   ApiFlow.Result r = new ApiFlow(headers)
+ *       .step("login", new ApiReuse("/auth/login", "POST", creds)).authenticates()
+ *       .step("create", new ApiReuse("/api/jobs", "POST", job)).extract("jobId", "_id")
+ *       .step("read", new ApiReuse("/api/jobs/{jobId}", "GET", null))
+ *       .step("update", new ApiReuse("/api/jobs/{jobId}", "PUT", changes))
+ *       .step("delete", new ApiReuse("/api/jobs/{jobId}", "DELETE", null)).after("read", "update")
+ *       .run();
+ *
+ * Concurrency: -Dallureiq.flow.concurrency (default 8)
+ * -------------------------------------------------
+ */
+public class ApiFlow {
+
+    private static final Executor EXECUTOR =
+            ApiExecutors.bounded("allureiq-flow", Integer.getInteger("allureiq.flow.concurrency", 8));
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([A-Za-z0-9_.\\-]+)}");
+
+    private final Map<String, String> headers;
+    private final Map<String, Step> steps = new LinkedHashMap<>();
+
+    public ApiFlow(Map<String, String> headers) {
+        this.headers = headers == null ? new HashMap<>() : new HashMap<>(headers);
+    }
+
+    // ---------- Building ----------
+    public Step step(String name, ApiReuse api) {
+        if (steps.containsKey(name)) throw new IllegalArgumentException("❌ Duplicate flow step: " + name);
+        Step step = new Step(name, api);
+        steps.put(name, step);
+        return step;
+    }
+
+    public final class Step {
+        private final String name;
+        private final ApiReuse api;
+        private final Map<String, String> extracts = new LinkedHashMap<>();
+        private final Set<String> consumes = new LinkedHashSet<>();
+        private final Set<String> after = new LinkedHashSet<>();
+        private boolean authenticates;
+
+        private Step(String name, ApiReuse api) {
+            this.name = name;
+            this.api = api;
+        }
+
+        public Step extract(String valueName, String jsonPath) {
+            extracts.put(valueName, jsonPath);
+            return this;
+        }
+
+        public Step consumes(String... valueNames) {
+            Collections.addAll(consumes, valueNames);
+            return this;
+        }
+
+        public Step after(String... stepNames) {
+            Collections.addAll(after, stepNames);
+            return this;
+        }
+
+        public Step authenticates() {
+            this.authenticates = true;
+            return this;
+        }
+
+        // fluent chaining back to the flow
+        public Step step(String nextName, ApiReuse nextApi) {
+            return ApiFlow.this.step(nextName, nextApi);
+        }
+
+        public Result run() {
+            return ApiFlow.this.run();
+        }
+    }
+
+    // ---------- Graph ----------
+    // step name → names of the steps it waits for
+    Map<String, Set<String>> dependencies() {
+        Map<String, String> producers = new HashMap<>();
+        for (Step s : steps.values()) {
+            for (String value : s.extracts.keySet()) {
+                String previous = producers.put(value, s.name);
+                if (previous != null) {
+                    throw new IllegalStateException("❌ Value '" + value + "' is extracted by both '"
+                            + previous + "' and '" + s.name + "'");
+                }
+            }
+        }
+
+        Map<String, Set<String>> deps = new LinkedHashMap<>();
+        for (Step s : steps.values()) {
+            Set<String> d = new LinkedHashSet<>();
+
+            for (String value : s.consumes) {
+                String producer = producers.get(value);
+                if (producer == null) {
+                    throw new IllegalStateException("❌ Step '" + s.name + "' consumes '" + value
+                            + "' but no step extracts it");
+                }
+                d.add(producer);
+            }
+            // {name} placeholders count as consumption only when a step produces that name
+            for (String value : placeholders(s.api)) {
+                String producer = producers.get(value);
+                if (producer != null) d.add(producer);
+            }
+            for (String other : s.after) {
+                if (!steps.containsKey(other)) {
+                    throw new IllegalStateException("❌ Step '" + s.name + "' runs after unknown step '" + other + "'");
+                }
+                d.add(other);
+            }
+            if (!s.authenticates) {
+                for (Step login : steps.values()) if (login.authenticates) d.add(login.name);
+            }
+            d.remove(s.name);
+            deps.put(s.name, d);
+        }
+        checkAcyclic(deps);
+        return deps;
+    }
+
+    private static Set<String> placeholders(ApiReuse api) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String text : new String[]{api.getEndpoint(), api.getPayload()}) {
+            if (text == null) continue;
+            Matcher m = PLACEHOLDER.matcher(text);
+            while (m.find()) names.add(m.group(1));
+        }
+        return names;
+    }
+
+    // 🔁 DFS with an on-stack set; reports the cycle path
+    private static void checkAcyclic(Map<String, Set<String>> deps) {
+        Set<String> done = new LinkedHashSet<>();
+        for (String start : deps.keySet()) visit(start, deps, done, new ArrayList<>());
+    }
+
+    private static void visit(String node, Map<String, Set<String>> deps, Set<String> done, List<String> path) {
+        if (done.contains(node)) return;
+        int at = path.indexOf(node);
+        if (at >= 0) {
+            List<String> cycle = new ArrayList<>(path.subList(at, path.size()));
+            cycle.add(node);
+            throw new IllegalStateException("❌ Flow has a dependency cycle: " + String.join(" → ", cycle));
+        }
+        path.add(node);
+        for (String dep : deps.get(node)) visit(dep, deps, done, path);
+        path.remove(path.size() - 1);
+        done.add(node);
+    }
+
+    // ---------- RUN ----------
+    public Result run() {
+        Map<String, Set<String>> deps = dependencies();
+        Result result = new Result();
+        Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+
+        long start = System.nanoTime();
+        for (String name : deps.keySet()) schedule(name, deps, futures, result);
+
+        try {
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException ignored) {
+            // failures are recorded per step
+        }
+        result.wallNanos = System.nanoTime() - start;
+
+        String line = String.format("FLOW: %d steps (%d failed, %d skipped) | wall %.0f ms | serial sum %.0f ms",
+                steps.size(), result.failures.size(), result.skipped.size(),
+                result.wallNanos / 1e6, result.serialNanos() / 1e6);
+        System.out.println("🧩 " + line);
+        AiReporter.addRecord(line);
+        return result;
+    }
+
+    private CompletableFuture<Void> schedule(String name, Map<String, Set<String>> deps,
+                                             Map<String, CompletableFuture<Void>> futures, Result result) {
+        CompletableFuture<Void> existing = futures.get(name);
+        if (existing != null) return existing;
+
+        List<CompletableFuture<Void>> upstream = new ArrayList<>();
+        for (String dep : deps.get(name)) upstream.add(schedule(dep, deps, futures, result));
+
+        Step step = steps.get(name);
+        CompletableFuture<Void> future = CompletableFuture.allOf(upstream.toArray(new CompletableFuture<?>[0]))
+                .handle((ok, upstreamFailure) -> upstreamFailure)
+                .thenComposeAsync(upstreamFailure -> {
+                    if (upstreamFailure != null) {
+                        result.skipped.add(name);
+                        return CompletableFuture.failedFuture(new IllegalStateException("skipped: " + name));
+                    }
+                    try {
+                        runStep(step, result);
+                        return CompletableFuture.completedFuture(null);
+                    } catch (Throwable e) {
+                        result.failures.put(name, e);
+                        return CompletableFuture.failedFuture(e);
+                    }
+                }, EXECUTOR);
+        futures.put(name, future);
+        return future;
+    }
+
+    private void runStep(Step step, Result result) {
+        Map<String, String> values = result.values;
+        ApiReuse resolved = new ApiReuse(
+                AiAutoContext.fillPlaceholders(step.api.getEndpoint(), values, true),
+                step.api.getMethod(),
+                AiAutoContext.fillPlaceholders(step.api.getPayload(), values, false));
+
+        long t0 = System.nanoTime();
+        Response res = ApiReuse.execute(resolved, new HashMap<>(headers));
+        result.stepNanos.put(step.name, System.nanoTime() - t0);
+        result.responses.put(step.name, res);
+
+        if (res.getStatusCode() >= 400) {
+            throw new IllegalStateException("Step '" + step.name + "' returned " + res.getStatusCode());
+        }
+        for (Map.Entry<String, String> e : step.extracts.entrySet()) {
+            String value = res.jsonPath().getString(e.getValue());
+            if (value == null) {
+                throw new IllegalStateException("Step '" + step.name + "' has no value at '" + e.getValue() + "'");
+            }
+            values.put(e.getKey(), value);
+        }
+    }
+
+    // ---------- RESULT ----------
+    public static final class Result {
+        private final Map<String, Response> responses = new ConcurrentHashMap<>();
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+        private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+        private final Set<String> skipped = ConcurrentHashMap.newKeySet();
+        private final Map<String, Long> stepNanos = new ConcurrentHashMap<>();
+        private long wallNanos;
+
+        public Response response(String step)          { return responses.get(step); }
+        public String value(String name)               { return values.get(name); }
+        public Map<String, Throwable> failures()       { return new HashMap<>(failures); }
+        public Set<String> skipped()                   { return new LinkedHashSet<>(skipped); }
+        public boolean succeeded()                     { return failures.isEmpty() && skipped.isEmpty(); }
+        public double wallMillis()                     { return wallNanos / 1e6; }
+
+        long serialNanos() {
+            return stepNanos.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        /** For tests: throws with every failed / skipped step. */
+        public void assertSucceeded() {
+            if (succeeded()) return;
+            StringBuilder sb = new StringBuilder("❌ API flow failed:");
+            failures.forEach((step, e) -> sb.append("\n  - ").append(step).append(": ").append(e.getMessage()));
+            skipped.forEach(step -> sb.append("\n  - ").append(step).append(": skipped (dependency failed)"));
+            throw new AssertionError(sb.toString());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.allureIQ.API;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 📨 Lightweight transport-neutral response
+ * -------------------------------------------------
+ * Features:
+ *  - Status, headers and body without RestAssured's per-response setup
+ *  - Body is either in memory or a one-shot stream (bounded capture, large downloads)
+ *  - toRestAssured() adapts it for existing tests and assertions;
+ *    responses from RestAssuredTransport hand back the original Response,
+ *    a streamed body is passed on as a stream and only read when the test reads it
+ * -------------------------------------------------
+ */
+public final class ApiResponse {
+
+    private final int status;
+    private final String statusLine;
+    private final Map<String, List<String>> headers;
+    private final Response original;
+    private byte[] body;
+    private InputStream stream;
+    private boolean bodyReplaced;
+    private Response adapted;
+
+    private ApiResponse(int status, String statusLine, Map<String, List<String>> headers,
+                        byte[] body, InputStream stream, Response original) {
+        this.status = status;
+        this.statusLine = statusLine;
+        this.headers = headers;
+        this.body = body;
+        this.stream = stream;
+        this.original = original;
+    }
+
+    // ---------- Factories ----------
+    public static ApiResponse of(int status, String statusLine, Map<String, List<String>> headers, byte[] body) {
+        return new ApiResponse(status, statusLine, caseInsensitive(headers), body == null ? new byte[0] : body, null, null);
+    }
+
+    public static ApiResponse streaming(int status, String statusLine, Map<String, List<String>> headers,
+                                        InputStream body) {
+        return new ApiResponse(status, statusLine, caseInsensitive(headers), null, body, null);
+    }
+
+    static ApiResponse wrap(Response res) {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Header h : res.getHeaders()) headers.computeIfAbsent(h.getName(), k -> new ArrayList<>()).add(h.getValue());
+        return new ApiResponse(res.getStatusCode(), res.getStatusLine(), headers, null, null, res);
+    }
+
+    // ---------- Accessors ----------
+    public int status() {
+        return status;
+    }
+
+    public String statusLine() {
+        return statusLine;
+    }
+
+    public Map<String, List<String>> headers() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    public String header(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    public String contentType() {
+        return header("Content-Type");
+    }
+
+    // ---------- Body ----------
+    public synchronized byte[] asByteArray() {
+        if (body == null) {
+            if (stream != null) {
+                try (InputStream in = stream) {
+                    body = in.readAllBytes();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("❌ Failed to read response body", e);
+                }
+                stream = null;
+            } else {
+                body = original != null ? original.asByteArray() : new byte[0];
+            }
+        }
+        return body;
+    }
+
+    public String asString() {
+        return new String(asByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /** One-shot body stream; does not buffer a streaming body. */
+    public synchronized InputStream asInputStream() {
+        if (body != null) return new ByteArrayInputStream(body);
+        if (stream != null) {
+            InputStream in = stream;
+            stream = null;
+            return in;
+        }
+        return original != null ? original.asInputStream() : new ByteArrayInputStream(new byte[0]);
+    }
+
+    /** Same response with a replacement body (e.g. the spooled body after bounded capture). */
+    public synchronized ApiResponse withBody(InputStream newBody) {
+        ApiResponse copy = new ApiResponse(status, statusLine, headers, null, newBody, original);
+        copy.bodyReplaced = true;
+        return copy;
+    }
+
+    // ---------- RestAssured adapter ----------
+    public synchronized Response toRestAssured() {
+        if (original != null && !bodyReplaced) return original;
+        if (adapted != null) return adapted;
+
+        ResponseBuilder builder = original != null
+                ? new ResponseBuilder().clone(original)
+                : new ResponseBuilder()
+                        .setStatusCode(status)
+                        .setStatusLine(statusLine == null ? "HTTP/1.1 " + status : statusLine)
+                        .setHeaders(toHeaders());
+        if (original == null && contentType() != null) builder.setContentType(contentType());
+
+        // 🌊 A streamed body stays a stream: RestAssured reads it (and closes it, releasing the
+        //    connection / spool file) on the first body access, not here
+        if (body != null) {
+            builder.setBody(body);
+        } else {
+            builder.setBody(asInputStream());
+        }
+        adapted = builder.build();
+        return adapted;
+    }
+
+    private Headers toHeaders() {
+        List<Header> list = new ArrayList<>();
+        headers.forEach((name, values) -> values.forEach(v -> list.add(new Header(name, v))));
+        return new Headers(list);
+    }
+
+    private static Map<String, List<String>> caseInsensitive(Map<String, List<String>> headers) {
+        Map<String, List<String>> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (headers != null) map.putAll(headers);
+        return map;
+    }
+}
@@ -2,14 +2,25 @@ package org.allureIQ.API;
 
 import org.allureIQ.AI.AiAutoContext;
 import org.allureIQ.AI.AiReporter;
-import org.allureIQ.AI.GeminiAI;
+import org.allureIQ.AI.FailureHintPipeline;
 import org.allureIQ.models.AiMongoLogger;
 import io.restassured.RestAssured;
-import io.restassured.http.Method;
 import io.restassured.response.Response;
-import io.restassured.specification.RequestSpecification;
 
+import org.bson.Document;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * 🤖 AI + MongoDB Enhanced API Executor
@@ -18,13 +29,34 @@ import java.util.Map;
  *  - Smart HTTP method inference
  *  - AI-generated payloads (only when needed)
  *  - Auto token injection from Mongo context
- *  - Failure hinting via GeminiAI
+ *  - Failure hinting via GeminiAI (background, de-duplicated)
  *  - MongoDB logging for each execution
+ *  - Async / batch execution on a bounded executor
+ *  - Bounded body capture (head + SHA-256 + size) for large downloads, streamed to disk via okhttp
+ *  - Per-phase timing (pre / connect / TTFB / body / post) on every execution
+ *  - Pluggable HTTP transport (RestAssured default, pooled OkHttp)
+ *  - Record / replay of API traffic (-Dallureiq.replay.mode)
+ *  - Response fingerprint (JSON shape hash + value hash) stored with every status
  * -------------------------------------------------
  */
 @SuppressWarnings("JavadocReference")
 public class ApiReuse {
 
+    // 📦 Response capture: "full" (default) or "bounded" (-Dallureiq.capture.mode=bounded)
+    //    Bounded mode keeps memory per call constant only with a streaming transport, so it switches the
+    //    default transport to okhttp; RestAssured buffers every response before it is returned
+    private static final boolean BOUNDED_CAPTURE =
+            "bounded".equalsIgnoreCase(System.getProperty("allureiq.capture.mode", "full"));
+    private static final int CAPTURE_HEAD_BYTES = Integer.getInteger("allureiq.capture.headKb", 64) * 1024;
+
+    // 🧵 Async pool, capped by -Dallureiq.async.concurrency (default 16)
+    private static final Executor ASYNC_EXECUTOR =
+            ApiExecutors.bounded("allureiq-api", Integer.getInteger("allureiq.async.concurrency", 16));
+
+    // 🔌 HTTP transport: -Dallureiq.http.transport=restassured (default) | okhttp (default in bounded mode)
+    private static volatile HttpTransport transport = defaultTransport();
+    private static volatile String baseUri;
+
     private final String endpoint;
     private final String method;
     private final String payload;
@@ -43,10 +75,52 @@ public class ApiReuse {
     public static void uri(String baseUri) {
         RestAssured.useRelaxedHTTPSValidation();
         RestAssured.baseURI = baseUri;
+        ApiReuse.baseUri = baseUri;
+    }
+
+    public static String getBaseUri() {
+        return baseUri;
+    }
+
+    // ---------- TRANSPORT ----------
+    public static void useTransport(HttpTransport httpTransport) {
+        transport = httpTransport == null ? defaultTransport() : ReplayJournal.wrap(httpTransport);
+        System.out.println("🔌 HTTP transport: " + transport.name());
+    }
+
+    public static HttpTransport getTransport() {
+        return transport;
+    }
+
+    private static HttpTransport defaultTransport() {
+        String name = System.getProperty("allureiq.http.transport", BOUNDED_CAPTURE ? "okhttp" : "restassured");
+        if (BOUNDED_CAPTURE && !"okhttp".equalsIgnoreCase(name)) {
+            System.out.println("⚠️ Bounded capture with the " + name + " transport: only logs are bounded, "
+                    + "response bodies are still buffered in memory");
+        }
+        // 📼 -Dallureiq.replay.mode=record|replay wraps the network transport
+        return ReplayJournal.wrap("okhttp".equalsIgnoreCase(name) ? new OkHttpTransport() : new RestAssuredTransport());
+    }
+
+    // ---------- AUTO LOGIN ----------
+    // Re-runs this login call whenever the stored token is missing or expiring
+    public static void autoLogin(ApiReuse loginCall, Map<String, String> headers) {
+        Map<String, String> loginHeaders = new HashMap<>(headers);
+        AiAutoContext.setLoginHandler(() -> {
+            ApiResponse res = call(loginCall, new HashMap<>(loginHeaders));
+            // call() already stored the token of a "/login" response; other login paths hand it back here
+            return isLoginPath(loginCall.getEndpoint()) ? null : extractToken(res.asString());
+        });
     }
 
     // ---------- MAIN EXECUTION ----------
     public static Response execute(ApiReuse api, Map<String, String> headers) {
+        return call(api, headers).toRestAssured();
+    }
+
+    // 🔹 Same as execute(), but returns the lightweight transport response
+    public static ApiResponse call(ApiReuse api, Map<String, String> headers) {
+        PhaseTimer timer = new PhaseTimer();
 
         // 🚨 Validate project name before running any test
         String projectName = System.getProperty("projectName");
@@ -62,6 +136,99 @@ public class ApiReuse {
                 """);
         }
 
+        PreparedCall call = prepare(api, headers);
+        timer.prepared();
+        ApiResponse res;
+        try {
+            res = send(call);
+        } finally {
+            timer.received();
+        }
+        String method = call.method;
+        String finalEndpoint = call.endpoint;
+        String finalPayload = call.payload;
+
+        int status = res.status();
+
+        // 📦 Capture body: head for logs + hash/size; bounded mode streams the rest
+        // 🧬 Fingerprint (shape + value hash) always covers the complete body
+        BodyCapture capture;
+        JsonShape.Fingerprint fingerprint;
+        if (BOUNDED_CAPTURE) {
+            try (InputStream stream = res.asInputStream()) {
+                capture = BodyCapture.stream(stream, CAPTURE_HEAD_BYTES);
+                try (Reader full = new InputStreamReader(capture.peekBody(), StandardCharsets.UTF_8)) {
+                    fingerprint = JsonShape.fingerprint(full);
+                }
+                res = res.withBody(capture.openBody());
+            } catch (IOException e) {
+                throw new RuntimeException("❌ Failed to read response body for " + finalEndpoint, e);
+            }
+        } else {
+            byte[] bytes = res.asByteArray();
+            capture = BodyCapture.of(bytes, CAPTURE_HEAD_BYTES);
+            fingerprint = JsonShape.fingerprint(new String(bytes, StandardCharsets.UTF_8));
+        }
+
+        String rawBody = capture.head();
+        String body = sanitize(rawBody);
+        if (capture.isTruncated() && !body.endsWith(StreamingSanitizer.TRUNCATED)) {
+            body += StreamingSanitizer.TRUNCATED;
+        }
+
+        timer.captured();
+
+        // 🔑 Auto-save token after login response
+        String extracted = isLoginPath(finalEndpoint) ? extractToken(rawBody) : null;
+        if (extracted != null) {
+            AiAutoContext.setToken(extracted);   // store token for next requests
+            System.out.println("🔑 Token captured and stored.");
+        }
+
+        // ---------- Logging ----------
+        AiReporter.recordExecution(method, finalEndpoint, status, status >= 400 ? body : null);
+        String callId = AiMongoLogger.newCallId();
+        Document details = new Document("shapeHash", fingerprint.shapeHash())
+                .append("valueHash", fingerprint.valueHash())
+                .append("shapePaths", fingerprint.shapePaths())
+                .append("bodySize", capture.size())
+                .append("bodySha256", capture.sha256Hex())
+                .append("callId", callId);
+        if (status >= 400) details.append("hintId", FailureHintPipeline.hintId(method, finalEndpoint, status, body));
+        AiMongoLogger.logExecution(method, finalEndpoint, finalPayload, body, status, details);
+
+        // ⚠️ Ask Gemini for a hint on failure — off-thread, batched, once per failure signature
+        // (after logging, so the hint update is queued behind this execution)
+        if (status >= 400) {
+            FailureHintPipeline.submit(method, finalEndpoint, sanitize(finalPayload), status, body);
+        }
+
+        // ⏱️ "post" covers logging and the hint hand-off; the timing follows the execution through the queue
+        timer.end();
+        AiReporter.recordTiming(method + " " + AiAutoContext.normalizeEndpoint(finalEndpoint), timer);
+        AiMongoLogger.attachToExecution(callId, "timing", timer.toDocument());
+
+        return res;
+    }
+
+    // ---------- PREPARE & SEND ----------
+    // 🔹 Resolved request: method, endpoint, payload and headers are fixed before sending
+    static final class PreparedCall {
+        final String method;
+        final String endpoint;
+        final String payload;
+        final Map<String, String> headers;
+
+        private PreparedCall(String method, String endpoint, String payload, Map<String, String> headers) {
+            this.method = method;
+            this.endpoint = endpoint;
+            this.payload = payload;
+            this.headers = headers;
+        }
+    }
+
+    // 🧠 Method inference, endpoint inference, token injection and payload generation (AI only when needed)
+    static PreparedCall prepare(ApiReuse api, Map<String, String> headers) {
         // 🧠 Smart HTTP method selection
         String method = (api.getMethod() == null || api.getMethod().isEmpty())
                 ? inferHttpMethod(api.getEndpoint())
@@ -82,63 +249,46 @@ public class ApiReuse {
             if (method.equalsIgnoreCase("GET") || method.equalsIgnoreCase("DELETE")) {
                 finalPayload = null;
             } else {
-                finalPayload = AiAutoContext.smartPayload(method, finalEndpoint);
+                // 📼 Replay reuses the recorded payload instead of asking the AI again
+                String recorded = transport instanceof ReplayJournal
+                        ? ((ReplayJournal) transport).recordedPayload(method, finalEndpoint) : null;
+                finalPayload = recorded != null ? recorded : AiAutoContext.smartPayload(method, finalEndpoint);
             }
         } else {
             finalPayload = api.getPayload();
         }
 
-        // ---------- Build & Send ----------
-        RequestSpecification req = RestAssured.given().headers(headers);
+        return new PreparedCall(method, finalEndpoint, finalPayload, headers);
+    }
 
+    // ---------- Build & Send ----------
+    static ApiResponse send(PreparedCall call) {
         // ✅ Only send body for non-GET/DELETE
-        if (finalPayload != null && !finalPayload.isEmpty()
-                && !method.equalsIgnoreCase("GET") && !method.equalsIgnoreCase("DELETE")) {
-            req.body(finalPayload);
-        }
-
-        Response res;
-        try {
-            res = req.request(Method.valueOf(method), finalEndpoint)
-                    .then()
-                    .extract()
-                    .response();
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException("❌ Invalid HTTP method '" + method +
-                    "' for endpoint " + finalEndpoint, e);
-        }
-
-        int status = res.getStatusCode();
-        String body = sanitize(res.asString());
+        String body = call.payload != null && !call.payload.isEmpty()
+                && !call.method.equalsIgnoreCase("GET") && !call.method.equalsIgnoreCase("DELETE")
+                ? call.payload : null;
+        return transport.send(call.method, call.endpoint, call.headers, body);
+    }
 
-        // ---------- Logging ----------
-        AiReporter.addRecord(method + " " + finalEndpoint + " → " + status);
-        AiMongoLogger.logExecution(method, finalEndpoint, finalPayload, body, status);
+    // ---------- ASYNC EXECUTION ----------
+    public static CompletableFuture<Response> executeAsync(ApiReuse api, Map<String, String> headers) {
+        // execute() adds the Authorization header, so every call gets its own copy
+        Map<String, String> callHeaders = new HashMap<>(headers);
+        return CompletableFuture.supplyAsync(() -> execute(api, callHeaders), ASYNC_EXECUTOR);
+    }
 
-        // 🔑 Auto-save token after login response
-        if (finalEndpoint.contains("/login") && body.contains("token")) {
-            String extracted = body.replaceAll(".*\"token\"\\s*:\\s*\"([^\"]+)\".*", "$1");
-            AiAutoContext.setToken(extracted);   // store token for next requests
-            System.out.println("🔑 Token captured and stored in MongoDB.");
-        }
+    public static CompletableFuture<List<Response>> executeAll(List<ApiReuse> apis) {
+        return executeAll(apis, new HashMap<>());
+    }
 
-        // ⚠️ Ask Gemini for hint on failure
-        if (status >= 400) {
-            String prompt = """
-                Provide a one-line cause and fix for this failed API request:
-                Method: %s
-                Endpoint: %s
-                Request: %s
-                Status: %d
-                Response: %s
-                """.formatted(method, finalEndpoint, sanitize(finalPayload), status, body);
-
-            String hint = GeminiAI.generate(prompt);
-            AiReporter.addRecord("AI_HINT: " + hint);
-            AiMongoLogger.logAIHint(method, finalEndpoint, hint);
-        }
+    // ✅ Responses come back in the same order as the descriptors
+    public static CompletableFuture<List<Response>> executeAll(List<ApiReuse> apis, Map<String, String> headers) {
+        List<CompletableFuture<Response>> calls = apis.stream()
+                .map(api -> executeAsync(api, headers))
+                .toList();
 
-        return res;
+        return CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> calls.stream().map(CompletableFuture::join).toList());
     }
 
     // ---------- Infer HTTP method ----------
@@ -151,13 +301,23 @@ public class ApiReuse {
         return "GET";
     }
 
+    private static boolean isLoginPath(String endpoint) {
+        return endpoint != null && endpoint.contains("/login");
+    }
+
+    // 🔑 "token" field of a login response, or null
+    private static final Pattern TOKEN_FIELD = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private static String extractToken(String body) {
+        if (body == null) return null;
+        Matcher m = TOKEN_FIELD.matcher(body);
+        return m.find() ? m.group(1) : null;
+    }
+
     // ---------- Sanitize output ----------
+    private static final StreamingSanitizer SANITIZER = StreamingSanitizer.forApiLogs();
+
     private static String sanitize(String input) {
-        if (input == null) return "";
-        String out = input.replaceAll("\\r?\\n", " ");
-        out = out.replaceAll("(?i)(\"?token\"?\\s*:\\s*\")[^\"]+\"", "\"token\":\"***\"");
-        out = out.replaceAll("(?i)(\"?password\"?\\s*:\\s*\")[^\"]+\"", "\"password\":\"***\"");
-        if (out.length() > 2000) out = out.substring(0, 2000) + "...(truncated)";
-        return out;
+        return SANITIZER.sanitize(input);
     }
 }
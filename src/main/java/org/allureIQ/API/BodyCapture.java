@@ -0,0 +1,212 @@
+package org.allureIQ.API;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * 📦 Bounded response body capture
+ * -------------------------------------------------
+ * Features:
+ *  - Keeps only the first N bytes in memory for logging and AI prompts
+ *  - SHA-256 and total size computed while the body streams through
+ *  - Bodies larger than the head are spooled to a temp file, so tests can
+ *    still read the full body without it ever being held for logging
+ *  - A spool file is deleted when its body stream is closed, or once the stream is garbage
+ *    collected unread; one shutdown sweep of the spool directory removes whatever is left
+ * -------------------------------------------------
+ */
+public final class BodyCapture {
+
+    private static final int CHUNK = 8192;
+
+    // 🧹 Deletes spool files whose body stream was dropped without being read
+    private static final Cleaner SPOOL_CLEANER = Cleaner.create();
+
+    private final byte[] head;
+    private final long size;
+    private final String sha256;
+    private final File spool;
+
+    private BodyCapture(byte[] head, long size, String sha256, File spool) {
+        this.head = head;
+        this.size = size;
+        this.sha256 = sha256;
+        this.spool = spool;
+    }
+
+    // ---------- Body already in memory ----------
+    public static BodyCapture of(byte[] body, int headBytes) {
+        byte[] bytes = body == null ? new byte[0] : body;
+        MessageDigest digest = sha256();
+        digest.update(bytes);
+        byte[] head = bytes.length <= headBytes ? bytes : Arrays.copyOf(bytes, headBytes);
+        return new BodyCapture(head, bytes.length, hex(digest.digest()), null);
+    }
+
+    // ---------- Streaming: constant memory per call ----------
+    public static BodyCapture stream(InputStream in, int headBytes) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] head = new byte[Math.max(0, headBytes)];
+        int headLength = 0;
+        long total = 0;
+        File spool = null;
+        OutputStream spoolOut = null;
+        boolean complete = false;
+
+        byte[] chunk = new byte[CHUNK];
+        try {
+            int n;
+            while ((n = in.read(chunk)) != -1) {
+                digest.update(chunk, 0, n);
+                total += n;
+
+                int toHead = Math.min(n, head.length - headLength);
+                if (toHead > 0) {
+                    System.arraycopy(chunk, 0, head, headLength, toHead);
+                    headLength += toHead;
+                }
+
+                if (total > head.length) {
+                    if (spoolOut == null) {
+                        spool = File.createTempFile("allureiq-body-", ".bin", SpoolDir.DIR);
+                        spoolOut = new FileOutputStream(spool);
+                        spoolOut.write(head, 0, headLength);   // head already holds the start of the body
+                    }
+                    if (toHead < n) spoolOut.write(chunk, toHead, n - toHead);
+                }
+            }
+            complete = true;
+        } finally {
+            if (spoolOut != null) spoolOut.close();
+            if (!complete && spool != null) spool.delete();
+        }
+
+        return new BodyCapture(Arrays.copyOf(head, headLength), total, hex(digest.digest()), spool);
+    }
+
+    // ---------- Accessors ----------
+    /** First bytes of the body as UTF-8; a multi-byte char cut at the edge is dropped. */
+    public String head() {
+        try {
+            CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            String text = decoder.decode(ByteBuffer.wrap(head)).toString();
+            return isTruncated() && text.endsWith("\uFFFD") ? text.substring(0, text.length() - 1) : text;
+        } catch (IOException e) {
+            return new String(head, StandardCharsets.UTF_8);
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public String sha256Hex() {
+        return sha256;
+    }
+
+    public boolean isTruncated() {
+        return size > head.length;
+    }
+
+    /** The complete body. Spooled bodies are read from disk; the file is removed on close or when the stream is dropped. */
+    public InputStream openBody() throws IOException {
+        return spool == null ? new ByteArrayInputStream(head) : new SpoolStream(spool);
+    }
+
+    // 🔹 The complete body, keeping the spool file for a later openBody()
+    InputStream peekBody() throws IOException {
+        return spool == null ? new ByteArrayInputStream(head) : new FileInputStream(spool);
+    }
+
+    // 🗑️ Spool file stream; closing it, or dropping it unread, deletes the file
+    private static final class SpoolStream extends FilterInputStream {
+        private final Cleaner.Cleanable cleanup;
+
+        private SpoolStream(File file) throws IOException {
+            this(new FileInputStream(file), file);
+        }
+
+        private SpoolStream(FileInputStream in, File file) {
+            super(in);
+            this.cleanup = SPOOL_CLEANER.register(this, new Delete(in, file));
+        }
+
+        @Override
+        public void close() {
+            cleanup.clean();
+        }
+    }
+
+    // must not reference the SpoolStream, or it never becomes unreachable
+    private static final class Delete implements Runnable {
+        private final FileInputStream in;
+        private final File file;
+
+        private Delete(FileInputStream in, File file) {
+            this.in = in;
+            this.file = file;
+        }
+
+        @Override
+        public void run() {
+            try {
+                in.close();
+            } catch (IOException e) {
+                System.err.println("⚠️ Failed to close spool file " + file + ": " + e.getMessage());
+            }
+            file.delete();
+        }
+    }
+
+    // 🧹 One directory for all spool files, swept once at shutdown (no per-file deleteOnExit entries)
+    private static final class SpoolDir {
+        private static final File DIR = create();
+
+        private static File create() {
+            try {
+                File dir = Files.createTempDirectory("allureiq-spool-").toFile();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    File[] left = dir.listFiles();
+                    if (left != null) for (File f : left) f.delete();
+                    dir.delete();
+                }, "allureiq-spool-sweep"));
+                return dir;
+            } catch (IOException e) {
+                throw new UncheckedIOException("❌ Cannot create body spool directory", e);
+            }
+        }
+    }
+
+    // ---------- Helpers ----------
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return sb.toString();
+    }
+}
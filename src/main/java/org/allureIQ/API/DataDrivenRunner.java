@@ -0,0 +1,169 @@
+package org.allureIQ.API;
+
+import org.allureIQ.AI.AiAutoContext;
+import org.allureIQ.AI.AiReporter;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * 📊 Data-driven parallel execution from CSV / XLSX
+ * -------------------------------------------------
+ * Features:
+ *  - Streams rows from the dataset (DatasetReader: CSV parser / POI SAX), never loads the file
+ *  - {column} placeholders in the endpoint (URL-encoded) and payload (JSON-escaped) come from the row;
+ *    placeholders without a column still use AiAutoContext.inferEndpoint
+ *  - Rows run concurrently on N workers behind a small bounded queue (reader waits when workers are busy)
+ *  - Every row goes through ApiReuse.execute (token, logging, hints)
+ *  - Optional per-row callback for assertions; failures are counted, not thrown
+ *
+ * Usage:
+ *   DataDrivenRunner.Result r = new DataDrivenRunner(Path.of("data/orders.xlsx"))
+ *           .workers(16)
+ *           .onResult((row, res) -> assertEquals(res.getStatusCode(), Integer.parseInt(row.get("expected"))))
+ *           .run(new ApiReuse("/users/{userId}/orders", "POST", "{\"item\":\"{item}\"}"), headers);
+ *
+ * Default workers: -Dallureiq.data.workers (default 8)
+ * -------------------------------------------------
+ */
+public class DataDrivenRunner {
+
+    private static final Map<String, String> END_OF_DATA = Collections.emptyMap();
+    private static final int MAX_RECORDED_FAILURES = 100;
+
+    private final Path dataset;
+    private String sheet;
+    private int workers = Integer.getInteger("allureiq.data.workers", 8);
+    private BiConsumer<Map<String, String>, Response> onResult;
+
+    public DataDrivenRunner(Path dataset) {
+        this.dataset = dataset;
+    }
+
+    // ---------- Options ----------
+    /** XLSX sheet name; first sheet when not set. */
+    public DataDrivenRunner sheet(String sheetName) {
+        this.sheet = sheetName;
+        return this;
+    }
+
+    public DataDrivenRunner workers(int count) {
+        this.workers = Math.max(1, count);
+        return this;
+    }
+
+    /** Called on the worker thread for every row; an exception marks the row as failed. */
+    public DataDrivenRunner onResult(BiConsumer<Map<String, String>, Response> callback) {
+        this.onResult = callback;
+        return this;
+    }
+
+    // ---------- RUN ----------
+    public Result run(ApiReuse template, Map<String, String> headers) {
+        Map<String, String> baseHeaders = headers == null ? new HashMap<>() : new HashMap<>(headers);
+        BlockingQueue<Map<String, String>> queue = new ArrayBlockingQueue<>(workers * 4);
+        CountDownLatch finished = new CountDownLatch(workers);
+        Result result = new Result();
+
+        System.out.println("📊 Data-driven run: " + dataset.getFileName() + " with " + workers + " workers");
+        long start = System.nanoTime();
+
+        for (int i = 0; i < workers; i++) {
+            ApiExecutors.daemon("allureiq-data-" + (i + 1), () -> {
+                try {
+                    for (Map<String, String> row = queue.take(); row != END_OF_DATA; row = queue.take()) {
+                        runRow(template, row, baseHeaders, result);
+                    }
+                    queue.put(END_OF_DATA);   // pass the end marker on to the next worker
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    finished.countDown();
+                }
+            }).start();
+        }
+
+        Exception readError = null;
+        try {
+            try {
+                DatasetReader.read(dataset, sheet, row -> {
+                    result.rows.incrementAndGet();
+                    queue.put(row);
+                });
+            } catch (IOException | RuntimeException e) {
+                readError = e;   // rows already queued still run; workers must see the end marker
+            }
+            queue.put(END_OF_DATA);
+            finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("❌ Data-driven run interrupted", e);
+        }
+        if (readError != null) {
+            throw new RuntimeException("❌ Failed to read dataset " + dataset + ": " + readError.getMessage(), readError);
+        }
+
+        result.elapsedNanos = System.nanoTime() - start;
+        String line = String.format("DATA: %s | rows %d | passed %d | failed %d | %.1f rows/s",
+                dataset.getFileName(), result.rows(), result.passed(), result.failed(), result.rowsPerSec());
+        System.out.println("✅ " + line);
+        AiReporter.addRecord(line);
+        return result;
+    }
+
+    private void runRow(ApiReuse template, Map<String, String> row, Map<String, String> baseHeaders, Result result) {
+        ApiReuse api = new ApiReuse(
+                AiAutoContext.fillPlaceholders(template.getEndpoint(), row, true),
+                template.getMethod(),
+                AiAutoContext.fillPlaceholders(template.getPayload(), row, false));
+        try {
+            Response res = ApiReuse.execute(api, new HashMap<>(baseHeaders));
+            if (onResult != null) {
+                onResult.accept(row, res);
+            } else if (res.getStatusCode() >= 400) {
+                throw new AssertionError("status " + res.getStatusCode());
+            }
+            result.passed.incrementAndGet();
+        } catch (Exception | AssertionError e) {
+            result.fail(row, e);
+        }
+    }
+
+    // ---------- RESULT ----------
+    public static final class Result {
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong passed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        private long elapsedNanos;
+
+        public long rows()   { return rows.get(); }
+        public long passed() { return passed.get(); }
+        public long failed() { return failed.get(); }
+
+        /** First failures as "row → reason" (capped at 100). */
+        public List<String> failures() {
+            return new ArrayList<>(failures);
+        }
+
+        public double rowsPerSec() {
+            return elapsedNanos == 0 ? 0 : rows.get() / (elapsedNanos / 1e9);
+        }
+
+        private void fail(Map<String, String> row, Throwable e) {
+            failed.incrementAndGet();
+            if (failures.size() < MAX_RECORDED_FAILURES) failures.add(row + " → " + e.getMessage());
+        }
+    }
+}
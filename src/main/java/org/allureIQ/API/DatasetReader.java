@@ -0,0 +1,211 @@
+package org.allureIQ.API;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 📄 Streaming dataset reader (CSV / XLSX)
+ * -------------------------------------------------
+ * Features:
+ *  - First row is the header; every following row becomes a column → value map
+ *  - CSV: RFC 4180 quoting (quoted commas, "" escapes, line breaks inside quotes)
+ *  - XLSX: POI SAX event API (XSSFReader + XSSFSheetXMLHandler), never a workbook DOM;
+ *    cells are formatted as shown in Excel, blank cells become ""
+ *  - Rows are pushed to a callback one at a time, so memory stays flat for 100k+ rows
+ * -------------------------------------------------
+ */
+public final class DatasetReader {
+
+    /** Receives rows in file order; throwing stops the read. */
+    public interface RowHandler {
+        void row(Map<String, String> row) throws InterruptedException;
+    }
+
+    private DatasetReader() {
+    }
+
+    // ---------- Entry point ----------
+    public static void read(Path file, String sheetName, RowHandler handler) throws IOException, InterruptedException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".xlsx") || name.endsWith(".xlsm")) {
+            readXlsx(file, sheetName, handler);
+        } else if (name.endsWith(".csv") || name.endsWith(".txt")) {
+            try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                readCsv(in, handler);
+            }
+        } else {
+            throw new IllegalArgumentException("❌ Unsupported dataset type: " + file + " (use .csv or .xlsx)");
+        }
+    }
+
+    // ---------- CSV ----------
+    public static void readCsv(Reader source, RowHandler handler) throws IOException, InterruptedException {
+        BufferedReader in = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        List<String> header = null;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+
+        int c;
+        while ((c = in.read()) != -1) {
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    in.mark(1);
+                    int next = in.read();
+                    if (next == '"') {
+                        field.append('"');             // "" inside quotes
+                    } else {
+                        quoted = false;
+                        if (next != -1) in.reset();
+                    }
+                } else {
+                    field.append(ch);
+                }
+                continue;
+            }
+
+            if (ch == '"' && field.length() == 0) {
+                quoted = true;
+                fieldStarted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStarted = true;
+            } else if (ch == '\n' || ch == '\r') {
+                if (ch == '\r') {
+                    in.mark(1);
+                    if (in.read() != '\n') in.reset();
+                }
+                if (fieldStarted || field.length() > 0 || !fields.isEmpty()) {
+                    fields.add(field.toString());
+                    header = emit(header, fields, handler);
+                }
+                fields = new ArrayList<>();
+                field.setLength(0);
+                fieldStarted = false;
+            } else {
+                field.append(ch);
+                fieldStarted = true;
+            }
+        }
+        if (fieldStarted || field.length() > 0 || !fields.isEmpty()) {
+            fields.add(field.toString());
+            emit(header, fields, handler);
+        }
+    }
+
+    // 🔹 First call stores the header; later calls map values onto it
+    private static List<String> emit(List<String> header, List<String> values, RowHandler handler)
+            throws InterruptedException {
+        if (header == null) {
+            List<String> names = new ArrayList<>();
+            for (String v : values) names.add(v.trim());
+            if (!names.isEmpty() && names.get(0).startsWith("\uFEFF")) names.set(0, names.get(0).substring(1));
+            return names;
+        }
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) row.put(header.get(i), i < values.size() ? values.get(i) : "");
+        handler.row(row);
+        return header;
+    }
+
+    // ---------- XLSX (SAX event API) ----------
+    private static void readXlsx(Path file, String sheetName, RowHandler handler) throws IOException, InterruptedException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream sheet = sheets.next()) {
+                    if (sheetName != null && !sheetName.equalsIgnoreCase(sheets.getSheetName())) continue;
+
+                    RowCollector rows = new RowCollector(handler);
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings, rows, new DataFormatter(), false));
+                    try {
+                        parser.parse(new InputSource(sheet));
+                    } catch (StopParsing stop) {
+                        throw stop.interrupted;
+                    }
+                    return;
+                }
+            }
+            throw new IllegalArgumentException("❌ Sheet '" + sheetName + "' not found in " + file);
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("❌ Failed to read " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    // SAX callbacks cannot throw checked exceptions, so interruption travels in a RuntimeException
+    private static final class StopParsing extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private final InterruptedException interrupted;
+
+        private StopParsing(InterruptedException interrupted) {
+            super(null, interrupted, false, false);
+            this.interrupted = interrupted;
+        }
+    }
+
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final RowHandler handler;
+        private List<String> header;
+        private final List<String> values = new ArrayList<>();
+
+        private RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            values.clear();
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int col = cellReference == null ? values.size() : new CellReference(cellReference).getCol();
+            while (values.size() < col) values.add("");   // blank cells are not reported
+            values.add(formattedValue == null ? "" : formattedValue);
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (values.isEmpty()) return;
+            try {
+                header = emit(header, new ArrayList<>(values), handler);
+            } catch (InterruptedException e) {
+                throw new StopParsing(e);
+            }
+        }
+    }
+}
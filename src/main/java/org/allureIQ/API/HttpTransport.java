@@ -0,0 +1,28 @@
+package org.allureIQ.API;
+
+import java.util.Map;
+
+/**
+ * 🔌 HTTP transport SPI used by ApiReuse
+ * -------------------------------------------------
+ * Implementations:
+ *  - RestAssuredTransport : default, keeps RestAssured globals (baseURI, relaxed HTTPS, filters)
+ *  - OkHttpTransport      : pooled keep-alive client with HTTP/2 and per-host limits
+ *
+ * Select with -Dallureiq.http.transport=restassured|okhttp,
+ * or plug in your own with ApiReuse.useTransport(...).
+ *
+ * Implementations must be thread-safe and should report wire events
+ * through PhaseTimer.markSent() / markFirstByte() when they can.
+ * -------------------------------------------------
+ */
+public interface HttpTransport {
+
+    /**
+     * Sends one request. {@code endpoint} may be relative to the base URI set via ApiReuse.uri(...);
+     * {@code body} is null when nothing should be sent.
+     */
+    ApiResponse send(String method, String endpoint, Map<String, String> headers, String body);
+
+    String name();
+}
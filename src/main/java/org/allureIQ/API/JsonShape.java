@@ -0,0 +1,303 @@
+package org.allureIQ.API;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 🧬 JSON shape descriptor
+ * -------------------------------------------------
+ * Reduces a JSON document to its structure (keys and value types), e.g.
+ *   {"id":7,"tags":["a"],"owner":{"name":"x"}}  →  {id:n,owner:{name:s},tags:[s]}
+ *  - Object keys are sorted, so key order never changes the shape
+ *  - Array elements are collapsed to the sorted set of their distinct shapes
+ *  - Parsed with a streaming reader; non-JSON input has the shape "text"
+ *
+ * Fingerprint (one pass, stored next to every execution status):
+ *  - shape hash : hash of the descriptor above
+ *  - value hash : rolling 64-bit hash of every value; object fields are combined order-independently,
+ *                 array elements in order
+ *  - shape paths: the descriptor as "path:type" entries ("$.owner.name:s"), stored with the hashes so a
+ *                 later shape change is explained without the body (at most allureiq.fingerprint.maxPaths,
+ *                 default 200; larger shapes store none)
+ *  Equal shape hash + different value hash = same structure, different data.
+ *  diff() / diffPaths() explain a shape change as added / removed / retyped paths.
+ * -------------------------------------------------
+ */
+public final class JsonShape {
+
+    public static final String TEXT = "text";
+
+    private static final int MAX_PATHS = Integer.getInteger("allureiq.fingerprint.maxPaths", 200);
+
+    private JsonShape() {
+    }
+
+    public static String describe(String json) {
+        if (json == null || json.isBlank()) return TEXT;
+        return describe(new StringReader(json));
+    }
+
+    public static String describe(Reader json) {
+        Node root = parse(json);
+        return root == null ? TEXT : root.shape;
+    }
+
+    // 🔹 Short stable hash of the shape, safe to store next to every execution
+    public static String hash(String json) {
+        return sha256Hex(describe(json)).substring(0, 16);
+    }
+
+    // ---------- Fingerprint ----------
+    public static final class Fingerprint {
+        private final String shapeHash;
+        private final String valueHash;
+        private final List<String> shapePaths;
+
+        private Fingerprint(String shapeHash, String valueHash, List<String> shapePaths) {
+            this.shapeHash = shapeHash;
+            this.valueHash = valueHash;
+            this.shapePaths = shapePaths;
+        }
+
+        public String shapeHash() { return shapeHash; }
+        public String valueHash() { return valueHash; }
+        /** "path:type" entries of the shape; null when not JSON or above allureiq.fingerprint.maxPaths. */
+        public List<String> shapePaths() { return shapePaths; }
+    }
+
+    public static Fingerprint fingerprint(String json) {
+        return fingerprint(new StringReader(json == null ? "" : json));
+    }
+
+    // 🔹 Non-JSON bodies get the "text" shape and a hash of the raw characters. The caller closes the reader.
+    public static Fingerprint fingerprint(Reader json) {
+        long[] raw = {FNV_OFFSET};
+        Map<String, String> paths = new TreeMap<>();
+        Node root = parse(new Reader() {
+            @Override
+            public int read(char[] buf, int off, int len) throws IOException {
+                int n = json.read(buf, off, len);
+                for (int i = off; i < off + n; i++) raw[0] = (raw[0] ^ buf[i]) * FNV_PRIME;
+                return n;
+            }
+
+            @Override
+            public void close() {
+                // the caller owns the source
+            }
+        }, paths);
+        if (root == null) {
+            // the JSON reader stops at the first error; the rest of the text counts too
+            try {
+                char[] buf = new char[8192];
+                for (int n; (n = json.read(buf)) > 0; ) {
+                    for (int i = 0; i < n; i++) raw[0] = (raw[0] ^ buf[i]) * FNV_PRIME;
+                }
+            } catch (IOException ignored) {
+                // hash what was readable
+            }
+            return new Fingerprint(sha256Hex(TEXT).substring(0, 16), String.format("%016x", mix(raw[0])), null);
+        }
+        List<String> shapePaths = null;
+        if (paths.size() <= MAX_PATHS) {
+            shapePaths = new ArrayList<>(paths.size());
+            for (Map.Entry<String, String> e : paths.entrySet()) shapePaths.add(e.getKey() + ":" + e.getValue());
+        }
+        return new Fingerprint(sha256Hex(root.shape).substring(0, 16), String.format("%016x", root.values), shapePaths);
+    }
+
+    // ---------- Structural diff ----------
+    /** "+ path:type", "- path:type", "~ path: old → new"; empty when the shapes match or either side is not JSON. */
+    public static List<String> diff(String before, String after) {
+        return diff(paths(before), paths(after));
+    }
+
+    /** Same as diff(), from stored Fingerprint.shapePaths(); empty when either side is missing. */
+    public static List<String> diffPaths(List<String> before, List<String> after) {
+        return diff(pathMap(before), pathMap(after));
+    }
+
+    private static List<String> diff(Map<String, String> a, Map<String, String> b) {
+        List<String> changes = new ArrayList<>();
+        if (a == null || b == null) return changes;
+
+        a.forEach((path, type) -> {
+            String now = b.get(path);
+            if (now == null) changes.add("- " + path + ":" + type);
+            else if (!now.equals(type)) changes.add("~ " + path + ": " + type + " → " + now);
+        });
+        b.forEach((path, type) -> {
+            if (!a.containsKey(path)) changes.add("+ " + path + ":" + type);
+        });
+        return changes;
+    }
+
+    // path → type ("$.owner.name" → "s", "$.tags[]" → "s"); null when not JSON
+    private static Map<String, String> paths(String json) {
+        if (json == null || json.isBlank()) return null;
+        Map<String, String> out = new TreeMap<>();
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            reader.setLenient(false);
+            collect(reader, "$", out);
+            return reader.peek() == JsonToken.END_DOCUMENT ? out : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // "path:type" entries → map; types never contain ':', so the last one separates them
+    private static Map<String, String> pathMap(List<String> entries) {
+        if (entries == null) return null;
+        Map<String, String> out = new TreeMap<>();
+        for (String entry : entries) {
+            int colon = entry.lastIndexOf(':');
+            if (colon > 0) out.put(entry.substring(0, colon), entry.substring(colon + 1));
+        }
+        return out;
+    }
+
+    private static void collect(JsonReader reader, String path, Map<String, String> out) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                out.merge(path, "{}", JsonShape::union);
+                reader.beginObject();
+                while (reader.hasNext()) collect(reader, path + "." + reader.nextName(), out);
+                reader.endObject();
+                return;
+            case BEGIN_ARRAY:
+                out.merge(path, "[]", JsonShape::union);
+                reader.beginArray();
+                while (reader.hasNext()) collect(reader, path + "[]", out);
+                reader.endArray();
+                return;
+            default:
+                out.merge(path, read(reader, path, null).shape, JsonShape::union);
+        }
+    }
+
+    private static String union(String a, String b) {
+        if (a.equals(b)) return a;
+        TreeSet<String> types = new TreeSet<>(List.of(a.split("\\|")));
+        types.addAll(List.of(b.split("\\|")));
+        return String.join("|", types);
+    }
+
+    static String sha256Hex(String text) {
+        try {
+            return BodyCapture.hex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // ---------- Streaming read: shape + value hash ----------
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final class Node {
+        private final String shape;
+        private final long values;
+
+        private Node(String shape, long values) {
+            this.shape = shape;
+            this.values = values;
+        }
+    }
+
+    private static Node parse(Reader json) {
+        return parse(json, null);
+    }
+
+    // paths: filled with "path → type" like collect() (null = not needed); stops growing past MAX_PATHS
+    private static Node parse(Reader json, Map<String, String> paths) {
+        try (JsonReader reader = new JsonReader(json)) {
+            reader.setLenient(false);
+            Node root = read(reader, "$", paths);
+            return reader.peek() == JsonToken.END_DOCUMENT ? root : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Node read(JsonReader reader, String path, Map<String, String> paths) throws IOException {
+        Node node;
+        switch (reader.peek()) {
+            case BEGIN_OBJECT: {
+                TreeMap<String, String> fields = new TreeMap<>();
+                long values = 0x0b;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    Node child = read(reader, paths == null ? null : path + "." + name, paths);
+                    fields.put(name, child.shape);
+                    values += mix(text(name) * 31 + child.values);   // sum: key order does not matter
+                }
+                reader.endObject();
+                StringBuilder sb = new StringBuilder("{");
+                fields.forEach((k, v) -> sb.append(sb.length() > 1 ? "," : "").append(k).append(':').append(v));
+                node = new Node(sb.append('}').toString(), mix(values));
+                break;
+            }
+            case BEGIN_ARRAY: {
+                TreeSet<String> elements = new TreeSet<>();
+                long values = 0x0a;
+                String elementPath = paths == null ? null : path + "[]";
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    Node child = read(reader, elementPath, paths);
+                    elements.add(child.shape);
+                    values = values * FNV_PRIME + child.values;
+                }
+                reader.endArray();
+                node = new Node("[" + String.join("|", elements) + "]", mix(values));
+                break;
+            }
+            case STRING:
+                node = new Node("s", mix(text(reader.nextString()) ^ 's'));
+                break;
+            case NUMBER:
+                node = new Node("n", mix(text(reader.nextString()) ^ 'n'));
+                break;
+            case BOOLEAN:
+                node = new Node("b", reader.nextBoolean() ? 0x1b : 0x0b);
+                break;
+            case NULL:
+                reader.nextNull();
+                node = new Node("null", 0x00);
+                break;
+            default:
+                throw new IOException("Unexpected token " + reader.peek());
+        }
+        if (paths != null && (paths.size() <= MAX_PATHS || paths.containsKey(path))) {
+            String type = node.shape.startsWith("{") ? "{}" : node.shape.startsWith("[") ? "[]" : node.shape;
+            paths.merge(path, type, JsonShape::union);
+        }
+        return node;
+    }
+
+    // FNV-1a over UTF-16 chars
+    private static long text(String s) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < s.length(); i++) h = (h ^ s.charAt(i)) * FNV_PRIME;
+        return h;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,97 @@
+package org.allureIQ.API;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 📈 Latency histogram (HdrHistogram-style log-linear buckets)
+ * -------------------------------------------------
+ * Features:
+ *  - Records microseconds from 1 µs up to hours with ~1% relative precision
+ *  - Fixed memory (a few thousand counters), no allocation per sample
+ *  - Lock-free recording, safe to share between worker threads
+ *  - Percentiles, mean and max without keeping individual samples
+ * -------------------------------------------------
+ */
+public final class LatencyHistogram {
+
+    // 128 linear sub-buckets per power of two → values are kept to 1/64 (≈1.6%) or better
+    private static final int SUB_BUCKETS = 128;
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final int SUB_BITS = 7;
+    private static final int BUCKETS = SUB_BUCKETS + (64 - SUB_BITS) * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    // ---------- Recording ----------
+    public void recordNanos(long nanos) {
+        recordMicros(Math.max(0, nanos) / 1_000);
+    }
+
+    public void recordMicros(long micros) {
+        long v = Math.max(0, micros);
+        counts.incrementAndGet(indexOf(v));
+        total.incrementAndGet();
+        sum.addAndGet(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) counts.addAndGet(i, c);
+        }
+        total.addAndGet(other.total.get());
+        sum.addAndGet(other.sum.get());
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    // ---------- Reading (values in microseconds) ----------
+    public long count() {
+        return total.get();
+    }
+
+    public long maxMicros() {
+        return max.get();
+    }
+
+    public double meanMicros() {
+        long n = total.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /** Value at the given percentile (0–100), reported as the upper edge of its bucket. */
+    public long percentileMicros(double percentile) {
+        long n = total.get();
+        if (n == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(highestEquivalent(i), max.get());
+        }
+        return max.get();
+    }
+
+    public double percentileMillis(double percentile) {
+        return percentileMicros(percentile) / 1_000.0;
+    }
+
+    // ---------- Bucket math ----------
+    static int indexOf(long v) {
+        if (v < SUB_BUCKETS) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - (SUB_BITS - 1);   // v >> shift lands in [64, 128)
+        return SUB_BUCKETS + (shift - 1) * HALF + (int) ((v >>> shift) - HALF);
+    }
+
+    static long highestEquivalent(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index - SUB_BUCKETS) / HALF + 1;
+        long sub = (index - SUB_BUCKETS) % HALF + HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,239 @@
+package org.allureIQ.API;
+
+import org.allureIQ.AI.AiAutoContext;
+import org.allureIQ.AI.AiReporter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 🚀 Load mode for ApiReuse descriptors
+ * -------------------------------------------------
+ * Replays the same ApiReuse(endpoint, method, payload) objects the tests use as a load test.
+ *  - Open model: requests start on a fixed arrival schedule, whether or not
+ *    earlier requests have finished (slow responses cannot slow the load down)
+ *  - Linear ramp-up from 0 to the target rate, then a steady phase
+ *  - Workers run on virtual threads when available (bounded daemon pool otherwise)
+ *  - Latency is measured from the scheduled start, so queueing delay is included
+ *  - Per-endpoint latency histograms (p50 / p90 / p99 / max), throughput and errors
+ *  - Results are added as a section of the AiReporter HTML report
+ *
+ * Payloads, tokens and endpoints are resolved once per descriptor before the run,
+ * followed by one untimed warm-up call each;
+ * individual load requests are not logged to MongoDB or sent for AI hints.
+ *
+ * Usage:
+ *   LoadRunner.Result r = new LoadRunner(apis, headers)
+ *           .rate(50).rampUp(Duration.ofSeconds(10)).duration(Duration.ofSeconds(60))
+ *           .run();
+ *
+ * Worker cap: -Dallureiq.load.maxConcurrency (default 256)
+ * -------------------------------------------------
+ */
+public class LoadRunner {
+
+    private static final Executor WORKERS =
+            ApiExecutors.bounded("allureiq-load", Integer.getInteger("allureiq.load.maxConcurrency", 256));
+
+    private final List<ApiReuse> apis;
+    private final Map<String, String> headers;
+    private double ratePerSec = 10;
+    private Duration rampUp = Duration.ZERO;
+    private Duration duration = Duration.ofSeconds(30);
+
+    public LoadRunner(List<ApiReuse> apis, Map<String, String> headers) {
+        if (apis == null || apis.isEmpty()) {
+            throw new IllegalArgumentException("❌ LoadRunner needs at least one ApiReuse descriptor.");
+        }
+        this.apis = new ArrayList<>(apis);
+        this.headers = headers == null ? new HashMap<>() : new HashMap<>(headers);
+    }
+
+    // ---------- Profile ----------
+    /** Target arrival rate in requests per second (all descriptors together, round-robin). */
+    public LoadRunner rate(double requestsPerSecond) {
+        if (requestsPerSecond <= 0) throw new IllegalArgumentException("❌ Load rate must be > 0");
+        this.ratePerSec = requestsPerSecond;
+        return this;
+    }
+
+    /** Time to ramp linearly from 0 to the target rate; counts towards the total duration. */
+    public LoadRunner rampUp(Duration rampUp) {
+        this.rampUp = rampUp == null ? Duration.ZERO : rampUp;
+        return this;
+    }
+
+    public LoadRunner duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    // ---------- RUN ----------
+    public Result run() {
+        // 🧠 Resolve every descriptor once (AI payloads and token lookups stay out of the timed loop)
+        List<ApiReuse.PreparedCall> calls = new ArrayList<>();
+        for (ApiReuse api : apis) calls.add(ApiReuse.prepare(api, new HashMap<>(headers)));
+
+        // 📊 One histogram per normalized endpoint; targets[i] is the stats slot of calls[i]
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        EndpointStats[] targets = new EndpointStats[calls.size()];
+        for (int i = 0; i < calls.size(); i++) {
+            ApiReuse.PreparedCall call = calls.get(i);
+            targets[i] = stats.computeIfAbsent(call.method + " " + AiAutoContext.normalizeEndpoint(call.endpoint),
+                    k -> new EndpointStats());
+        }
+
+        // 🔥 One untimed call per descriptor: client warm-up, so it does not show up as queueing delay
+        for (ApiReuse.PreparedCall call : calls) {
+            try {
+                ApiReuse.send(call).asByteArray();   // read fully: a streamed body holds its connection
+            } catch (Exception e) {
+                System.err.println("⚠️ Warm-up call failed for " + call.endpoint + ": " + e.getMessage());
+            }
+        }
+
+        long totalNanos = duration.toNanos();
+        long rampNanos = Math.min(rampUp.toNanos(), totalNanos);
+        System.out.printf("🚀 Load run: %.1f req/s, ramp-up %ds, duration %ds, %d descriptors%n",
+                ratePerSec, rampNanos / 1_000_000_000L, totalNanos / 1_000_000_000L, calls.size());
+
+        AtomicLong inFlight = new AtomicLong();
+        long start = System.nanoTime();
+        long scheduled = 0;
+
+        // ---------- Open-model scheduler ----------
+        for (long i = 0; ; i++) {
+            long offset = arrivalOffsetNanos(i, ratePerSec, rampNanos);
+            if (offset >= totalNanos) break;
+
+            long intended = start + offset;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            int slot = (int) (i % calls.size());
+            ApiReuse.PreparedCall call = calls.get(slot);
+            EndpointStats target = targets[slot];
+            inFlight.incrementAndGet();
+            scheduled++;
+
+            WORKERS.execute(() -> {
+                try {
+                    ApiResponse res = ApiReuse.send(call);
+                    res.asByteArray();   // latency includes the body; frees the connection
+                    target.record(System.nanoTime() - intended, res.status());
+                } catch (Exception e) {
+                    target.record(System.nanoTime() - intended, -1);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+
+        // ⏳ Let in-flight requests finish (at most another run duration, min 10s)
+        long drainDeadline = System.nanoTime() + Math.max(totalNanos, TimeUnit.SECONDS.toNanos(10));
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Result result = new Result(stats, scheduled, inFlight.get(), elapsed);
+        result.report();
+        return result;
+    }
+
+    /**
+     * Start offset of the i-th request. During ramp-up the rate grows linearly,
+     * so arrivals follow N(t) = rate·t² / (2·ramp); afterwards N(t) grows by rate per second.
+     */
+    static long arrivalOffsetNanos(long i, double ratePerSec, long rampNanos) {
+        double ramp = rampNanos / 1e9;
+        double rampArrivals = ratePerSec * ramp / 2;
+        double seconds = i < rampArrivals
+                ? Math.sqrt(2 * ramp * i / ratePerSec)
+                : ramp + (i - rampArrivals) / ratePerSec;
+        return (long) (seconds * 1e9);
+    }
+
+    // ---------- Per-endpoint stats ----------
+    static final class EndpointStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+
+        void record(long nanos, int status) {
+            latency.recordNanos(nanos);
+            if (status < 0 || status >= 400) errors.incrementAndGet();
+        }
+    }
+
+    // ---------- RESULT ----------
+    public static final class Result {
+        private final Map<String, EndpointStats> endpoints;
+        private final LatencyHistogram overall = new LatencyHistogram();
+        private final long scheduled;
+        private final long unfinished;
+        private final long elapsedNanos;
+        private long errors;
+
+        private Result(Map<String, EndpointStats> endpoints, long scheduled, long unfinished, long elapsedNanos) {
+            this.endpoints = endpoints;
+            this.scheduled = scheduled;
+            this.unfinished = unfinished;
+            this.elapsedNanos = elapsedNanos;
+            for (EndpointStats s : endpoints.values()) {
+                overall.add(s.latency);
+                errors += s.errors.get();
+            }
+        }
+
+        public long requests()            { return overall.count(); }
+        public long errors()              { return errors; }
+        public long unfinished()          { return unfinished; }
+        public LatencyHistogram latency() { return overall; }
+
+        public double throughputPerSec() {
+            return elapsedNanos == 0 ? 0 : overall.count() / (elapsedNanos / 1e9);
+        }
+
+        public LatencyHistogram latency(String methodAndEndpoint) {
+            EndpointStats s = endpoints.get(methodAndEndpoint);
+            return s == null ? null : s.latency;
+        }
+
+        // 📊 Console line + AiReporter record + HTML section
+        private void report() {
+            String line = String.format("LOAD: %d requests (%d scheduled, %d unfinished), %.1f req/s, "
+                            + "errors %d, p50 %.1f ms, p99 %.1f ms",
+                    requests(), scheduled, unfinished, throughputPerSec(), errors,
+                    overall.percentileMillis(50), overall.percentileMillis(99));
+            System.out.println("📊 " + line);
+            AiReporter.addRecord(line);
+            AiReporter.addSection("🚀 Load Test — Throughput & Latency", toHtml());
+        }
+
+        String toHtml() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("<p>%d requests in %.1fs · <b>%.1f req/s</b> · %d errors · %d unfinished</p>",
+                    requests(), elapsedNanos / 1e9, throughputPerSec(), errors, unfinished));
+            sb.append("<table><tr><th>Endpoint</th><th>Requests</th><th>Errors</th>"
+                    + "<th>p50 ms</th><th>p90 ms</th><th>p99 ms</th><th>max ms</th></tr>");
+            endpoints.forEach((name, s) -> row(sb, name, s.latency, s.errors.get()));
+            row(sb, "<b>All</b>", overall, errors);
+            return sb.append("</table>").toString();
+        }
+
+        private static void row(StringBuilder sb, String name, LatencyHistogram h, long errors) {
+            sb.append(String.format("<tr><td>%s</td><td>%d</td><td>%d</td>"
+                            + "<td>%.1f</td><td>%.1f</td><td>%.1f</td><td>%.1f</td></tr>",
+                    name, h.count(), errors, h.percentileMillis(50), h.percentileMillis(90),
+                    h.percentileMillis(99), h.maxMicros() / 1_000.0));
+        }
+    }
+}
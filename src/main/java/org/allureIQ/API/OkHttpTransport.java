@@ -0,0 +1,222 @@
+package org.allureIQ.API;
+
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ⚡ Pooled OkHttp transport
+ * -------------------------------------------------
+ * Features:
+ *  - One shared client: explicit keep-alive connection pool, reused across all calls
+ *  - HTTP/2 over TLS (ALPN) with multiplexing; optional h2c prior knowledge for plain http
+ *  - Per-host concurrency limit for synchronous calls; a call holds its permit and connection
+ *    until the response body stream is closed (bodies are streamed, not buffered)
+ *  - EventListener feeds PhaseTimer (request sent / first byte)
+ *  - Relaxed HTTPS by default, like ApiReuse.uri() does for RestAssured
+ *
+ * Tuning (system properties):
+ *  - allureiq.http.maxIdle        (default 32 idle connections)
+ *  - allureiq.http.keepAliveSec   (default 300)
+ *  - allureiq.http.maxPerHost     (default 64 concurrent calls per host)
+ *  - allureiq.http.timeoutSec     (default 60, per call)
+ *  - allureiq.http.h2c            (default false; true = HTTP/2 without TLS, server must support it)
+ *  - allureiq.http.relaxedHttps   (default true)
+ * -------------------------------------------------
+ */
+public final class OkHttpTransport implements HttpTransport {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private final OkHttpClient client;
+    private final int maxPerHost;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    public OkHttpTransport() {
+        this.maxPerHost = Integer.getInteger("allureiq.http.maxPerHost", 64);
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(Math.max(64, maxPerHost * 4));
+        dispatcher.setMaxRequestsPerHost(maxPerHost);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(Integer.getInteger("allureiq.http.maxIdle", 32),
+                        Long.getLong("allureiq.http.keepAliveSec", 300L), TimeUnit.SECONDS))
+                .dispatcher(dispatcher)
+                .callTimeout(Duration.ofSeconds(Long.getLong("allureiq.http.timeoutSec", 60L)))
+                .retryOnConnectionFailure(true)
+                .eventListener(new TimingListener());
+
+        if (Boolean.getBoolean("allureiq.http.h2c")) {
+            builder.protocols(List.of(Protocol.H2_PRIOR_KNOWLEDGE));
+        } else {
+            builder.protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1));
+        }
+
+        if (Boolean.parseBoolean(System.getProperty("allureiq.http.relaxedHttps", "true"))) {
+            relaxHttps(builder);
+        }
+        this.client = builder.build();
+    }
+
+    @Override
+    public ApiResponse send(String method, String endpoint, Map<String, String> headers, String body) {
+        HttpUrl url = resolve(endpoint);
+
+        RequestBody requestBody = null;
+        if (body != null) {
+            requestBody = RequestBody.create(body, contentType(headers));
+        } else if ("POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method)) {
+            requestBody = RequestBody.create(new byte[0], null);
+        }
+
+        Request.Builder request = new Request.Builder().url(url).method(method, requestBody);
+        headers.forEach(request::header);
+
+        Semaphore permits = hostPermits.computeIfAbsent(url.host() + ":" + url.port(), h -> new Semaphore(maxPerHost));
+        permits.acquireUninterruptibly();
+        Response res = null;
+        try {
+            res = client.newCall(request.build()).execute();
+            ResponseBody resBody = res.body();
+            if (resBody == null) {
+                res.close();
+                permits.release();
+                return ApiResponse.of(res.code(), statusLine(res), res.headers().toMultimap(), new byte[0]);
+            }
+            // 🌊 Body streams from the socket; connection and permit are released when it is closed
+            return ApiResponse.streaming(res.code(), statusLine(res), res.headers().toMultimap(),
+                    new ReleasingStream(resBody.byteStream(), res, permits));
+        } catch (IOException | RuntimeException e) {
+            if (res != null) res.close();
+            permits.release();
+            if (e instanceof IOException) {
+                throw new UncheckedIOException("❌ " + method + " " + url + " failed: " + e.getMessage(), (IOException) e);
+            }
+            throw (RuntimeException) e;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "okhttp";
+    }
+
+    // ---------- Helpers ----------
+    private static HttpUrl resolve(String endpoint) {
+        HttpUrl absolute = HttpUrl.parse(endpoint);
+        if (absolute != null) return absolute;
+
+        String base = ApiReuse.getBaseUri();
+        if (base == null) {
+            throw new IllegalStateException("❌ No base URI set for '" + endpoint + "'. Call ApiReuse.uri(...) first.");
+        }
+        HttpUrl baseUrl = HttpUrl.get(base.endsWith("/") ? base : base + "/");
+        HttpUrl resolved = baseUrl.resolve(endpoint.startsWith("/") ? endpoint.substring(1) : endpoint);
+        if (resolved == null) throw new IllegalArgumentException("❌ Invalid endpoint: " + endpoint);
+        return resolved;
+    }
+
+    private static MediaType contentType(Map<String, String> headers) {
+        for (Map.Entry<String, String> h : headers.entrySet()) {
+            if ("Content-Type".equalsIgnoreCase(h.getKey())) {
+                MediaType type = MediaType.parse(h.getValue());
+                if (type != null) return type;
+            }
+        }
+        return JSON;
+    }
+
+    private static String statusLine(Response res) {
+        String protocol = res.protocol() == Protocol.HTTP_1_0 ? "HTTP/1.0"
+                : res.protocol() == Protocol.HTTP_1_1 ? "HTTP/1.1" : "HTTP/2";
+        return (protocol + " " + res.code() + " " + res.message()).trim();
+    }
+
+    private static void relaxHttps(OkHttpClient.Builder builder) {
+        X509TrustManager trustAll = new X509TrustManager() {
+            @Override
+            public void checkClientTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public void checkServerTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[0];
+            }
+        };
+        try {
+            SSLContext ssl = SSLContext.getInstance("TLS");
+            ssl.init(null, new TrustManager[]{trustAll}, null);
+            builder.sslSocketFactory(ssl.getSocketFactory(), trustAll).hostnameVerifier((host, session) -> true);
+        } catch (GeneralSecurityException e) {
+            System.err.println("⚠️ Relaxed HTTPS unavailable for OkHttp: " + e.getMessage());
+        }
+    }
+
+    // 🔓 Closes the response and frees the host permit exactly once
+    private static final class ReleasingStream extends FilterInputStream {
+        private final Response response;
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingStream(InputStream body, Response response, Semaphore permits) {
+            super(body);
+            this.response = response;
+            this.permits = permits;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!released.compareAndSet(false, true)) return;
+            try {
+                super.close();
+            } finally {
+                response.close();
+                permits.release();
+            }
+        }
+    }
+
+    // ⏱️ Sync calls fire events on the calling thread, where ApiReuse keeps its PhaseTimer
+    private static final class TimingListener extends EventListener {
+        @Override
+        public void requestHeadersStart(Call call) {
+            PhaseTimer.markSent();
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            PhaseTimer.markFirstByte();
+        }
+    }
+}
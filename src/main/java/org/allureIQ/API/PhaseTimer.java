@@ -0,0 +1,92 @@
+package org.allureIQ.API;
+
+import org.bson.Document;
+
+/**
+ * ⏱️ Per-phase timing of one ApiReuse call
+ * -------------------------------------------------
+ * Phases (all in ms on the endpoint entry, field "timing"):
+ *  - pre     : framework work before sending (method/endpoint inference, token lookup, AI payload)
+ *  - connect : until the request goes on the wire (connection setup incl. TLS, client setup)
+ *  - ttfb    : request sent → response headers received (target API time)
+ *  - body    : response body read + capture
+ *  - post    : sanitizing, token capture, reporting, queueing the execution log and
+ *              handing a failure to the hint pipeline
+ *  - total   : whole call
+ *
+ * connect / ttfb come from the transport (HttpClient interceptors, OkHttp EventListener),
+ * which calls markSent() / markFirstByte() on the calling thread; the timer of that
+ * thread is found through a ThreadLocal.
+ * The timing is measured after the execution is queued, so it is attached to it by callId.
+ * -------------------------------------------------
+ */
+public final class PhaseTimer {
+
+    private static final ThreadLocal<PhaseTimer> CURRENT = new ThreadLocal<>();
+
+    private final long start = System.nanoTime();
+    private long prepared;
+    private long sent;
+    private long firstByte;
+    private long received;
+    private long captured;
+    private long end;
+
+    // ---------- Wire events (called by transports on the calling thread) ----------
+    public static void markSent() {
+        PhaseTimer t = CURRENT.get();
+        if (t != null && t.sent == 0) t.sent = System.nanoTime();
+    }
+
+    // last response wins (redirects / auth retries)
+    public static void markFirstByte() {
+        PhaseTimer t = CURRENT.get();
+        if (t != null) t.firstByte = System.nanoTime();
+    }
+
+    // ---------- Marks (called in order by ApiReuse.execute) ----------
+    public void prepared() {
+        prepared = System.nanoTime();
+        CURRENT.set(this);
+    }
+
+    public void received() {
+        received = System.nanoTime();
+        CURRENT.remove();
+    }
+
+    public void captured() {
+        captured = System.nanoTime();
+    }
+
+    public void end() {
+        end = System.nanoTime();
+    }
+
+    // ---------- Phases in nanoseconds ----------
+    public long totalNanos()   { return end - start; }
+    public long preNanos()     { return prepared - start; }
+    public long connectNanos() { return (sent == 0 ? received : sent) - prepared; }
+    public long ttfbNanos()    { return sent == 0 || firstByte == 0 ? 0 : firstByte - sent; }
+    public long bodyNanos()    { return captured - (firstByte == 0 ? received : firstByte); }
+    public long postNanos()    { return end - captured; }
+
+    /** pre + post: time spent in the framework rather than on the wire. */
+    public long overheadNanos() {
+        return preNanos() + postNanos();
+    }
+
+    // 🔹 Stored on the endpoint entry in ai_executions
+    public Document toDocument() {
+        return new Document("totalMs", millis(totalNanos()))
+                .append("preMs", millis(preNanos()))
+                .append("connectMs", millis(connectNanos()))
+                .append("ttfbMs", millis(ttfbNanos()))
+                .append("bodyMs", millis(bodyNanos()))
+                .append("postMs", millis(postNanos()));
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(Math.max(0, nanos) / 10_000.0) / 100.0;
+    }
+}
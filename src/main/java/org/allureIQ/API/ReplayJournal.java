@@ -0,0 +1,267 @@
+package org.allureIQ.API;
+
+import com.google.gson.Gson;
+import org.allureIQ.AI.AiAutoContext;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 📼 Record & replay for ApiReuse
+ * -------------------------------------------------
+ * A transport decorator:
+ *  - record : every request/response pair is appended to a gzip JSON-lines journal
+ *  - replay : responses come from the journal, no network at all
+ *
+ * Matching (replay):
+ *  1. method + normalized endpoint + request body hash
+ *  2. method + normalized endpoint (AI-generated payloads differ between runs)
+ *  Several recordings for the same key are served in recorded order; the last one repeats.
+ *  Recorded payloads are reused too, so replay never asks the AI for a new payload.
+ *
+ * Secrets: payloads and bodies are recorded with sensitive JSON string values masked
+ * (StreamingSanitizer keys: token, password, allureiq.sanitize.keys), and credential headers
+ * (Authorization, Cookie, Set-Cookie, or a name containing a sensitive key) are masked.
+ * A replayed login therefore hands out "***" as its token. With allureiq.replay.keepSecrets=true
+ * the journal stores everything raw and must be treated as a secret itself.
+ *
+ * Config (system properties):
+ *  - allureiq.replay.mode     off (default) | record | replay
+ *  - allureiq.replay.journal  default target/allureiq-replay.jsonl.gz
+ *  - allureiq.replay.onMiss   fail (default) | network — what replay does for unknown requests
+ *  - allureiq.replay.keepSecrets  false (default) | true — record payloads, bodies and headers unmasked
+ * -------------------------------------------------
+ */
+public final class ReplayJournal implements HttpTransport {
+
+    public enum Mode { OFF, RECORD, REPLAY }
+
+    private static final Gson GSON = new Gson();
+    private static final Set<String> CREDENTIAL_HEADERS =
+            Set.of("authorization", "proxy-authorization", "cookie", "set-cookie");
+
+    private final StreamingSanitizer sanitizer =
+            Boolean.getBoolean("allureiq.replay.keepSecrets") ? null : StreamingSanitizer.forJournal();
+
+    private final HttpTransport network;
+    private final Mode mode;
+    private final Path journal;
+    private final boolean missGoesToNetwork;
+
+    // replay index
+    private final Map<String, Recorded> byBody = new ConcurrentHashMap<>();
+    private final Map<String, Recorded> byEndpoint = new ConcurrentHashMap<>();
+
+    // record writer (gzip members are concatenated when reopened after a run-end close)
+    private Writer writer;
+
+    // ---------- Journal line ----------
+    private static final class Entry {
+        String m;                  // method
+        String e;                  // normalized endpoint
+        String k;                  // request body hash ("" when no body)
+        String p;                  // request payload
+        int s;                     // status
+        String l;                  // status line
+        Map<String, List<String>> h;
+        String b;                  // body (UTF-8 text, or base64 when binary)
+        boolean b64;
+    }
+
+    private static final class Recorded {
+        private final List<Entry> entries = new ArrayList<>();
+        private final AtomicInteger next = new AtomicInteger();
+
+        private synchronized void add(Entry e) {
+            entries.add(e);
+        }
+
+        private Entry take() {
+            int i = next.getAndIncrement();
+            return entries.get(Math.min(i, entries.size() - 1));
+        }
+    }
+
+    public ReplayJournal(HttpTransport network, Mode mode, Path journal) {
+        this.network = network;
+        this.mode = mode;
+        this.journal = journal;
+        this.missGoesToNetwork = "network".equalsIgnoreCase(System.getProperty("allureiq.replay.onMiss", "fail"));
+
+        if (mode == Mode.REPLAY) {
+            load();
+        } else if (mode == Mode.RECORD) {
+            try {
+                if (journal.getParent() != null) Files.createDirectories(journal.getParent());
+                Files.deleteIfExists(journal);   // a recording always starts a fresh journal
+            } catch (IOException e) {
+                throw new UncheckedIOException("❌ Cannot prepare replay journal " + journal, e);
+            }
+            RunLifecycle.onRunEnd("close replay journal", RunLifecycle.FLUSH_LOGS, this::close);
+            System.out.println("📼 Recording API traffic to " + journal
+                    + (sanitizer == null ? " (⚠️ unmasked: the journal contains secrets)" : ""));
+        }
+    }
+
+    // 🔹 Wraps the transport according to -Dallureiq.replay.mode
+    public static HttpTransport wrap(HttpTransport network) {
+        Mode mode = Mode.valueOf(System.getProperty("allureiq.replay.mode", "off").trim().toUpperCase());
+        if (mode == Mode.OFF) return network;
+        Path journal = Paths.get(System.getProperty("allureiq.replay.journal", "target/allureiq-replay.jsonl.gz"));
+        return new ReplayJournal(network, mode, journal);
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    @Override
+    public String name() {
+        return mode.name().toLowerCase() + "(" + network.name() + ")";
+    }
+
+    // ---------- SEND ----------
+    @Override
+    public ApiResponse send(String method, String endpoint, Map<String, String> headers, String body) {
+        String normalized = AiAutoContext.normalizeEndpoint(endpoint);
+        String bodyKey = body == null ? "" : JsonShape.sha256Hex(body).substring(0, 16);
+
+        if (mode == Mode.REPLAY) {
+            Recorded hit = byBody.get(method + " " + normalized + " " + bodyKey);
+            if (hit == null) hit = byEndpoint.get(method + " " + normalized);
+            if (hit != null) return toResponse(hit.take());
+
+            if (!missGoesToNetwork) {
+                throw new IllegalStateException("❌ No recorded response for " + method + " " + normalized
+                        + " in " + journal + " (record it first, or set -Dallureiq.replay.onMiss=network)");
+            }
+            return network.send(method, endpoint, headers, body);
+        }
+
+        ApiResponse res = network.send(method, endpoint, headers, body);
+        if (mode == Mode.RECORD) record(method, normalized, bodyKey, body, res);
+        return res;
+    }
+
+    /** Payload recorded for this call, so replay does not generate a new one; null when unknown. */
+    public String recordedPayload(String method, String endpoint) {
+        if (mode != Mode.REPLAY) return null;
+        Recorded hit = byEndpoint.get(method + " " + AiAutoContext.normalizeEndpoint(endpoint));
+        return hit == null ? null : hit.entries.get(0).p;
+    }
+
+    // ---------- RECORD ----------
+    private void record(String method, String normalized, String bodyKey, String payload, ApiResponse res) {
+        Entry e = new Entry();
+        e.m = method;
+        e.e = normalized;
+        e.k = bodyKey;
+        e.p = mask(payload);
+        e.s = res.status();
+        e.l = res.statusLine();
+        e.h = maskHeaders(res.headers());
+
+        byte[] bytes = res.asByteArray();
+        try {
+            e.b = mask(StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes)).toString());
+        } catch (CharacterCodingException binary) {
+            e.b = Base64.getEncoder().encodeToString(bytes);
+            e.b64 = true;
+        }
+
+        String line = GSON.toJson(e);
+        synchronized (this) {
+            try {
+                if (writer == null) {
+                    writer = new BufferedWriter(new OutputStreamWriter(
+                            new GZIPOutputStream(new FileOutputStream(journal.toFile(), true), 64 * 1024),
+                            StandardCharsets.UTF_8));
+                }
+                writer.write(line);
+                writer.write('\n');
+            } catch (IOException ex) {
+                System.err.println("⚠️ Replay journal write failed: " + ex.getMessage());
+            }
+        }
+    }
+
+    // 🧼 Sensitive JSON string values → "***" (null stays null)
+    private String mask(String text) {
+        return sanitizer == null || text == null ? text : sanitizer.sanitize(text);
+    }
+
+    private Map<String, List<String>> maskHeaders(Map<String, List<String>> headers) {
+        if (sanitizer == null) return headers;
+        Map<String, List<String>> masked = new LinkedHashMap<>();
+        headers.forEach((name, values) -> masked.put(name,
+                CREDENTIAL_HEADERS.contains(name.toLowerCase(Locale.ROOT)) || sanitizer.isMaskedKey(name)
+                        ? Collections.nCopies(values.size(), StreamingSanitizer.MASK) : values));
+        return masked;
+    }
+
+    public synchronized void close() {
+        if (writer == null) return;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.err.println("⚠️ Replay journal close failed: " + e.getMessage());
+        }
+        writer = null;
+    }
+
+    // ---------- REPLAY ----------
+    private void load() {
+        if (!Files.exists(journal)) {
+            throw new IllegalStateException("❌ Replay journal not found: " + journal
+                    + " (run once with -Dallureiq.replay.mode=record)");
+        }
+        int count = 0;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(journal), 64 * 1024), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) continue;
+                Entry e = GSON.fromJson(line, Entry.class);
+                byBody.computeIfAbsent(e.m + " " + e.e + " " + e.k, k -> new Recorded()).add(e);
+                byEndpoint.computeIfAbsent(e.m + " " + e.e, k -> new Recorded()).add(e);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Cannot read replay journal " + journal, e);
+        }
+        System.out.println("📼 Replaying " + count + " recorded responses from " + journal);
+    }
+
+    private static ApiResponse toResponse(Entry e) {
+        byte[] body = e.b == null ? new byte[0]
+                : e.b64 ? Base64.getDecoder().decode(e.b) : e.b.getBytes(StandardCharsets.UTF_8);
+        return ApiResponse.of(e.s, e.l, e.h, body);
+    }
+}
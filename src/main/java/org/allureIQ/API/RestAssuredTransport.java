@@ -0,0 +1,68 @@
+package org.allureIQ.API;
+
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.http.Method;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.HttpClient;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * 🌐 Default transport: RestAssured
+ * -------------------------------------------------
+ *  - Uses RestAssured globals (baseURI, port, relaxed HTTPS, filters) exactly as before
+ *  - Responses keep the original RestAssured Response for assertions; RestAssured reads the whole
+ *    body into memory first, so bounded capture streams only with OkHttpTransport
+ *  - Request / response interceptors on the per-request HttpClient feed PhaseTimer; the client
+ *    still comes from the configured httpClientFactory (proxies, SSL, timeouts are kept)
+ * -------------------------------------------------
+ */
+public final class RestAssuredTransport implements HttpTransport {
+
+    // clients already instrumented (a reused client instance comes back on every request)
+    private static final Set<HttpClient> TIMED = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    @Override
+    public ApiResponse send(String method, String endpoint, Map<String, String> headers, String body) {
+        // 🔌 Wraps the configured factory instead of replacing it
+        HttpClientConfig configured = RestAssured.config().getHttpClientConfig();
+        RequestSpecification req = RestAssured.given()
+                .config(RestAssured.config().httpClient(
+                        configured.httpClientFactory(() -> timed(configured.httpClientInstance()))))
+                .headers(headers);
+        if (body != null) req.body(body);
+
+        try {
+            return ApiResponse.wrap(req.request(Method.valueOf(method), endpoint)
+                    .then()
+                    .extract()
+                    .response());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("❌ Invalid HTTP method '" + method + "' for endpoint " + endpoint, e);
+        }
+    }
+
+    // ⏱️ Request interceptors run once the connection is established, response interceptors once
+    //    headers arrive. RestAssured 5 only accepts AbstractHttpClient (HTTPBuilder casts to it), so
+    //    clients from HttpClientBuilder cannot be used here; other clients pass through untimed.
+    @SuppressWarnings("deprecation")
+    private static HttpClient timed(HttpClient client) {
+        if (client instanceof org.apache.http.impl.client.AbstractHttpClient && TIMED.add(client)) {
+            org.apache.http.impl.client.AbstractHttpClient http = (org.apache.http.impl.client.AbstractHttpClient) client;
+            http.addRequestInterceptor((HttpRequestInterceptor) (request, context) -> PhaseTimer.markSent());
+            http.addResponseInterceptor((HttpResponseInterceptor) (response, context) -> PhaseTimer.markFirstByte());
+        }
+        return client;
+    }
+
+    @Override
+    public String name() {
+        return "restassured";
+    }
+}
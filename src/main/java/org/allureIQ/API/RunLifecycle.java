@@ -0,0 +1,66 @@
+package org.allureIQ.API;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 🏁 Run Lifecycle Hooks
+ * -------------------------------------------------
+ * Features:
+ *  - Components register work that must happen when a run ends
+ *    (flushing buffered logs, awaiting background AI work, building reports)
+ *  - Triggered by AllureIQSuiteListener when the last TestNG suite finishes
+ *  - JVM shutdown hook as a safety net for non-TestNG runs
+ *  - Hooks run in ascending order and may run more than once, so they must be idempotent
+ * -------------------------------------------------
+ */
+public final class RunLifecycle {
+
+    // ---------- Hook order ----------
+    public static final int RELEASE_DEFERRED_WORK = 5;
+    public static final int AWAIT_BACKGROUND_WORK = 10;
+    public static final int FLUSH_LOGS = 50;
+    public static final int BUILD_REPORTS = 80;
+
+    private static final List<Hook> HOOKS = new CopyOnWriteArrayList<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(
+                ApiExecutors.daemon("allureiq-run-end", RunLifecycle::runEnded));
+    }
+
+    private RunLifecycle() {
+    }
+
+    public static void onRunEnd(String name, int order, Runnable action) {
+        HOOKS.add(new Hook(name, order, action));
+    }
+
+    // ✅ Runs every registered hook; one failing hook never blocks the others
+    public static synchronized void runEnded() {
+        List<Hook> ordered = new ArrayList<>(HOOKS);
+        ordered.sort(Comparator.comparingInt(h -> h.order));
+
+        for (Hook hook : ordered) {
+            try {
+                hook.action.run();
+            } catch (Exception e) {
+                System.err.println("⚠️ Run-end hook '" + hook.name + "' failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static final class Hook {
+        private final String name;
+        private final int order;
+        private final Runnable action;
+
+        private Hook(String name, int order, Runnable action) {
+            this.name = name;
+            this.order = order;
+            this.action = action;
+        }
+    }
+}
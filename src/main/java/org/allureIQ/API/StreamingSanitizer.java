@@ -0,0 +1,307 @@
+package org.allureIQ.API;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 🧼 Single-pass streaming sanitizer
+ * -------------------------------------------------
+ * Replaces the regex chain that used to run over every response body.
+ *  - Masks string values of sensitive JSON keys ("token", "password", ...);
+ *    a key is sensitive when its name contains a configured key, case-insensitive
+ *  - Optionally hides whole string values containing a pattern (URLs, "localhost", ...)
+ *  - Line breaks become spaces, so each log entry stays on one line (kept for the replay journal)
+ *  - Stops reading once the output budget is used and appends "...(truncated)"
+ *  - Reads from a CharSequence or a Reader; never needs the whole body in memory
+ *
+ * Extra keys / patterns (comma separated system properties):
+ *  - allureiq.sanitize.keys
+ *  - allureiq.sanitize.hiddenPatterns
+ * -------------------------------------------------
+ */
+public final class StreamingSanitizer {
+
+    public static final String MASK = "***";
+    public static final String HIDDEN = "[hidden]";
+    public static final String TRUNCATED = "...(truncated)";
+
+    private static final List<String> DEFAULT_KEYS = List.of("token", "password");
+    private static final List<String> SEARCH_PATTERNS = List.of("localhost", "http://", "https://", "login", "redirect");
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final String[] maskedKeys;
+    private final char[][] hiddenPatterns;
+    private final int[][] failures;
+    private final int maxChars;
+    private final boolean keepLineBreaks;
+
+    public StreamingSanitizer(List<String> maskedKeys, List<String> hiddenPatterns, int maxChars) {
+        this(maskedKeys, hiddenPatterns, maxChars, false);
+    }
+
+    public StreamingSanitizer(List<String> maskedKeys, List<String> hiddenPatterns, int maxChars,
+                              boolean keepLineBreaks) {
+        this.keepLineBreaks = keepLineBreaks;
+        this.maskedKeys = lowerCase(maskedKeys).toArray(new String[0]);
+        this.hiddenPatterns = lowerCase(hiddenPatterns).stream().map(String::toCharArray).toArray(char[][]::new);
+        this.failures = Arrays.stream(this.hiddenPatterns).map(StreamingSanitizer::failureTable).toArray(int[][]::new);
+        this.maxChars = maxChars;
+    }
+
+    // ---------- Profiles ----------
+    /** ApiReuse execution logs: sensitive keys masked, 2000 char budget. */
+    public static StreamingSanitizer forApiLogs() {
+        return new StreamingSanitizer(configured("allureiq.sanitize.keys", DEFAULT_KEYS),
+                configured("allureiq.sanitize.hiddenPatterns", List.of()), 2000);
+    }
+
+    /** Search results: sensitive keys masked and URL / login / redirect values hidden, no budget. */
+    public static StreamingSanitizer forSearchResults() {
+        return new StreamingSanitizer(configured("allureiq.sanitize.keys", DEFAULT_KEYS),
+                configured("allureiq.sanitize.hiddenPatterns", SEARCH_PATTERNS), Integer.MAX_VALUE);
+    }
+
+    /** Replay journal: sensitive keys masked, body otherwise unchanged (line breaks kept), no budget. */
+    public static StreamingSanitizer forJournal() {
+        return new StreamingSanitizer(configured("allureiq.sanitize.keys", DEFAULT_KEYS), List.of(),
+                Integer.MAX_VALUE, true);
+    }
+
+    // ---------- Public API ----------
+    public String sanitize(CharSequence input) {
+        if (input == null) return "";
+        int[] pos = {0};
+        try {
+            return run(() -> pos[0] < input.length() ? input.charAt(pos[0]++) : -1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // unreachable for in-memory input
+        }
+    }
+
+    public String sanitize(Reader input) throws IOException {
+        if (input == null) return "";
+        char[] buf = new char[8192];
+        int[] state = {0, 0}; // position, limit
+        return run(() -> {
+            if (state[0] == state[1]) {
+                state[1] = input.read(buf, 0, buf.length);
+                state[0] = 0;
+                if (state[1] <= 0) {
+                    state[1] = 0;
+                    return -1;
+                }
+            }
+            return buf[state[0]++];
+        });
+    }
+
+    /** True when the key name contains one of the sensitive keys. */
+    public boolean isMaskedKey(CharSequence key) {
+        if (key == null || key.length() > MAX_KEY_LENGTH) return false;
+        String lower = key.toString().toLowerCase(Locale.ROOT);
+        for (String k : maskedKeys) {
+            if (lower.contains(k)) return true;
+        }
+        return false;
+    }
+
+    /** True when the value contains one of the hidden patterns (one pass, case-insensitive). */
+    public boolean containsHiddenPattern(CharSequence value) {
+        if (value == null || hiddenPatterns.length == 0) return false;
+        PatternScanner scanner = new PatternScanner();
+        for (int i = 0; i < value.length(); i++) {
+            if (scanner.accept(value.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    // ---------- Core state machine ----------
+    private interface CharSource {
+        int next() throws IOException;
+    }
+
+    private String run(CharSource in) throws IOException {
+        Output out = new Output(maxChars);
+
+        boolean inString = false;
+        boolean escaped = false;
+        boolean maskValue = false;       // the previous key was sensitive
+        boolean pendingCR = false;
+
+        StringBuilder token = new StringBuilder();    // current string content, bounded by the budget
+        StringBuilder gap = new StringBuilder();      // whitespace after a closed string
+        boolean tokenHidden = false;
+        boolean tokenOverflow = false;
+        boolean tokenPending = false;    // closed string waiting to learn whether it is a key
+        PatternScanner scanner = new PatternScanner();
+
+        int c;
+        while (!out.full && !tokenOverflow && (c = in.next()) != -1) {
+            // \r\n, \n and \r each become a single space
+            char ch = (char) c;
+            if (!keepLineBreaks) {
+                if (pendingCR) {
+                    pendingCR = false;
+                    if (c == '\n') continue;
+                }
+                if (c == '\r') pendingCR = true;
+                if (c == '\n' || c == '\r') ch = ' ';
+            }
+
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (ch == '\\') {
+                    escaped = true;
+                } else if (ch == '"') {
+                    inString = false;
+                    tokenPending = true;
+                    gap.setLength(0);
+                    continue;
+                }
+                if (maskValue) continue;   // masked value: swallow content
+                if (hiddenPatterns.length > 0 && scanner.accept(ch)) tokenHidden = true;
+                if (token.length() < out.remaining()) token.append(ch);
+                else tokenOverflow = true;
+                continue;
+            }
+
+            if (tokenPending) {
+                if (Character.isWhitespace(ch)) {
+                    if (gap.length() < out.remaining()) gap.append(ch);
+                    continue;
+                }
+                boolean isKey = ch == ':';
+                emitToken(out, token, maskValue, tokenHidden && !isKey);
+                out.appendAll(gap);
+                maskValue = isKey && !maskValue && isMaskedKey(token);
+                tokenPending = false;
+                if (isKey) {
+                    out.append(ch);
+                    continue;
+                }
+            }
+
+            if (ch == '"') {
+                inString = true;
+                token.setLength(0);
+                tokenHidden = false;
+                scanner.reset();
+                continue;
+            }
+            if (maskValue && !Character.isWhitespace(ch)) {
+                maskValue = false; // only string values are masked
+            }
+            out.append(ch);
+        }
+
+        // ---------- end of input, or budget used up ----------
+        if (tokenPending) {
+            emitToken(out, token, maskValue, tokenHidden);
+            out.appendAll(gap);
+        } else if (inString) {
+            // cut-off string: never emit a prefix that might hold a hidden value
+            boolean hidden = tokenHidden || (tokenOverflow && hiddenPatterns.length > 0);
+            out.append('"');
+            out.appendAll(maskValue ? MASK : hidden ? HIDDEN : token);
+            if (tokenOverflow) out.full = true;
+        }
+
+        if (out.full) out.sb.append(TRUNCATED);
+        return out.sb.toString();
+    }
+
+    private static void emitToken(Output out, CharSequence token, boolean masked, boolean hidden) {
+        out.append('"');
+        out.appendAll(masked ? MASK : hidden ? HIDDEN : token);
+        out.append('"');
+    }
+
+    // ---------- Bounded output ----------
+    private static final class Output {
+        private final StringBuilder sb = new StringBuilder();
+        private final int max;
+        private boolean full;
+
+        private Output(int max) {
+            this.max = max;
+        }
+
+        private int remaining() {
+            return max - sb.length();
+        }
+
+        private void append(char ch) {
+            if (sb.length() >= max) {
+                full = true;
+                return;
+            }
+            sb.append(ch);
+        }
+
+        private void appendAll(CharSequence text) {
+            for (int i = 0; i < text.length() && !full; i++) append(text.charAt(i));
+        }
+    }
+
+    // ---------- Incremental case-insensitive multi-pattern matcher (KMP per pattern) ----------
+    private final class PatternScanner {
+        private final int[] matched = new int[hiddenPatterns.length];
+
+        private boolean accept(char ch) {
+            char lower = Character.toLowerCase(ch);
+            for (int p = 0; p < hiddenPatterns.length; p++) {
+                char[] pattern = hiddenPatterns[p];
+                int[] fail = failures[p];
+                int m = matched[p];
+                while (m > 0 && pattern[m] != lower) m = fail[m - 1];
+                if (pattern[m] == lower) m++;
+                if (m == pattern.length) return true;
+                matched[p] = m;
+            }
+            return false;
+        }
+
+        private void reset() {
+            Arrays.fill(matched, 0);
+        }
+    }
+
+    private static int[] failureTable(char[] pattern) {
+        int[] fail = new int[pattern.length];
+        for (int i = 1, k = 0; i < pattern.length; i++) {
+            while (k > 0 && pattern[i] != pattern[k]) k = fail[k - 1];
+            if (pattern[i] == pattern[k]) k++;
+            fail[i] = k;
+        }
+        return fail;
+    }
+
+    // ---------- Config helpers ----------
+    private static List<String> configured(String property, List<String> defaults) {
+        Set<String> all = new LinkedHashSet<>(defaults);
+        String extra = System.getProperty(property);
+        if (extra != null) {
+            for (String item : extra.split(",")) {
+                if (!item.isBlank()) all.add(item.trim());
+            }
+        }
+        return new ArrayList<>(all);
+    }
+
+    private static List<String> lowerCase(List<String> values) {
+        List<String> out = new ArrayList<>();
+        for (String v : values) {
+            if (v != null && !v.isEmpty()) out.add(v.toLowerCase(Locale.ROOT));
+        }
+        return out;
+    }
+}
@@ -9,15 +9,20 @@ import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import org.allureIQ.AI.CallSite;
+import org.allureIQ.AI.LlmProvider;
+import org.allureIQ.AI.LlmProviders;
+import org.allureIQ.AI.LlmReply;
+import org.allureIQ.AI.LlmScheduler;
+import org.allureIQ.AI.PromptCache;
+import org.allureIQ.API.StreamingSanitizer;
 import org.bson.Document;
 import org.bson.types.ObjectId;
-import org.json.JSONObject;
 
 import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletionException;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -163,13 +168,17 @@ public class AiUnifiedSearchEngineAtlas implements Closeable {
         doc.put("_collection", collection);
     }
 
-    // ---------- sanitize redirect/localhost-like fields ----------
+    // ---------- sanitize redirect/localhost-like fields (single pass per value) ----------
+    private static final StreamingSanitizer SANITIZER = StreamingSanitizer.forSearchResults();
+
     private void sanitize(Document doc) {
         for (String key : new ArrayList<>(doc.keySet())) {
             Object value = doc.get(key);
             if (value instanceof String str) {
-                if (str.matches("(?i).*localhost.*|.*http://.*|.*https://.*|.*login.*|.*redirect.*")) {
-                    doc.put(key, "[hidden]");
+                if (SANITIZER.isMaskedKey(key)) {
+                    doc.put(key, StreamingSanitizer.MASK);
+                } else if (SANITIZER.containsHiddenPattern(str)) {
+                    doc.put(key, StreamingSanitizer.HIDDEN);
                 }
             } else if (value instanceof Document nested) {
                 sanitize(nested);
@@ -179,46 +188,30 @@ public class AiUnifiedSearchEngineAtlas implements Closeable {
         }
     }
 
-    // ---------- call OpenRouter (same approach) ----------
-    private String callOpenRouter(String text) {
-        try {
-            if (openRouterApiKey == null || openRouterApiKey.isEmpty()) {
-                return "AI summary skipped: no API key";
-            }
+    // ---------- call the configured LLM provider (same path as GeminiAI) ----------
+    private static final String SEARCH_SYSTEM_PROMPT = "You are an expert AI that summarizes MongoDB testing and automation data.";
 
-            URL url = new URL("https://openrouter.ai/api/v1/chat/completions");
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("Authorization", "Bearer " + openRouterApiKey);
-            conn.setDoOutput(true);
-
-            JSONObject payload = new JSONObject();
-            payload.put("model", "gpt-4o-mini");
-            payload.put("messages", List.of(
-                    new JSONObject().put("role", "system").put("content", "You are an expert AI that summarizes MongoDB testing and automation data."),
-                    new JSONObject().put("role", "user").put("content", "Analyze this dataset:\n" + text)
-            ));
-
-            try (OutputStream os = conn.getOutputStream()) {
-                os.write(payload.toString().getBytes(StandardCharsets.UTF_8));
-            }
+    private String callOpenRouter(String text) {
+        LlmProvider provider = LlmProviders.withApiKey(openRouterApiKey);
+        String prompt = "Analyze this dataset:\n" + text;
 
-            try (InputStream in = conn.getInputStream(); var rdr = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
-                StringBuilder sb = new StringBuilder();
-                String line;
-                while ((line = rdr.readLine()) != null) sb.append(line);
-                JsonElement root = JsonParser.parseString(sb.toString());
-                JsonElement content = root.getAsJsonObject()
-                        .getAsJsonArray("choices")
-                        .get(0).getAsJsonObject()
-                        .getAsJsonObject("message")
-                        .get("content");
-                return content != null ? content.getAsString() : "AI returned empty";
-            }
+        // 🗄️ Same search over unchanged data → same summary, no model call
+        String cacheKey = PromptCache.key(provider.name() + "/" + provider.model(), SEARCH_SYSTEM_PROMPT, prompt);
+        String cached = PromptCache.get(CallSite.SEARCH_SUMMARY, cacheKey);
+        if (cached != null) return cached;
 
-        } catch (Exception e) {
-            return "AI failed: " + e.getMessage();
+        if (provider.unavailableReason() != null) {
+            return "AI summary skipped: no API key";
+        }
+        try {
+            LlmReply reply = LlmScheduler.submit(CallSite.SEARCH_SUMMARY,
+                    () -> provider.complete(CallSite.SEARCH_SUMMARY, SEARCH_SYSTEM_PROMPT, prompt)).join();
+            if (!reply.ok()) return "AI failed: HTTP " + reply.status() + " " + reply.error();
+            if (reply.content().isBlank()) return "AI returned empty";
+            PromptCache.put(CallSite.SEARCH_SUMMARY, cacheKey, reply.content(), reply.latencyMs());
+            return reply.content();
+        } catch (CompletionException e) {
+            return "AI failed: " + e.getCause().getMessage();
         }
     }
 
@@ -3,25 +3,39 @@ package org.allureIQ.models;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.model.Updates;
 import org.bson.Document;
 
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class AiMongoLogger {
 
     private static String currentSessionId = null;
+    private static final AtomicLong CALL_IDS = new AtomicLong();
 
     // 🔹 Create or reuse session per test run
-    private static String getCurrentSessionId() {
+    private static synchronized String getCurrentSessionId() {
         if (currentSessionId == null) {
             currentSessionId = Instant.now().toString() + "_" + UUID.randomUUID();
         }
         return currentSessionId;
     }
 
+    // 🔖 Id of this run (executions, hints and telemetry share it)
+    public static String sessionId() {
+        return getCurrentSessionId();
+    }
+
+    // 📁 Project the executions and hints are stored under
+    public static String projectName() {
+        return getMainProjectName();
+    }
+
     private static String getMainProjectName() {
         String dir = System.getProperty("user.dir");
         if (dir != null) {
@@ -31,23 +45,38 @@ public class AiMongoLogger {
         return "DefaultFramework";
     }
 
+    // 📁 Subproject as seen by the caller's caller (what logExecution stores); capture it where the work starts
+    public static String subProjectName() {
+        return getSubProjectName(4);
+    }
+
     private static String getSubProjectName() {
+        return getSubProjectName(4);
+    }
+
+    // frame: stack index of the class used when no projectName is set
+    private static String getSubProjectName(int frame) {
         String customName = System.getProperty("projectName");
         if (customName != null && !customName.isEmpty()) {
             return customName;
         }
 
-        String className = Thread.currentThread().getStackTrace()[3].getFileName();
+        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
+        String className = stack[Math.min(frame, stack.length - 1)].getFileName();
         if (className != null && className.endsWith(".java")) {
             return className.replace(".java", "");
         }
         return "DefaultTestClass";
     }
 
+    // 📨 Queued for the write-behind flusher — no Atlas round trip on the test thread
     public static void logExecution(String method, String endpoint, String payload, String response, int status) {
-        MongoDatabase db = MongoConnector.connect();
-        MongoCollection<Document> col = db.getCollection("ai_executions");
+        logExecution(method, endpoint, payload, response, status, new Document());
+    }
 
+    // 🔹 details: extra per-execution fields (body size/hash, ...) stored on the endpoint entry
+    public static void logExecution(String method, String endpoint, String payload, String response, int status,
+                                    Document details) {
         String mainProject = getMainProjectName();
         String subProject = getSubProjectName();
         String sessionId = getCurrentSessionId();
@@ -58,54 +87,47 @@ public class AiMongoLogger {
                 .append("response", response)
                 .append("status", status)
                 .append("timestamp", Instant.now().toString());
+        endpointData.putAll(details);
 
-        // 🔸 Try to find the document for project + subproject
-        Document existingProject = col.find(
-                Filters.and(Filters.eq("project", mainProject), Filters.eq("subproject", subProject))
-        ).first();
+        AiMongoWriteBehind.enqueue(mainProject, subProject, sessionId, endpointData);
+    }
 
-        if (existingProject != null) {
-            // Find if this sessionId exists
-            Document existingSession = existingProject.getList("sessions", Document.class)
-                    .stream()
-                    .filter(s -> sessionId.equals(s.getString("sessionId")))
-                    .findFirst()
-                    .orElse(null);
-
-            if (existingSession != null) {
-                // Add to existing session
-                col.updateOne(
-                        Filters.and(Filters.eq("project", mainProject),
-                                Filters.eq("subproject", subProject),
-                                Filters.eq("sessions.sessionId", sessionId)),
-                        Updates.push("sessions.$.endpoints", endpointData)
-                );
-            } else {
-                // Create new session
-                Document newSession = new Document("sessionId", sessionId)
-                        .append("createdAt", Instant.now().toString())
-                        .append("endpoints", Arrays.asList(endpointData));
-                col.updateOne(
-                        Filters.and(Filters.eq("project", mainProject), Filters.eq("subproject", subProject)),
-                        Updates.push("sessions", newSession)
-                );
-            }
+    // 💡 Late AI hint → every execution of this run logged with the same hintId (queued behind them)
+    public static void attachHint(String hintId, Document hint) {
+        AiMongoWriteBehind.enqueueHint(getCurrentSessionId(), hintId, hint);
+    }
 
-        } else {
-            // First-time project/subproject
-            Document newSession = new Document("sessionId", sessionId)
-                    .append("createdAt", Instant.now().toString())
-                    .append("endpoints", Arrays.asList(endpointData));
+    // 🔖 Id of one logged execution (details field "callId"), for fields measured after it was queued
+    public static String newCallId() {
+        return Long.toString(CALL_IDS.incrementAndGet(), 36);
+    }
 
-            Document newDoc = new Document("project", mainProject)
-                    .append("subproject", subProject)
-                    .append("sessions", Arrays.asList(newSession));
+    // ⏱️ Field of the execution logged with this callId; merged while it is still queued
+    public static void attachToExecution(String callId, String field, Document value) {
+        AiMongoWriteBehind.enqueueField(getCurrentSessionId(), callId, field, value);
+    }
 
-            col.insertOne(newDoc);
-        }
+    // ✅ Makes queued executions visible to readers (reports, comparators)
+    public static void flush() {
+        AiMongoWriteBehind.flush();
+    }
+
+    // 🔹 A whole hint batch in one upsert (fields: method, endpoint, status, hint, cause, fix, timestamp)
+    public static void logAIHints(List<Document> hints) {
+        logAIHints(getSubProjectName(), hints);
+    }
+
+    // 🔹 Same, under the subproject captured when the failure happened (hints are written later, off-thread)
+    public static void logAIHints(String subProject, List<Document> hints) {
+        if (hints.isEmpty()) return;
+        MongoCollection<Document> col = MongoConnector.connect().getCollection("ai_hints");
+        col.updateOne(
+                Filters.and(Filters.eq("project", getMainProjectName()), Filters.eq("subproject", subProject)),
+                Updates.pushEach("hints", hints),
+                new UpdateOptions().upsert(true));
     }
 
-    public static void logAIHint(String method, String endpoint, String hint) {
+    public static synchronized void logAIHint(String method, String endpoint, String hint) {
         MongoDatabase db = MongoConnector.connect();
         MongoCollection<Document> col = db.getCollection("ai_hints");
 
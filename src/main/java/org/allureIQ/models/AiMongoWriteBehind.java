@@ -0,0 +1,362 @@
+package org.allureIQ.models;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.allureIQ.API.ApiExecutors;
+import org.allureIQ.API.RunLifecycle;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 📨 Write-behind buffer for ai_executions
+ * -------------------------------------------------
+ * Features:
+ *  - Bounded in-memory queue; callers block when it is full (backpressure)
+ *  - Background flusher groups entries per (project, subproject, session)
+ *  - One bulkWrite per batch using $push with $each
+ *  - Session documents are created once per run, not checked on every call
+ *  - Guaranteed flush at run end (TestNG suite end or JVM shutdown)
+ *  - Late AI hints ride the same queue, so they are applied after the executions they
+ *    belong to (arrayFilters on hintId)
+ *  - Fields set after logging (timing, by callId) are merged into the entry while it is still
+ *    queued; only when its batch is already written do they become an update
+ *  - Only the flusher thread writes: flush() queues a marker and waits until the flusher
+ *    has written everything ahead of it, so queue order is write order
+ *  - Writes rejected by MongoDB (network, timeouts, failed bulk entries) are retried with
+ *    backoff, only the failed entries, before the flusher moves on
+ *
+ * Tuning (system properties):
+ *  - allureiq.log.queueCapacity  (default 10000)
+ *  - allureiq.log.batchSize      (default 200)
+ *  - allureiq.log.lingerMs       (default 250)
+ *  - allureiq.log.maxRetries     (default 3)
+ *  - allureiq.log.retryBackoffMs (default 500)   multiplied by the attempt number
+ * -------------------------------------------------
+ */
+public final class AiMongoWriteBehind {
+
+    private static final int QUEUE_CAPACITY = Integer.getInteger("allureiq.log.queueCapacity", 10_000);
+    private static final int BATCH_SIZE = Math.max(1, Integer.getInteger("allureiq.log.batchSize", 200));
+    private static final long LINGER_MS = Long.getLong("allureiq.log.lingerMs", 250L);
+    private static final int MAX_RETRIES = Math.max(0, Integer.getInteger("allureiq.log.maxRetries", 3));
+    private static final long RETRY_BACKOFF_MS = Long.getLong("allureiq.log.retryBackoffMs", 500L);
+    private static final long FLUSH_TIMEOUT_MS = 30_000L;
+    static final String CALL_ID = "callId";
+
+    private static final BlockingQueue<Pending> QUEUE = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private static final AtomicInteger UNWRITTEN = new AtomicInteger();
+    private static final Set<String> READY_SESSIONS = ConcurrentHashMap.newKeySet();
+
+    private static volatile boolean started = false;
+
+    // ai_executions; tests swap in a stand-in collection
+    static volatile Supplier<MongoCollection<Document>> collection =
+            () -> MongoConnector.connect().getCollection("ai_executions");
+
+    private AiMongoWriteBehind() {
+    }
+
+    // ---------- ENQUEUE ----------
+    static void enqueue(String project, String subproject, String sessionId, Document endpointData) {
+        enqueue(new Pending(project, subproject, sessionId, endpointData));
+    }
+
+    private static void enqueue(Pending entry) {
+        startIfNeeded();
+        UNWRITTEN.incrementAndGet();
+
+        if (!QUEUE.offer(entry)) {
+            System.out.println("⏳ Execution log queue full (" + QUEUE_CAPACITY + ") — waiting for flusher...");
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    QUEUE.put(entry);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    // 💡 aiHint for every execution of this session with the given hintId
+    static void enqueueHint(String sessionId, String hintId, Document hint) {
+        enqueue(new Pending(sessionId, "hintId", hintId, "aiHint", hint));
+    }
+
+    // 🔹 Field of the one execution logged with this callId (queued behind it)
+    static void enqueueField(String sessionId, String callId, String field, Document value) {
+        enqueue(new Pending(sessionId, CALL_ID, callId, field, value));
+    }
+
+    // ---------- FLUSH ----------
+    /**
+     * Waits until the background flusher has written everything queued so far
+     * (including any batch it is holding).
+     */
+    public static void flush() {
+        if (!started) return;
+
+        CountDownLatch flushed = new CountDownLatch(1);
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MS;
+        boolean done = false;
+        try {
+            done = QUEUE.offer(new Pending(flushed), FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                    && flushed.await(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!done && UNWRITTEN.get() > 0) {
+            System.err.println("⚠️ " + UNWRITTEN.get() + " execution logs were not flushed to MongoDB.");
+        }
+    }
+
+    // ---------- BACKGROUND FLUSHER ----------
+    private static void startIfNeeded() {
+        if (started) return;
+        synchronized (AiMongoWriteBehind.class) {
+            if (started) return;
+            ApiExecutors.daemon("allureiq-log-flusher", AiMongoWriteBehind::runFlusher).start();
+            RunLifecycle.onRunEnd("flush execution logs", RunLifecycle.FLUSH_LOGS, AiMongoWriteBehind::flush);
+            started = true;
+        }
+    }
+
+    private static void runFlusher() {
+        List<Pending> batch = new ArrayList<>(BATCH_SIZE);
+        while (!Thread.currentThread().isInterrupted()) {
+            CountDownLatch flushed = null;
+            try {
+                Pending first = QUEUE.take();
+                if (first.flushed != null) {
+                    flushed = first.flushed;
+                    continue;
+                }
+                batch.add(first);
+
+                // ⏱️ Linger briefly so bursts of calls share one round trip (a flush marker ends it)
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LINGER_MS);
+                while (batch.size() < BATCH_SIZE) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    Pending next = QUEUE.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    if (next.flushed != null) {
+                        flushed = next.flushed;
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                UNWRITTEN.addAndGet(-batch.size());
+                batch.clear();
+                if (flushed != null) flushed.countDown();
+            }
+        }
+    }
+
+    // ---------- MONGO WRITE ----------
+    // 🔁 Retries what MongoDB rejected, up to allureiq.log.maxRetries; patches only once their pushes are in
+    private static void write(List<Pending> batch) throws InterruptedException {
+        if (batch.isEmpty()) return;
+
+        List<WriteModel<Document>> pushes = null;
+        List<WriteModel<Document>> patches = null;
+        for (int attempt = 1; ; attempt++) {
+            String error;
+            try {
+                MongoCollection<Document> col = collection.get();
+                if (pushes == null) {
+                    List<Pending> late = mergeQueuedFields(batch);
+                    pushes = pushUpdates(col, batch);
+                    patches = patchUpdates(late);
+                }
+                pushes = rejected(col, pushes);
+                if (pushes.isEmpty()) patches = rejected(col, patches);
+                if (pushes.isEmpty() && patches.isEmpty()) return;
+                error = (pushes.size() + patches.size()) + " bulk writes rejected";
+            } catch (MongoException e) {
+                error = e.getMessage();
+            } catch (Exception e) {
+                // not a database failure (e.g. no MONGO_URL): retrying will not help
+                System.err.println("⚠️ Failed to write " + batch.size() + " execution logs: " + e.getMessage());
+                return;
+            }
+
+            if (attempt > MAX_RETRIES) {
+                System.err.println("⚠️ Failed to write " + batch.size() + " execution logs after "
+                        + attempt + " attempts: " + error);
+                return;
+            }
+            System.err.println("🔁 Execution log write failed (" + error + ") — retry " + attempt + "/" + MAX_RETRIES);
+            Thread.sleep(RETRY_BACKOFF_MS * attempt);
+        }
+    }
+
+    // 🔹 One $push per (project, subproject, session) group
+    private static List<WriteModel<Document>> pushUpdates(MongoCollection<Document> col, List<Pending> batch) {
+        Map<String, List<Pending>> groups = new LinkedHashMap<>();
+        for (Pending p : batch) {
+            if (p.field == null) groups.computeIfAbsent(p.key(), k -> new ArrayList<>()).add(p);
+        }
+
+        List<WriteModel<Document>> updates = new ArrayList<>();
+        for (List<Pending> group : groups.values()) {
+            Pending head = group.get(0);
+            ensureSession(col, head);
+
+            List<Document> endpoints = new ArrayList<>();
+            for (Pending p : group) endpoints.add(p.endpointData);
+
+            updates.add(new UpdateOneModel<>(
+                    Filters.and(projectFilter(head), Filters.eq("sessions.sessionId", head.sessionId)),
+                    Updates.pushEach("sessions.$.endpoints", endpoints)));
+        }
+        return updates;
+    }
+
+    // 🔸 Writes the models; returns the ones MongoDB rejected (empty when all went through)
+    private static List<WriteModel<Document>> rejected(MongoCollection<Document> col,
+                                                       List<WriteModel<Document>> models) {
+        if (models.isEmpty()) return models;
+        try {
+            col.bulkWrite(models, new BulkWriteOptions().ordered(false));
+            return List.of();
+        } catch (MongoBulkWriteException e) {
+            List<WriteModel<Document>> failed = new ArrayList<>();
+            for (BulkWriteError error : e.getWriteErrors()) failed.add(models.get(error.getIndex()));
+            return failed;
+        }
+    }
+
+    // 🔸 A callId field whose execution is in the same batch is set on the entry itself (no extra update);
+    //    returns the patches that still need one
+    private static List<Pending> mergeQueuedFields(List<Pending> batch) {
+        Map<String, Document> byCallId = new HashMap<>();
+        List<Pending> late = new ArrayList<>();
+        for (Pending p : batch) {
+            if (p.field == null) {
+                Object callId = p.endpointData.get(CALL_ID);
+                if (callId != null) byCallId.put(p.sessionId + "|" + callId, p.endpointData);
+                continue;
+            }
+            Document entry = CALL_ID.equals(p.matchField) ? byCallId.get(p.sessionId + "|" + p.matchValue) : null;
+            if (entry != null) entry.put(p.field, p.endpointData);
+            else late.add(p);
+        }
+        return late;
+    }
+
+    // 🔸 Session ids are unique per run, so the session alone finds the project documents
+    private static List<WriteModel<Document>> patchUpdates(List<Pending> patches) {
+        List<WriteModel<Document>> updates = new ArrayList<>();
+        for (Pending p : patches) {
+            updates.add(new UpdateManyModel<>(
+                    Filters.eq("sessions.sessionId", p.sessionId),
+                    Updates.set("sessions.$[s].endpoints.$[e]." + p.field, p.endpointData),
+                    new UpdateOptions().arrayFilters(List.of(
+                            Filters.eq("s.sessionId", p.sessionId),
+                            Filters.eq("e." + p.matchField, p.matchValue)))));
+        }
+        return updates;
+    }
+
+    // 🔸 Creates the project document and the session entry once per run
+    private static void ensureSession(MongoCollection<Document> col, Pending p) {
+        if (READY_SESSIONS.contains(p.key())) return;
+
+        col.updateOne(projectFilter(p),
+                Updates.setOnInsert("sessions", new ArrayList<>()),
+                new UpdateOptions().upsert(true));
+
+        Document newSession = new Document("sessionId", p.sessionId)
+                .append("createdAt", Instant.now().toString())
+                .append("endpoints", new ArrayList<>());
+        col.updateOne(
+                Filters.and(projectFilter(p), Filters.ne("sessions.sessionId", p.sessionId)),
+                Updates.push("sessions", newSession));
+
+        READY_SESSIONS.add(p.key());
+    }
+
+    private static Bson projectFilter(Pending p) {
+        return Filters.and(Filters.eq("project", p.project), Filters.eq("subproject", p.subproject));
+    }
+
+    private static final class Pending {
+        private final String project;
+        private final String subproject;
+        private final String sessionId;
+        private final Document endpointData;     // execution entry, or the value of a patched field
+        private final String matchField;         // patches only: entry field that selects the executions
+        private final String matchValue;
+        private final String field;              // patches only: field set on those executions
+        private final CountDownLatch flushed;    // set for flush markers only
+
+        private Pending(String project, String subproject, String sessionId, Document endpointData) {
+            this.project = project;
+            this.subproject = subproject;
+            this.sessionId = sessionId;
+            this.endpointData = endpointData;
+            this.matchField = null;
+            this.matchValue = null;
+            this.field = null;
+            this.flushed = null;
+        }
+
+        private Pending(String sessionId, String matchField, String matchValue, String field, Document value) {
+            this.project = null;
+            this.subproject = null;
+            this.sessionId = sessionId;
+            this.endpointData = value;
+            this.matchField = matchField;
+            this.matchValue = matchValue;
+            this.field = field;
+            this.flushed = null;
+        }
+
+        private Pending(CountDownLatch flushed) {
+            this.project = null;
+            this.subproject = null;
+            this.sessionId = null;
+            this.endpointData = null;
+            this.matchField = null;
+            this.matchValue = null;
+            this.field = null;
+            this.flushed = flushed;
+        }
+
+        private String key() {
+            return project + "|" + subproject + "|" + sessionId;
+        }
+    }
+}
@@ -13,6 +13,7 @@ import java.util.stream.Collectors;
  * - Works only for the active project/subproject
  * - Generates HTML summary with success rate and change delta
  * - Uses MongoConnector’s detected project/subproject
+ * - Flags "same status, different shape" from stored response fingerprints
  */
 public class ReportComparator {
 
@@ -153,6 +154,9 @@ public class ReportComparator {
         Set<String> newFails = findNewFailures(prev, latest);
         if (!newFails.isEmpty()) report.append("❌ <b>New Failures:</b> ").append(newFails).append("<br>");
         else report.append("✅ No new failures detected.<br>");
+
+        // 🧬 Hash comparison first; structural diff only for endpoints whose shape changed
+        report.append(ResponseDrift.compare(prev, latest).toHtml());
         report.append("<hr>");
     }
 
@@ -0,0 +1,122 @@
+package org.allureIQ.models;
+
+import org.allureIQ.AI.AiAutoContext;
+import org.allureIQ.API.JsonShape;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 🧬 Run-to-run response drift
+ * ----------------------------------------------
+ * - Compares two sessions' endpoint entries by their stored fingerprints (shapeHash / valueHash)
+ * - Same status + different shape hash → structural regression; only these get a structural diff,
+ *   from the shape paths stored at log time (the stored response is only a sanitized head);
+ *   entries logged before shape paths existed fall back to diffing that head
+ * - Same status + same shape + different value hash → data changed, listed without diffing
+ * - Entries logged before fingerprints existed are ignored
+ */
+public final class ResponseDrift {
+
+    private static final int MAX_DIFF_LINES = 12;
+
+    private final List<String> shapeChanges = new ArrayList<>();
+    private final List<String> valueChanges = new ArrayList<>();
+    private int compared;
+
+    private ResponseDrift() {
+    }
+
+    public static ResponseDrift compare(List<Document> prevEndpoints, List<Document> latestEndpoints) {
+        ResponseDrift drift = new ResponseDrift();
+        Map<String, Document> prev = lastByEndpoint(prevEndpoints);
+        Map<String, Document> latest = lastByEndpoint(latestEndpoints);
+
+        latest.forEach((key, now) -> {
+            Document before = prev.get(key);
+            if (before == null || before.getInteger("status", 0) != now.getInteger("status", 0)) return;
+            drift.compared++;
+
+            if (!before.getString("shapeHash").equals(now.getString("shapeHash"))) {
+                List<String> beforePaths = before.getList("shapePaths", String.class);
+                List<String> nowPaths = now.getList("shapePaths", String.class);
+                List<String> diff = beforePaths != null && nowPaths != null
+                        ? JsonShape.diffPaths(beforePaths, nowPaths)
+                        // 🔍 older entries: only here are the stored bodies parsed
+                        : JsonShape.diff(before.getString("response"), now.getString("response"));
+                drift.shapeChanges.add(describe(key, now.getInteger("status", 0), diff));
+            } else if (!String.valueOf(before.getString("valueHash")).equals(now.getString("valueHash"))) {
+                drift.valueChanges.add(key);
+            }
+        });
+        return drift;
+    }
+
+    // 🔹 Last fingerprinted execution per "METHOD /normalized/{id}"
+    private static Map<String, Document> lastByEndpoint(List<Document> endpoints) {
+        Map<String, Document> byKey = new LinkedHashMap<>();
+        if (endpoints == null) return byKey;
+        for (Document d : endpoints) {
+            if (d.getString("shapeHash") == null) continue;
+            byKey.put(d.getString("method") + " " + AiAutoContext.normalizeEndpoint(d.getString("endpoint")), d);
+        }
+        return byKey;
+    }
+
+    private static String describe(String key, int status, List<String> diff) {
+        StringBuilder sb = new StringBuilder("<li><b>").append(escape(key)).append("</b> (").append(status).append(")");
+        if (diff.isEmpty()) {
+            sb.append(" — shape too large to store, or bodies not JSON: no structural diff");
+        } else {
+            sb.append("<br><code>");
+            for (int i = 0; i < Math.min(diff.size(), MAX_DIFF_LINES); i++) {
+                sb.append(i > 0 ? "<br>" : "").append(escape(diff.get(i)));
+            }
+            if (diff.size() > MAX_DIFF_LINES) sb.append("<br>… ").append(diff.size() - MAX_DIFF_LINES).append(" more");
+            sb.append("</code>");
+        }
+        return sb.append("</li>").toString();
+    }
+
+    private static String escape(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    // ---------- Accessors ----------
+    public boolean hasShapeChanges() {
+        return !shapeChanges.isEmpty();
+    }
+
+    public int shapeChangeCount() {
+        return shapeChanges.size();
+    }
+
+    public int valueChangeCount() {
+        return valueChanges.size();
+    }
+
+    /** Endpoints compared (present in both sessions with the same status and a fingerprint). */
+    public int compared() {
+        return compared;
+    }
+
+    public String toHtml() {
+        if (compared == 0) return "";
+        StringBuilder html = new StringBuilder();
+        if (!shapeChanges.isEmpty()) {
+            html.append("🧬 <b>Same status, different shape:</b><ul>");
+            shapeChanges.forEach(html::append);
+            html.append("</ul>");
+        }
+        if (!valueChanges.isEmpty()) {
+            html.append("🔁 <b>Same shape, different data:</b> ").append(escape(valueChanges.toString())).append("<br>");
+        }
+        if (shapeChanges.isEmpty() && valueChanges.isEmpty()) {
+            html.append("🧬 Response fingerprints unchanged (").append(compared).append(" endpoints).<br>");
+        }
+        return html.toString();
+    }
+}
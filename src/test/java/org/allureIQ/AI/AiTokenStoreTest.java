@@ -0,0 +1,87 @@
+package org.allureIQ.AI;
+
+import com.sun.net.httpserver.HttpServer;
+import org.allureIQ.API.ApiReuse;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 🔑 Single-flight login must not wait on itself when the login call asks for a token again
+ * (login paths without "/login", e.g. /auth/token, go through token injection).
+ */
+public class AiTokenStoreTest {
+
+    private HttpServer server;
+    private final AtomicInteger logins = new AtomicInteger();
+    private final AtomicReference<String> seenAuthorization = new AtomicReference<>();
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        System.setProperty("projectName", "AiTokenStoreTest");
+        System.setProperty("allureiq.token.persist", "false");
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/auth/token", exchange -> {
+            logins.incrementAndGet();
+            reply(exchange, "{\"token\":\"tok-" + logins.get() + "\"}");
+        });
+        server.createContext("/api/items", exchange -> {
+            seenAuthorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+            reply(exchange, "[]");
+        });
+        server.start();
+        ApiReuse.uri("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @AfterClass
+    public void stopServer() {
+        AiTokenStore.setLoginHandler(null);
+        AiTokenStore.clear();
+        server.stop(0);
+    }
+
+    @Test(timeOut = 5000)
+    public void reentrantGetDuringLoginReturnsInsteadOfJoiningItself() {
+        AiTokenStore.clear();
+        AiTokenStore.setLoginHandler(() -> {
+            AiTokenStore.get();   // what token injection does for the login request
+            return "reentrant-token";
+        });
+
+        Assert.assertEquals(AiTokenStore.get(), "reentrant-token");
+    }
+
+    @Test(timeOut = 10000)
+    public void autoLoginOnPathWithoutLoginSegment() {
+        AiTokenStore.clear();
+        logins.set(0);
+        ApiReuse.autoLogin(new ApiReuse("/auth/token", "POST", "{\"user\":\"u\",\"password\":\"p\"}"), new HashMap<>());
+
+        Map<String, String> headers = new HashMap<>();
+        ApiReuse.call(new ApiReuse("/api/items", "GET", null), headers);
+
+        Assert.assertEquals(logins.get(), 1);
+        Assert.assertEquals(seenAuthorization.get(), "Bearer tok-1");
+    }
+
+    private static void reply(com.sun.net.httpserver.HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.allureIQ.AI;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+/**
+ * ⚠️ parseHints() reads the JSON array out of whatever the model answered: code fences, prose
+ * around it, and answers cut off mid-array.
+ */
+public class FailureHintPipelineTest {
+
+    @Test
+    public void fencedArrayWithProse() {
+        String answer = "Here are the hints:\n```json\n[\n"
+                + "  {\"id\": \"a1\", \"cause\": \"Missing token\", \"fix\": \"Log in first\"},\n"
+                + "  {\"id\": \"b2\", \"cause\": \"Unknown id\", \"fix\": \"Create the item\"}\n"
+                + "]\n```\nLet me know if you need more.";
+
+        Map<String, String[]> hints = FailureHintPipeline.parseHints(answer);
+
+        Assert.assertEquals(hints.size(), 2);
+        Assert.assertEquals(hints.get("a1"), new String[]{"Missing token", "Log in first"});
+        Assert.assertEquals(hints.get("b2"), new String[]{"Unknown id", "Create the item"});
+    }
+
+    @Test
+    public void truncatedAnswerKeepsCompleteObjects() {
+        String answer = "[{\"id\":\"a1\",\"cause\":\"c1\",\"fix\":\"f1\"},"
+                + "{\"id\":\"b2\",\"cause\":\"c2\",\"fix\":\"f2\"},"
+                + "{\"id\":\"c3\",\"cause\":\"cut off mid";
+
+        Map<String, String[]> hints = FailureHintPipeline.parseHints(answer);
+
+        Assert.assertEquals(hints.size(), 2);
+        Assert.assertEquals(hints.get("b2"), new String[]{"c2", "f2"});
+        Assert.assertNull(hints.get("c3"));
+    }
+
+    @Test
+    public void extraFieldsNullsAndOddEntriesAreSkipped() {
+        String answer = "[\"not an object\", "
+                + "{\"id\":\" x9 \",\"confidence\":0.8,\"cause\":\" Bad date \",\"fix\":null,\"refs\":[1,2]},"
+                + "{\"cause\":\"no id\",\"fix\":\"ignored\"}]";
+
+        Map<String, String[]> hints = FailureHintPipeline.parseHints(answer);
+
+        Assert.assertEquals(hints.size(), 1);
+        Assert.assertEquals(hints.get("x9"), new String[]{"Bad date", ""});
+    }
+
+    @Test
+    public void noArrayMeansNoHints() {
+        Assert.assertTrue(FailureHintPipeline.parseHints("Sorry, I cannot help with that.").isEmpty());
+        Assert.assertTrue(FailureHintPipeline.parseHints(null).isEmpty());
+        Assert.assertTrue(FailureHintPipeline.parseHints("[").isEmpty());
+    }
+}
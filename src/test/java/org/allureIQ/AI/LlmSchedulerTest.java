@@ -0,0 +1,141 @@
+package org.allureIQ.AI;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🚦 Rate-limit header parsing, backoff bounds, and priority order once every slot is busy.
+ */
+public class LlmSchedulerTest {
+
+    private static final int SLOTS = Math.max(1, Integer.getInteger("allureiq.llm.maxInFlight", 8));
+
+    @Test
+    public void retryAfterDeltaSeconds() {
+        Assert.assertEquals(LlmScheduler.retryAfterMillis("120"), 120_000L);
+        Assert.assertEquals(LlmScheduler.retryAfterMillis(" 1.5 "), 1_500L);
+        Assert.assertEquals(LlmScheduler.retryAfterMillis("0"), 0L);
+        Assert.assertEquals(LlmScheduler.retryAfterMillis(null), -1L);
+        Assert.assertEquals(LlmScheduler.retryAfterMillis("soon"), -1L);
+    }
+
+    @Test
+    public void retryAfterHttpDate() {
+        String in30s = DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.now().plusSeconds(30).atZone(ZoneOffset.UTC));
+        long wait = LlmScheduler.retryAfterMillis(in30s);
+        Assert.assertTrue(wait > 28_000 && wait <= 30_000, "wait " + wait);
+
+        String past = DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.now().minusSeconds(30).atZone(ZoneOffset.UTC));
+        Assert.assertEquals(LlmScheduler.retryAfterMillis(past), 0L);
+    }
+
+    @Test
+    public void resetFormats() {
+        long now = System.currentTimeMillis();
+        long epochMs = now + 60_000;
+        long epochS = now / 1000 + 60;
+
+        Assert.assertEquals(LlmScheduler.resetAtMillis(Long.toString(epochMs)), epochMs);
+        Assert.assertEquals(LlmScheduler.resetAtMillis(Long.toString(epochS)), epochS * 1000);
+        assertAround(LlmScheduler.resetAtMillis("20"), now + 20_000);
+        assertAround(LlmScheduler.resetAtMillis("6m0s"), now + 360_000);
+        assertAround(LlmScheduler.resetAtMillis("1m30.5s"), now + 90_500);
+        assertAround(LlmScheduler.resetAtMillis("250ms"), now + 250);
+        Assert.assertEquals(LlmScheduler.resetAtMillis("later"), -1L);
+        Assert.assertEquals(LlmScheduler.resetAtMillis(""), -1L);
+    }
+
+    @Test
+    public void backoffStaysBetweenHalfAndCeiling() {
+        long base = Long.getLong("allureiq.llm.backoffBaseMs", 500L);
+        long max = Long.getLong("allureiq.llm.backoffMaxMs", 30_000L);
+        for (int tries = 0; tries <= 40; tries++) {
+            long ceiling = Math.min(max, base << Math.min(tries, 20));
+            for (int i = 0; i < 50; i++) {
+                long delay = LlmScheduler.backoffMillis(tries);
+                Assert.assertTrue(delay >= ceiling / 2 && delay <= ceiling, "tries " + tries + ": " + delay);
+            }
+        }
+    }
+
+    @Test
+    public void tokenBucketWaitsForTheNextToken() {
+        LlmScheduler.TokenBucket bucket = new LlmScheduler.TokenBucket(2, 60_000);
+        Assert.assertEquals(bucket.take(), 0L);
+        Assert.assertEquals(bucket.take(), 0L);
+        long wait = bucket.take();
+        Assert.assertTrue(wait > 29_000 && wait <= 30_000, "wait " + wait);
+
+        bucket.sync(10, 0);
+        Assert.assertEquals(bucket.capacity(), 10.0);
+        Assert.assertTrue(bucket.available() < 1);
+    }
+
+    @Test(timeOut = 20000)
+    public void highPriorityOvertakesLowWhenSlotsAreBusy() throws Exception {
+        Semaphore gate = new Semaphore(0);
+        CountDownLatch busy = new CountDownLatch(SLOTS);
+        List<CompletableFuture<LlmReply>> blockers = new ArrayList<>();
+        for (int i = 0; i < SLOTS; i++) {
+            blockers.add(LlmScheduler.submit(CallSite.PAYLOAD, () -> {
+                busy.countDown();
+                gate.acquire();
+                return ok();
+            }));
+        }
+        Assert.assertTrue(busy.await(10, TimeUnit.SECONDS), "blockers did not start");
+
+        // queued while every slot is taken: LOW first, HIGH second
+        List<CallSite> started = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<LlmReply> low = LlmScheduler.submit(CallSite.FAILURE_HINT, () -> {
+            started.add(CallSite.FAILURE_HINT);
+            return ok();
+        });
+        CompletableFuture<LlmReply> high = LlmScheduler.submit(CallSite.TEST_DATA, () -> {
+            started.add(CallSite.TEST_DATA);
+            return ok();
+        });
+        Thread.sleep(300);   // the dispatcher is now waiting for a slot
+
+        gate.release(1);
+        high.get(10, TimeUnit.SECONDS);
+        gate.release(SLOTS);
+        low.get(10, TimeUnit.SECONDS);
+        for (CompletableFuture<LlmReply> b : blockers) b.get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(started, List.of(CallSite.TEST_DATA, CallSite.FAILURE_HINT));
+    }
+
+    @Test(timeOut = 10000)
+    public void nullReplyFailsTheCallInsteadOfHanging() throws Exception {
+        CompletableFuture<LlmReply> reply = LlmScheduler.submit(CallSite.GENERIC, () -> null);
+        try {
+            reply.get(5, TimeUnit.SECONDS);
+            Assert.fail("a null reply must complete exceptionally");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException, String.valueOf(e.getCause()));
+        }
+    }
+
+    private static LlmReply ok() {
+        return new LlmReply(200, "ok", null, Map.of(), 1, 1);
+    }
+
+    private static void assertAround(long actual, long expected) {
+        Assert.assertTrue(Math.abs(actual - expected) < 2_000, "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,71 @@
+package org.allureIQ.AI;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * 🧬 MinHash / LSH near-duplicate lookup: equal up to ids, dates and numbers → same answer,
+ * only within the same scope.
+ */
+public class SimilarPromptCacheTest {
+
+    static {
+        // in memory only: the test must not read or write target/allureiq-similar-cache.json
+        System.setProperty("allureiq.llm.similar", "memory");
+    }
+
+    private static final String FAILURE = "{\"userId\":\"3f2b8c1e-9a7d-4e21-b0c4-55aa10f3e9d2\",\"amount\":125.50}\n"
+            + "{\"error\":\"Order 48211 rejected at 2024-03-18T09:12:44Z: insufficient balance\"}";
+    private static final String SAME_WITH_OTHER_IDS = "{\"userId\":\"0c41d7aa-1b2e-4f3a-9e8d-7788990011ab\",\"amount\":9.99}\n"
+            + "{\"error\":\"Order 51907 rejected at 2025-11-02T17:40:01Z: insufficient balance\"}";
+    private static final String DIFFERENT = "{\"sku\":\"A-1\"}\n"
+            + "{\"message\":\"Product catalogue is being rebuilt, try again later\",\"retryable\":true}";
+
+    @Test
+    public void normalizeMasksIdsDatesAndNumbers() {
+        Assert.assertEquals(SimilarPromptCache.normalize(FAILURE), SimilarPromptCache.normalize(SAME_WITH_OTHER_IDS));
+        Assert.assertEquals(SimilarPromptCache.normalize("Id 42  at 10:15 for 5f0c3a9b2e7d"),
+                "id # at #time for #hex");
+    }
+
+    @Test
+    public void signaturesEstimateSimilarity() {
+        int[] a = SimilarPromptCache.signature(FAILURE);
+
+        Assert.assertEquals(SimilarPromptCache.similarity(a, SimilarPromptCache.signature(SAME_WITH_OTHER_IDS)), 1.0);
+        Assert.assertTrue(SimilarPromptCache.similarity(a, SimilarPromptCache.signature(DIFFERENT)) < 0.5);
+
+        // one changed word in a long text stays close to the original
+        double close = SimilarPromptCache.similarity(a,
+                SimilarPromptCache.signature(FAILURE.replace("insufficient", "unsufficient")));
+        Assert.assertTrue(close > 0.6 && close < 1.0, "similarity " + close);
+    }
+
+    @Test
+    public void nearDuplicateInSameScopeReusesTheAnswer() {
+        String scope = "POST /orders 422 " + System.nanoTime();
+        SimilarPromptCache.put(CallSite.FAILURE_HINT, scope, FAILURE, "{\"cause\":\"balance\",\"fix\":\"top up\"}");
+
+        Assert.assertEquals(SimilarPromptCache.get(CallSite.FAILURE_HINT, scope, SAME_WITH_OTHER_IDS),
+                "{\"cause\":\"balance\",\"fix\":\"top up\"}");
+        Assert.assertNull(SimilarPromptCache.get(CallSite.FAILURE_HINT, scope, DIFFERENT));
+    }
+
+    @Test
+    public void otherScopeNeverMatches() {
+        String scope = "POST /orders 422 " + System.nanoTime();
+        SimilarPromptCache.put(CallSite.FAILURE_HINT, scope, FAILURE, "{\"cause\":\"c\",\"fix\":\"f\"}");
+
+        Assert.assertNull(SimilarPromptCache.get(CallSite.FAILURE_HINT, "POST /orders 500 " + System.nanoTime(), FAILURE));
+    }
+
+    @Test
+    public void hitsAreCounted() {
+        String scope = "GET /items/{id} 404 " + System.nanoTime();
+        long before = SimilarPromptCache.hits();
+        SimilarPromptCache.put(CallSite.FAILURE_HINT, scope, FAILURE, "{\"cause\":\"c\",\"fix\":\"f\"}");
+        SimilarPromptCache.get(CallSite.FAILURE_HINT, scope, SAME_WITH_OTHER_IDS);
+
+        Assert.assertEquals(SimilarPromptCache.hits(), before + 1);
+    }
+}
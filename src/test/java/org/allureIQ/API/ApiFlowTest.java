@@ -0,0 +1,128 @@
+package org.allureIQ.API;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 🧩 The flow graph is checked before anything runs, and a failed step skips everything
+ * downstream of it, but nothing else.
+ */
+public class ApiFlowTest {
+
+    private HttpServer server;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        System.setProperty("projectName", "ApiFlowTest");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/jobs", exchange -> reply(exchange, 500, "{\"error\":\"boom\"}"));
+        server.createContext("/health", exchange -> reply(exchange, 200, "{\"status\":\"up\"}"));
+        server.start();
+        ApiReuse.uri("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @AfterClass
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void cycleIsReportedWithItsPath() {
+        ApiFlow flow = new ApiFlow(null);
+        flow.step("a", get("/a")).after("c")
+                .step("b", get("/b")).after("a")
+                .step("c", get("/c")).after("b");
+
+        IllegalStateException e = Assert.expectThrows(IllegalStateException.class, flow::dependencies);
+        Assert.assertTrue(e.getMessage().endsWith("a → c → b → a"), e.getMessage());
+    }
+
+    @Test
+    public void consumedValueNeedsAProducer() {
+        ApiFlow flow = new ApiFlow(null);
+        flow.step("read", get("/jobs/1")).consumes("jobId");
+
+        IllegalStateException e = Assert.expectThrows(IllegalStateException.class, flow::dependencies);
+        Assert.assertTrue(e.getMessage().contains("'read' consumes 'jobId'"), e.getMessage());
+    }
+
+    @Test
+    public void valueMayHaveOnlyOneExtractor() {
+        ApiFlow flow = new ApiFlow(null);
+        flow.step("first", get("/a")).extract("jobId", "_id")
+                .step("second", get("/b")).extract("jobId", "id");
+
+        IllegalStateException e = Assert.expectThrows(IllegalStateException.class, flow::dependencies);
+        Assert.assertTrue(e.getMessage().contains("'jobId' is extracted by both 'first' and 'second'"), e.getMessage());
+    }
+
+    @Test
+    public void unknownAfterStepIsRejected() {
+        ApiFlow flow = new ApiFlow(null);
+        flow.step("delete", get("/a")).after("update");
+
+        Assert.expectThrows(IllegalStateException.class, flow::dependencies);
+        Assert.expectThrows(IllegalArgumentException.class, () -> flow.step("delete", get("/b")));
+    }
+
+    @Test
+    public void placeholdersAndLoginBecomeDependencies() {
+        ApiFlow flow = new ApiFlow(null);
+        flow.step("login", new ApiReuse("/auth/login", "POST", "{}")).authenticates()
+                .step("create", new ApiReuse("/jobs", "POST", "{}")).extract("jobId", "_id")
+                .step("read", get("/jobs/{jobId}"))
+                .step("note", new ApiReuse("/notes", "POST", "{\"job\":\"{jobId}\"}"))
+                .step("page", get("/jobs?page={page}"))   // nothing produces "page": no dependency
+                .step("delete", new ApiReuse("/jobs/{jobId}", "DELETE", null)).after("read", "note");
+
+        Map<String, Set<String>> deps = flow.dependencies();
+
+        Assert.assertEquals(deps.get("login"), Set.of());
+        Assert.assertEquals(deps.get("create"), Set.of("login"));
+        Assert.assertEquals(deps.get("read"), Set.of("create", "login"));
+        Assert.assertEquals(deps.get("note"), Set.of("create", "login"));
+        Assert.assertEquals(deps.get("page"), Set.of("login"));
+        Assert.assertEquals(deps.get("delete"), Set.of("create", "read", "note", "login"));
+    }
+
+    @Test(timeOut = 20000)
+    public void failedStepSkipsOnlyItsDependents() {
+        ApiFlow.Result result = new ApiFlow(null)
+                .step("create", new ApiReuse("/jobs", "POST", "{}")).extract("jobId", "_id")
+                .step("read", get("/jobs/{jobId}"))
+                .step("delete", new ApiReuse("/jobs/{jobId}", "DELETE", null)).after("read")
+                .step("health", get("/health"))
+                .run();
+
+        Assert.assertFalse(result.succeeded());
+        Assert.assertEquals(result.failures().keySet(), Set.of("create"));
+        Assert.assertEquals(result.skipped(), Set.of("read", "delete"));
+        Assert.assertEquals(result.response("health").getStatusCode(), 200);
+        Assert.assertNull(result.response("read"));
+    }
+
+    private static ApiReuse get(String endpoint) {
+        return new ApiReuse(endpoint, "GET", null);
+    }
+
+    private static void reply(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
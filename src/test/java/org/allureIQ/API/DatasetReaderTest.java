@@ -0,0 +1,68 @@
+package org.allureIQ.API;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 📄 CSV rows come out the same whatever the line endings, and quoted fields keep their
+ * commas, line breaks and "" escapes.
+ */
+public class DatasetReaderTest {
+
+    private static List<Map<String, String>> read(String csv) throws IOException, InterruptedException {
+        List<Map<String, String>> rows = new ArrayList<>();
+        DatasetReader.readCsv(new StringReader(csv), rows::add);
+        return rows;
+    }
+
+    @Test
+    public void crlfLfAndCrGiveTheSameRows() throws Exception {
+        List<Map<String, String>> lf = read("id,name\n1,alpha\n2,beta\n");
+
+        Assert.assertEquals(lf, List.of(Map.of("id", "1", "name", "alpha"), Map.of("id", "2", "name", "beta")));
+        Assert.assertEquals(read("id,name\r\n1,alpha\r\n2,beta\r\n"), lf);
+        Assert.assertEquals(read("id,name\r1,alpha\r2,beta\r"), lf);
+    }
+
+    @Test
+    public void doubledQuotesInsideQuotedField() throws Exception {
+        List<Map<String, String>> rows = read("id,body\r\n1,\"{\"\"user\"\":\"\"bob\"\"}\"\r\n2,\"\"\"\"\r\n");
+
+        Assert.assertEquals(rows.get(0).get("body"), "{\"user\":\"bob\"}");
+        Assert.assertEquals(rows.get(1).get("body"), "\"");
+    }
+
+    @Test
+    public void quotedCommaAndLineBreakStayInTheField() throws Exception {
+        List<Map<String, String>> rows = read("id,note\r\n1,\"a, b\r\nc\"\r\n2,plain\r\n");
+
+        Assert.assertEquals(rows.size(), 2);
+        Assert.assertEquals(rows.get(0).get("note"), "a, b\r\nc");
+        Assert.assertEquals(rows.get(1).get("note"), "plain");
+    }
+
+    @Test
+    public void headerIsTrimmedAndLosesItsBom() throws Exception {
+        List<Map<String, String>> rows = read("\uFEFFid , name\n1,x\n");
+
+        Assert.assertEquals(List.copyOf(rows.get(0).keySet()), List.of("id", "name"));
+    }
+
+    @Test
+    public void blankLinesSkippedAndMissingValuesEmpty() throws Exception {
+        List<Map<String, String>> rows = read("a,b,c\r\n\r\n1\r\n\n2,,\"\"\r\n");
+
+        Assert.assertEquals(rows, List.of(Map.of("a", "1", "b", "", "c", ""), Map.of("a", "2", "b", "", "c", "")));
+    }
+
+    @Test
+    public void lastRowWithoutLineBreakIsKept() throws Exception {
+        Assert.assertEquals(read("a,b\r\n1,\"x\"\"y\""), List.of(Map.of("a", "1", "b", "x\"y")));
+    }
+}
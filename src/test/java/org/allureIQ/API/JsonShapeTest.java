@@ -0,0 +1,84 @@
+package org.allureIQ.API;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * 🧬 Fingerprints ignore key order, separate structure from data, and the stored shape paths
+ * explain a shape change the same way a diff of the full bodies would.
+ */
+public class JsonShapeTest {
+
+    private static final String ORIGINAL = "{\"id\":7,\"owner\":{\"name\":\"x\",\"age\":3},\"tags\":[\"a\",\"b\"]}";
+    private static final String REORDERED = "{\"tags\":[\"a\",\"b\"],\"owner\":{\"age\":3,\"name\":\"x\"},\"id\":7}";
+
+    @Test
+    public void reorderedKeysKeepShapeAndValueHash() {
+        JsonShape.Fingerprint a = JsonShape.fingerprint(ORIGINAL);
+        JsonShape.Fingerprint b = JsonShape.fingerprint(REORDERED);
+
+        Assert.assertEquals(b.shapeHash(), a.shapeHash());
+        Assert.assertEquals(b.valueHash(), a.valueHash());
+        Assert.assertEquals(b.shapePaths(), a.shapePaths());
+        Assert.assertEquals(JsonShape.describe(REORDERED), "{id:n,owner:{age:n,name:s},tags:[s]}");
+    }
+
+    @Test
+    public void reorderedArrayElementsChangeOnlyTheValueHash() {
+        JsonShape.Fingerprint a = JsonShape.fingerprint("[1,2]");
+        JsonShape.Fingerprint b = JsonShape.fingerprint("[2,1]");
+
+        Assert.assertEquals(b.shapeHash(), a.shapeHash());
+        Assert.assertNotEquals(b.valueHash(), a.valueHash());
+    }
+
+    @Test
+    public void changedValueKeepsShape() {
+        JsonShape.Fingerprint a = JsonShape.fingerprint(ORIGINAL);
+        JsonShape.Fingerprint b = JsonShape.fingerprint(ORIGINAL.replace("\"x\"", "\"y\""));
+
+        Assert.assertEquals(b.shapeHash(), a.shapeHash());
+        Assert.assertNotEquals(b.valueHash(), a.valueHash());
+    }
+
+    @Test
+    public void shapePathsDescribeEveryLevel() {
+        Assert.assertEquals(JsonShape.fingerprint(ORIGINAL).shapePaths(), List.of(
+                "$:{}", "$.id:n", "$.owner:{}", "$.owner.age:n", "$.owner.name:s", "$.tags:[]", "$.tags[]:s"));
+    }
+
+    @Test
+    public void diffOfStoredPathsMatchesDiffOfBodies() {
+        String changed = "{\"id\":\"7\",\"owner\":{\"name\":\"x\"},\"tags\":[\"a\",1],\"extra\":true}";
+
+        List<String> fromBodies = JsonShape.diff(REORDERED, changed);
+        List<String> fromPaths = JsonShape.diffPaths(JsonShape.fingerprint(REORDERED).shapePaths(),
+                JsonShape.fingerprint(changed).shapePaths());
+
+        Assert.assertEquals(fromPaths, fromBodies);
+        Assert.assertEquals(fromPaths, List.of(
+                "~ $.id: n → s",
+                "- $.owner.age:n",
+                "~ $.tags[]: s → n|s",
+                "+ $.extra:b"));
+    }
+
+    @Test
+    public void reorderedKeysHaveNoDiff() {
+        Assert.assertTrue(JsonShape.diff(ORIGINAL, REORDERED).isEmpty());
+        Assert.assertTrue(JsonShape.diffPaths(JsonShape.fingerprint(ORIGINAL).shapePaths(),
+                JsonShape.fingerprint(REORDERED).shapePaths()).isEmpty());
+    }
+
+    @Test
+    public void nonJsonHasTextShapeAndNoPaths() {
+        JsonShape.Fingerprint text = JsonShape.fingerprint("<html>error</html>");
+
+        Assert.assertEquals(JsonShape.describe("<html>error</html>"), JsonShape.TEXT);
+        Assert.assertNull(text.shapePaths());
+        Assert.assertNotEquals(JsonShape.fingerprint("<html>other</html>").valueHash(), text.valueHash());
+        Assert.assertTrue(JsonShape.diffPaths(null, JsonShape.fingerprint(ORIGINAL).shapePaths()).isEmpty());
+    }
+}
@@ -0,0 +1,52 @@
+package org.allureIQ.API;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * 🚀 Arrival schedule: a linear ramp from 0 to the target rate, then the steady rate.
+ */
+public class LoadRunnerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void withoutRampArrivalsAreEvenlySpaced() {
+        Assert.assertEquals(LoadRunner.arrivalOffsetNanos(0, 10, 0), 0L);
+        Assert.assertEquals(LoadRunner.arrivalOffsetNanos(5, 10, 0), SECOND / 2);
+        Assert.assertEquals(LoadRunner.arrivalOffsetNanos(30, 10, 0), 3 * SECOND);
+    }
+
+    @Test
+    public void rampArrivalsFollowTheQuadratic() {
+        // 10 req/s reached after 10 s: N(t) = t² / 2, so the 2nd arrival is at 2 s and the 8th at 4 s
+        Assert.assertEquals(LoadRunner.arrivalOffsetNanos(0, 10, 10 * SECOND), 0L);
+        Assert.assertEquals(LoadRunner.arrivalOffsetNanos(2, 10, 10 * SECOND), 2 * SECOND);
+        Assert.assertEquals(LoadRunner.arrivalOffsetNanos(8, 10, 10 * SECOND), 4 * SECOND);
+        // 50 arrivals during the ramp, then one every 100 ms
+        Assert.assertEquals(LoadRunner.arrivalOffsetNanos(50, 10, 10 * SECOND), 10 * SECOND);
+        Assert.assertEquals(LoadRunner.arrivalOffsetNanos(60, 10, 10 * SECOND), 11 * SECOND);
+    }
+
+    @Test
+    public void scheduleIsMonotonicAndSmoothAtTheRampEnd() {
+        long previous = -1;
+        for (long i = 0; i < 2_000; i++) {
+            long offset = LoadRunner.arrivalOffsetNanos(i, 20, 5 * SECOND);
+            Assert.assertTrue(offset >= previous, "arrival " + i + " goes back in time");
+            previous = offset;
+        }
+        // the last ramp gap is already close to the steady 50 ms
+        long lastRampGap = LoadRunner.arrivalOffsetNanos(50, 20, 5 * SECOND) - LoadRunner.arrivalOffsetNanos(49, 20, 5 * SECOND);
+        Assert.assertTrue(lastRampGap >= 50_000_000L && lastRampGap < 51_000_000L, "gap " + lastRampGap);
+    }
+
+    @Test
+    public void requestCountMatchesTheProfile() {
+        // 20 req/s, 5 s ramp, 15 s total: 20·5/2 during the ramp + 20·10 after it
+        long total = 15 * SECOND;
+        long count = 0;
+        while (LoadRunner.arrivalOffsetNanos(count, 20, 5 * SECOND) < total) count++;
+        Assert.assertEquals(count, 250L);
+    }
+}
@@ -0,0 +1,96 @@
+package org.allureIQ.API;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+/**
+ * 🧼 The streaming sanitizer must mask the same values whether the body arrives at once or in
+ * small chunks, and must not lose track of strings around escaped quotes.
+ */
+public class StreamingSanitizerTest {
+
+    private final StreamingSanitizer sanitizer =
+            new StreamingSanitizer(List.of("token", "password"), List.of(), Integer.MAX_VALUE);
+
+    @Test
+    public void masksSensitiveStringValues() {
+        Assert.assertEquals(sanitizer.sanitize("{\"user\":\"bob\",\"password\":\"hunter2\"}"),
+                "{\"user\":\"bob\",\"password\":\"***\"}");
+        Assert.assertEquals(sanitizer.sanitize("{\"accessToken\" : \"abc.def\"}"),
+                "{\"accessToken\" : \"***\"}");
+    }
+
+    @Test
+    public void secretSplitAcrossChunksIsStillMasked() throws IOException {
+        String body = "{\"id\":7,\"token\":\"eyJhbGciOiJIUzI1NiJ9.payload.signature\",\"name\":\"x\"}";
+        String expected = sanitizer.sanitize(body);
+        Assert.assertEquals(expected, "{\"id\":7,\"token\":\"***\",\"name\":\"x\"}");
+
+        // every chunk size cuts the key, the colon or the value somewhere else
+        for (int chunk = 1; chunk <= 16; chunk++) {
+            Assert.assertEquals(sanitizer.sanitize(new ChunkedReader(body, chunk)), expected, "chunk size " + chunk);
+        }
+    }
+
+    @Test
+    public void escapedQuotesDoNotEndTheString() {
+        String body = "{\"note\":\"say \\\"token\\\": \\\"x\\\"\",\"password\":\"a\\\"b\\\\\",\"next\":\"ok\"}";
+        Assert.assertEquals(sanitizer.sanitize(body),
+                "{\"note\":\"say \\\"token\\\": \\\"x\\\"\",\"password\":\"***\",\"next\":\"ok\"}");
+    }
+
+    @Test
+    public void escapedQuoteAtChunkEdge() throws IOException {
+        String body = "{\"password\":\"p\\\"w\",\"user\":\"u\"}";
+        for (int chunk = 1; chunk <= 8; chunk++) {
+            Assert.assertEquals(sanitizer.sanitize(new ChunkedReader(body, chunk)),
+                    "{\"password\":\"***\",\"user\":\"u\"}", "chunk size " + chunk);
+        }
+    }
+
+    @Test
+    public void onlyStringValuesAreMasked() {
+        Assert.assertEquals(sanitizer.sanitize("{\"tokenCount\":3,\"password\":null}"),
+                "{\"tokenCount\":3,\"password\":null}");
+    }
+
+    @Test
+    public void lineBreaksBecomeSpacesUnlessKept() {
+        String body = "{\"a\":1,\r\n\"password\":\"p\"\n}";
+        Assert.assertEquals(sanitizer.sanitize(body), "{\"a\":1, \"password\":\"***\" }");
+        Assert.assertEquals(StreamingSanitizer.forJournal().sanitize(body), "{\"a\":1,\r\n\"password\":\"***\"\n}");
+    }
+
+    @Test
+    public void budgetCutsOutputAndMarksIt() {
+        StreamingSanitizer small = new StreamingSanitizer(List.of("token"), List.of(), 10);
+        String out = small.sanitize("{\"message\":\"a long value that does not fit\"}");
+        Assert.assertTrue(out.endsWith(StreamingSanitizer.TRUNCATED), out);
+        Assert.assertTrue(out.length() <= 10 + StreamingSanitizer.TRUNCATED.length(), out);
+    }
+
+    // 🔹 Hands out at most n chars per read()
+    private static final class ChunkedReader extends Reader {
+        private final Reader in;
+        private final int n;
+
+        private ChunkedReader(String text, int n) {
+            this.in = new StringReader(text);
+            this.n = n;
+        }
+
+        @Override
+        public int read(char[] buf, int off, int len) throws IOException {
+            return in.read(buf, off, Math.min(len, n));
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.allureIQ.benchmarks;
+
+import org.allureIQ.API.StreamingSanitizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ JMH: StreamingSanitizer vs the previous regex implementations
+ * -------------------------------------------------
+ *  - legacyApiReuse*  : the old ApiReuse.sanitize (3 × replaceAll, then truncate to 2000)
+ *  - legacySearch*    : the old AiUnifiedSearchEngineAtlas String.matches(".*...") check
+ *  - streaming*       : StreamingSanitizer on a CharSequence and on a Reader
+ * Bodies: 1 KB, 100 KB and 5 MB of JSON with tokens, passwords, URLs and line breaks.
+ *
+ * Run:  mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *       java -cp target/test-classes:target/classes:$(cat cp.txt) org.allureIQ.benchmarks.SanitizerBenchmark
+ * -------------------------------------------------
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SanitizerBenchmark {
+
+    private static final StreamingSanitizer API_LOGS = StreamingSanitizer.forApiLogs();
+    private static final StreamingSanitizer SEARCH = StreamingSanitizer.forSearchResults();
+
+    @Param({"1024", "102400", "5242880"})
+    public int bodySize;
+
+    private String body;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("[\n");
+        int i = 0;
+        while (sb.length() < bodySize) {
+            sb.append("  {\"id\": ").append(i)
+                    .append(", \"name\": \"user_").append(i).append("\"")
+                    .append(", \"token\": \"eyJhbGciOiJIUzI1NiJ9.").append(Integer.toHexString(i * 31)).append("\"")
+                    .append(", \"password\": \"secret").append(i).append("\"")
+                    .append(", \"profile\": \"https://example.com/u/").append(i).append("\"")
+                    .append("},\r\n");
+            i++;
+        }
+        body = sb.append("  {}\n]").toString();
+    }
+
+    // ---------- ApiReuse log sanitizing ----------
+    @Benchmark
+    public String legacyApiReuseRegex() {
+        return legacySanitize(body);
+    }
+
+    @Benchmark
+    public String streamingApiLogsCharSequence() {
+        return API_LOGS.sanitize(body);
+    }
+
+    @Benchmark
+    public String streamingApiLogsReader() throws IOException {
+        return API_LOGS.sanitize(new StringReader(body));
+    }
+
+    // ---------- Search result hiding ----------
+    @Benchmark
+    public boolean legacySearchMatches() {
+        return body.matches("(?i).*localhost.*|.*http://.*|.*https://.*|.*login.*|.*redirect.*");
+    }
+
+    @Benchmark
+    public boolean streamingSearchScan() {
+        return SEARCH.containsHiddenPattern(body);
+    }
+
+    // 🔸 Copy of the pre-StreamingSanitizer ApiReuse.sanitize
+    private static String legacySanitize(String input) {
+        if (input == null) return "";
+        String out = input.replaceAll("\\r?\\n", " ");
+        out = out.replaceAll("(?i)(\"?token\"?\\s*:\\s*\")[^\"]+\"", "\"token\":\"***\"");
+        out = out.replaceAll("(?i)(\"?password\"?\\s*:\\s*\")[^\"]+\"", "\"password\":\"***\"");
+        if (out.length() > 2000) out = out.substring(0, 2000) + "...(truncated)";
+        return out;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SanitizerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
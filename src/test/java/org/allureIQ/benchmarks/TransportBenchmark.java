@@ -0,0 +1,101 @@
+package org.allureIQ.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+import org.allureIQ.API.ApiReuse;
+import org.allureIQ.API.HttpTransport;
+import org.allureIQ.API.OkHttpTransport;
+import org.allureIQ.API.RestAssuredTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ JMH: HttpTransport throughput and allocation per request
+ * -------------------------------------------------
+ *  - Local stub server (com.sun.net.httpserver) answering a small JSON body, keep-alive
+ *  - restassured : the default transport (new HttpClient per request, RestAssured response)
+ *  - okhttp      : pooled OkHttpTransport
+ *  - Requests/sec from Mode.Throughput; bytes allocated per request from the GC profiler
+ *    (gc.alloc.rate.norm)
+ *
+ * Run:  mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *       java -cp target/test-classes:target/classes:$(cat cp.txt) org.allureIQ.benchmarks.TransportBenchmark
+ * -------------------------------------------------
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class TransportBenchmark {
+
+    private static final byte[] BODY = "{\"id\":1,\"name\":\"stub\",\"tags\":[\"a\",\"b\"]}".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"restassured", "okhttp"})
+    public String transportName;
+
+    private HttpServer server;
+    private HttpTransport transport;
+    private final Map<String, String> headers = new HashMap<>();
+
+    @Setup
+    public void setUp() throws Exception {
+        // Without TCP_NODELAY the stub's split header/body writes hit delayed ACKs on kept-alive connections
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+        server.createContext("/ping", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(16));
+        server.start();
+
+        ApiReuse.uri("http://127.0.0.1:" + server.getAddress().getPort());
+        transport = "okhttp".equals(transportName) ? new OkHttpTransport() : new RestAssuredTransport();
+        headers.put("Accept", "application/json");
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Benchmark
+    public int getPing() {
+        return transport.send("GET", "/ping", headers, null).asByteArray().length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TransportBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
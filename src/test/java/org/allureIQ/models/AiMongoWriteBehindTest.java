@@ -0,0 +1,168 @@
+package org.allureIQ.models;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * 📨 The flusher writes everything ahead of a flush() before it returns, retries what MongoDB
+ * rejected (only the failed entries), and writes late fields only after their executions.
+ */
+public class AiMongoWriteBehindTest {
+
+    private static Supplier<MongoCollection<Document>> original;
+
+    // bulkWrite calls that touch the current test's session, in order
+    private final List<List<WriteModel<Document>>> writes = Collections.synchronizedList(new ArrayList<>());
+    // what the next bulkWrite for the session does: throw this, or go through when empty
+    private final Deque<RuntimeException> failures = new ArrayDeque<>();
+    private volatile String session;
+
+    @BeforeClass
+    public void useFakeCollection() {
+        original = AiMongoWriteBehind.collection;
+        MongoCollection<Document> fake = fakeCollection();
+        AiMongoWriteBehind.collection = () -> fake;
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void restoreCollection() {
+        AiMongoWriteBehind.collection = original;
+    }
+
+    @BeforeMethod
+    public void newSession() {
+        AiMongoWriteBehind.flush();
+        session = "test-" + UUID.randomUUID();
+        writes.clear();
+        synchronized (failures) {
+            failures.clear();
+        }
+    }
+
+    @Test(timeOut = 20000)
+    public void flushReturnsOnceQueuedLogsAreWritten() {
+        AiMongoWriteBehind.enqueue("p", "sub", session, new Document("endpoint", "/a"));
+        AiMongoWriteBehind.enqueue("p", "sub", session, new Document("endpoint", "/b"));
+        AiMongoWriteBehind.flush();
+
+        Assert.assertEquals(writes.size(), 1);
+        Assert.assertEquals(writes.get(0).size(), 1, "both entries ride one $push");
+    }
+
+    @Test(timeOut = 20000)
+    public void rejectedWriteIsRetried() {
+        fail(new MongoException("connection reset"));
+        AiMongoWriteBehind.enqueue("p", "sub", session, new Document("endpoint", "/a"));
+        AiMongoWriteBehind.flush();
+
+        Assert.assertEquals(writes.size(), 2);
+        Assert.assertEquals(writes.get(1), writes.get(0));
+    }
+
+    @Test(timeOut = 20000)
+    public void onlyFailedBulkEntriesAreResent() {
+        fail(new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+                List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1)),
+                null, new ServerAddress(), Set.of()));
+        AiMongoWriteBehind.enqueue("p", "one", session, new Document("endpoint", "/a"));
+        AiMongoWriteBehind.enqueue("p", "two", session, new Document("endpoint", "/b"));
+        AiMongoWriteBehind.flush();
+
+        Assert.assertEquals(writes.size(), 2);
+        Assert.assertEquals(writes.get(0).size(), 2);
+        Assert.assertEquals(writes.get(1), List.of(writes.get(0).get(1)));
+    }
+
+    @Test(timeOut = 20000)
+    public void lateFieldIsWrittenOnlyAfterItsExecution() {
+        fail(new MongoException("connection reset"));
+        AiMongoWriteBehind.enqueue("p", "sub", session, new Document("endpoint", "/a").append("hintId", "h1"));
+        AiMongoWriteBehind.enqueueHint(session, "h1", new Document("hint", "check the token"));
+        AiMongoWriteBehind.flush();
+
+        // push rejected, push retried, then the hint
+        Assert.assertEquals(writes.size(), 3);
+        Assert.assertTrue(writes.get(0).get(0) instanceof UpdateOneModel);
+        Assert.assertTrue(writes.get(1).get(0) instanceof UpdateOneModel);
+        Assert.assertTrue(writes.get(2).get(0) instanceof UpdateManyModel);
+    }
+
+    @Test(timeOut = 20000)
+    public void fieldOfAQueuedExecutionIsMergedIntoIt() {
+        Document entry = new Document("endpoint", "/a").append(AiMongoWriteBehind.CALL_ID, "c1");
+        AiMongoWriteBehind.enqueue("p", "sub", session, entry);
+        AiMongoWriteBehind.enqueueField(session, "c1", "timing", new Document("totalMs", 12));
+        AiMongoWriteBehind.flush();
+
+        Assert.assertEquals(writes.size(), 1);
+        Assert.assertEquals(entry.get("timing", Document.class).getInteger("totalMs"), Integer.valueOf(12));
+    }
+
+    @Test(timeOut = 20000)
+    public void nonDatabaseFailureIsNotRetried() {
+        fail(new IllegalStateException("Missing MONGO_URL"));
+        AiMongoWriteBehind.enqueue("p", "sub", session, new Document("endpoint", "/a"));
+        AiMongoWriteBehind.flush();
+
+        Assert.assertEquals(writes.size(), 1);
+    }
+
+    private void fail(RuntimeException e) {
+        synchronized (failures) {
+            failures.add(e);
+        }
+    }
+
+    // Only bulkWrite and updateOne are used by the flusher
+    @SuppressWarnings("unchecked")
+    private MongoCollection<Document> fakeCollection() {
+        return (MongoCollection<Document>) Proxy.newProxyInstance(
+                MongoCollection.class.getClassLoader(), new Class<?>[]{MongoCollection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "bulkWrite": {
+                            List<WriteModel<Document>> models = new ArrayList<>((List<WriteModel<Document>>) args[0]);
+                            if (!models.toString().contains(session)) return BulkWriteResult.unacknowledged();
+                            writes.add(models);
+                            RuntimeException failure;
+                            synchronized (failures) {
+                                failure = failures.poll();
+                            }
+                            if (failure != null) throw failure;
+                            return BulkWriteResult.unacknowledged();
+                        }
+                        case "updateOne":
+                            return UpdateResult.unacknowledged();
+                        case "toString":
+                            return "fake ai_executions";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}